@@ -0,0 +1,171 @@
+package com.ecommarce.project.cache;
+
+import com.ecommarce.project.payload.CategoryDTO;
+import com.ecommarce.project.payload.CategoryResponse;
+import com.ecommarce.project.payload.ProductDTO;
+import com.ecommarce.project.payload.ProductResponse;
+import com.ecommarce.project.search.SearchTokenizer;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+@Component
+public class CatalogCache {
+
+    private final Cache<ProductPageKey, ProductResponse> productPages;
+
+    private final Cache<CategoryPageKey, CategoryResponse> categoryPages;
+
+    private final AtomicLong productGeneration = new AtomicLong();
+
+    private final AtomicLong categoryGeneration = new AtomicLong();
+
+    public CatalogCache(@Value("${spring.app.catalogCache.maxSize:1000}") long maxSize,
+                        @Value("${spring.app.catalogCache.ttlSeconds:60}") long ttlSeconds,
+                        MeterRegistry meterRegistry) {
+        // Caffeine's default eviction policy is W-TinyLFU
+        productPages = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        categoryPages = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+
+        monitor(meterRegistry, productPages, "catalog.products");
+        monitor(meterRegistry, categoryPages, "catalog.categories");
+    }
+
+    // callers get their own copy, so changing a response can't change what the next caller is served
+    public ProductResponse products(ProductPageKey key, Supplier<ProductResponse> loader) {
+        return copy(readThrough(productPages, productGeneration, key, loader));
+    }
+
+    public CategoryResponse categories(CategoryPageKey key, Supplier<CategoryResponse> loader) {
+        return copy(readThrough(categoryPages, categoryGeneration, key, loader));
+    }
+
+    // a product changed: drop the unfiltered pages, its category's pages and the searches that can match it.
+    // texts are the product's name and description, before and after the change
+    public void evictProduct(Long categoryId, String... texts) {
+        afterCommit(() -> {
+            productGeneration.incrementAndGet();
+            productPages.asMap().keySet().removeIf(key -> key.isUnfiltered()
+                    || (key.categoryId() != null && key.categoryId().equals(categoryId))
+                    || (key.keyword() != null && matchesAny(key.keyword(), texts)));
+        });
+    }
+
+    // bulk writes touch too many categories and texts to evict selectively
+    public void evictProducts() {
+        afterCommit(() -> {
+            productGeneration.incrementAndGet();
+            productPages.invalidateAll();
+        });
+    }
+
+    public void evictCategory(Long categoryId) {
+        afterCommit(() -> {
+            categoryGeneration.incrementAndGet();
+            categoryPages.invalidateAll();
+            if (categoryId != null) {
+                productGeneration.incrementAndGet();
+                // deleting a category cascades to its products
+                productPages.asMap().keySet().removeIf(key -> key.categoryId() == null
+                        || key.categoryId().equals(categoryId));
+            }
+        });
+    }
+
+    public void evictCategoryListing() {
+        afterCommit(() -> {
+            categoryGeneration.incrementAndGet();
+            categoryPages.invalidateAll();
+        });
+    }
+
+    // Every eviction bumps the generation before it removes entries. A load that saw the generation move
+    // while it ran may have read the old rows and stored them after the eviction's pass, so it drops its
+    // own entry; if the bump comes later, the eviction's pass sees the entry instead.
+    private static <K, V> V readThrough(Cache<K, V> cache, AtomicLong generation, K key, Supplier<V> loader) {
+        long[] loadedAt = {-1};
+        V value = cache.get(key, k -> {
+            loadedAt[0] = generation.get();
+            return loader.get();
+        });
+        if (value != null && loadedAt[0] >= 0 && generation.get() != loadedAt[0]) {
+            cache.asMap().remove(key, value);
+        }
+        return value;
+    }
+
+    // a write inside a transaction evicts once it commits, otherwise a load could cache the rows it replaces
+    private static void afterCommit(Runnable eviction) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eviction.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eviction.run();
+            }
+        });
+    }
+
+    private static ProductResponse copy(ProductResponse page) {
+        if (page == null) {
+            return null;
+        }
+        List<ProductDTO> content = page.getContent() == null ? null : page.getContent().stream()
+                .map(p -> new ProductDTO(p.getProductId(), p.getProductName(), p.getImage(), p.getDescription(),
+                        p.getQuantity(), p.getPrice(), p.getDiscount(), p.getSpecialPrice()))
+                .collect(Collectors.toCollection(ArrayList::new));
+        return new ProductResponse(content, page.getPageNumber(), page.getPageSize(), page.getTotalElements(),
+                page.getTotalPages(), page.isLastPage(), page.getNextCursor(), page.isTotalsCapped());
+    }
+
+    private static CategoryResponse copy(CategoryResponse page) {
+        if (page == null) {
+            return null;
+        }
+        List<CategoryDTO> content = page.getContent() == null ? null : page.getContent().stream()
+                .map(c -> new CategoryDTO(c.getCategoryId(), c.getCategoryName()))
+                .collect(Collectors.toCollection(ArrayList::new));
+        return new CategoryResponse(content, page.getPageNumber(), page.getPageSize(), page.getTotalElements(),
+                page.getTotalPages(), page.isLastPage(), page.getNextCursor());
+    }
+
+    // covers both the index's word-prefix matching and the LIKE '%keyword%' fallback
+    private static boolean matchesAny(String keyword, String... texts) {
+        for (String text : texts) {
+            if (text != null && text.toLowerCase().contains(keyword)) {
+                return true;
+            }
+        }
+        return SearchTokenizer.matches(keyword, texts);
+    }
+
+    private static void monitor(MeterRegistry meterRegistry, Cache<?, ?> cache, String name) {
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+        Gauge.builder("cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .tag("cache", name)
+                .register(meterRegistry);
+    }
+}
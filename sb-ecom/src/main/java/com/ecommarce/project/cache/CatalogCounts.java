@@ -0,0 +1,87 @@
+package com.ecommarce.project.cache;
+
+import com.ecommarce.project.model.Category;
+import com.ecommarce.project.repositories.CategoryRepository;
+import com.ecommarce.project.repositories.ProductRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// row counts behind the listing totals, so pages don't need a COUNT(*) next to every select.
+// add/delete keep them in step; the ttl re-counts to pick up writes made outside the services.
+@Component
+public class CatalogCounts {
+
+    private static final String PRODUCTS = "products";
+    private static final String CATEGORIES = "categories";
+
+    private final Cache<String, Long> counts;
+
+    private final ProductRepository productRepository;
+
+    private final CategoryRepository categoryRepository;
+
+    public CatalogCounts(@Value("${spring.app.catalogCache.ttlSeconds:60}") long ttlSeconds,
+                         ProductRepository productRepository,
+                         CategoryRepository categoryRepository,
+                         MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        counts = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, counts, "catalog.counts");
+    }
+
+    public long productCount() {
+        return counts.get(PRODUCTS, k -> productRepository.count());
+    }
+
+    public long productCount(Category category) {
+        return counts.get(categoryKey(category.getCategoryId()), k -> productRepository.countByCategory(category));
+    }
+
+    public long categoryCount() {
+        return counts.get(CATEGORIES, k -> categoryRepository.count());
+    }
+
+    public void productAdded(Long categoryId) {
+        productsAdded(categoryId, 1);
+    }
+
+    public void productsAdded(Long categoryId, int added) {
+        adjust(PRODUCTS, added);
+        adjust(categoryKey(categoryId), added);
+    }
+
+    public void productRemoved(Long categoryId) {
+        adjust(PRODUCTS, -1);
+        adjust(categoryKey(categoryId), -1);
+    }
+
+    public void categoryAdded() {
+        adjust(CATEGORIES, 1);
+    }
+
+    public void categoryRemoved(Long categoryId) {
+        adjust(CATEGORIES, -1);
+        // its products went with it
+        counts.invalidate(PRODUCTS);
+        counts.invalidate(categoryKey(categoryId));
+    }
+
+    // only counts that are already loaded are adjusted, a missing one is counted on next read
+    private void adjust(String key, long delta) {
+        counts.asMap().computeIfPresent(key, (k, count) -> Math.max(0, count + delta));
+    }
+
+    private static String categoryKey(Long categoryId) {
+        return PRODUCTS + ":" + categoryId;
+    }
+}
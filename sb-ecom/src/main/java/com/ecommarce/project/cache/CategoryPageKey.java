@@ -0,0 +1,5 @@
+package com.ecommarce.project.cache;
+
+public record CategoryPageKey(int pageNumber, int pageSize, String sortBy, String sortOrder,
+                              boolean includeTotals) {
+}
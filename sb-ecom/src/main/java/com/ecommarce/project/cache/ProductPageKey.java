@@ -0,0 +1,28 @@
+package com.ecommarce.project.cache;
+
+public record ProductPageKey(Long categoryId, String keyword, Double minPrice, Double maxPrice,
+                             int pageNumber, int pageSize, String sortBy, String sortOrder, boolean includeTotals) {
+
+    public static ProductPageKey all(int pageNumber, int pageSize, String sortBy, String sortOrder,
+                                     boolean includeTotals) {
+        return new ProductPageKey(null, null, null, null, pageNumber, pageSize, sortBy, sortOrder.toLowerCase(),
+                includeTotals);
+    }
+
+    public static ProductPageKey category(Long categoryId, int pageNumber, int pageSize, String sortBy, String sortOrder,
+                                          boolean includeTotals) {
+        return new ProductPageKey(categoryId, null, null, null, pageNumber, pageSize, sortBy, sortOrder.toLowerCase(),
+                includeTotals);
+    }
+
+    public static ProductPageKey keyword(String keyword, Long categoryId, Double minPrice, Double maxPrice,
+                                         int pageNumber, int pageSize, String sortBy, String sortOrder,
+                                         boolean includeTotals) {
+        return new ProductPageKey(categoryId, keyword.toLowerCase(), minPrice, maxPrice, pageNumber, pageSize, sortBy,
+                sortOrder.toLowerCase(), includeTotals);
+    }
+
+    public boolean isUnfiltered() {
+        return categoryId == null && keyword == null;
+    }
+}
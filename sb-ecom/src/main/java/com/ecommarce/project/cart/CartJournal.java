@@ -0,0 +1,188 @@
+package com.ecommarce.project.cart;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+// append-only log of cart changes, written before a change is acknowledged and read back on startup to
+// replay whatever the write-behind had not persisted. Records are absolute (set a line, drop a line, empty
+// the cart), so replaying one that already reached the database changes nothing. A checkout leaves an intent
+// record just before its order commits and an abort record if it rolls back; replay settles an intent without
+// an abort against the cart rows, which a committed order has emptied. The log is split into
+// numbered segments; a segment is deleted once no cart still waits on a change recorded in it.
+public class CartJournal implements AutoCloseable {
+
+    public static final byte SET = 1;
+    public static final byte REMOVE = 2;
+    public static final byte CLEAR = 3;
+    public static final byte CHECKOUT = 4;
+    public static final byte CHECKOUT_ABORTED = 5;
+
+    // op, cartId, productId, quantity, priceMinor, discount
+    static final int RECORD_BYTES = 1 + 8 + 8 + 4 + 8 + 8;
+
+    private static final String PREFIX = "cart-";
+    private static final String SUFFIX = ".journal";
+
+    private static final String DATABASE_FILE = "database";
+
+    private final Path directory;
+
+    private final boolean fsync;
+
+    private final ByteBuffer buffer = ByteBuffer.allocate(RECORD_BYTES);
+
+    // segments left by a previous run, oldest first
+    private final List<Long> recovered;
+
+    private long segment;
+
+    private FileChannel channel;
+
+    public CartJournal(Path directory, boolean fsync) {
+        this.directory = directory;
+        this.fsync = fsync;
+        try {
+            Files.createDirectories(directory);
+            try (Stream<Path> files = Files.list(directory)) {
+                recovered = files.map(CartJournal::segmentOf)
+                        .filter(seq -> seq >= 0)
+                        .sorted()
+                        .toList();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open cart journal in " + directory, e);
+        }
+        segment = recovered.isEmpty() ? 0 : recovered.get(recovered.size() - 1);
+        open(segment + 1);
+    }
+
+    // returns the segment the record went to
+    public synchronized long append(byte op, long cartId, long productId, int quantity, long priceMinor,
+                                    double discount) {
+        buffer.clear();
+        buffer.put(op).putLong(cartId).putLong(productId).putInt(quantity).putLong(priceMinor).putDouble(discount);
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (fsync) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot append to cart journal", e);
+        }
+        return segment;
+    }
+
+    // records name carts and products by id, which only mean something in the database they were written
+    // against; false when the journal was last bound to another one (or to none), so its records are stale
+    public synchronized boolean bind(String databaseId) {
+        Path file = directory.resolve(DATABASE_FILE);
+        try {
+            String previous = Files.exists(file) ? Files.readString(file).trim() : null;
+            if (!databaseId.equals(previous)) {
+                Files.writeString(file, databaseId);
+            }
+            return databaseId.equals(previous);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot bind cart journal in " + directory, e);
+        }
+    }
+
+    public synchronized long currentSegment() {
+        return segment;
+    }
+
+    public List<Entry> recoveredEntries() {
+        List<Entry> entries = new ArrayList<>();
+        for (long seq : recovered) {
+            entries.addAll(read(path(seq)));
+        }
+        return entries;
+    }
+
+    // segments below the given one hold no change the database is still missing
+    public synchronized void deleteBefore(long seq) {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                long fileSegment = segmentOf(file);
+                if (fileSegment >= 0 && fileSegment < Math.min(seq, segment)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot trim cart journal", e);
+        }
+    }
+
+    public synchronized long rotate() {
+        close();
+        open(segment + 1);
+        return segment;
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            if (channel != null) {
+                channel.force(false);
+                channel.close();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot close cart journal", e);
+        }
+    }
+
+    private void open(long seq) {
+        try {
+            channel = FileChannel.open(path(seq), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+            segment = seq;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open cart journal segment " + seq, e);
+        }
+    }
+
+    private Path path(long seq) {
+        return directory.resolve(PREFIX + seq + SUFFIX);
+    }
+
+    // a record cut short by a crash mid-write is dropped; its change was never acknowledged
+    private static List<Entry> read(Path file) {
+        try {
+            ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file));
+            List<Entry> entries = new ArrayList<>(bytes.remaining() / RECORD_BYTES);
+            while (bytes.remaining() >= RECORD_BYTES) {
+                entries.add(new Entry(bytes.get(), bytes.getLong(), bytes.getLong(), bytes.getInt(),
+                        bytes.getLong(), bytes.getDouble()));
+            }
+            return entries;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read cart journal segment " + file, e);
+        }
+    }
+
+    private static long segmentOf(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.startsWith(PREFIX) || !name.endsWith(SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    public record Entry(byte op, long cartId, long productId, int quantity, long priceMinor, double discount) {
+    }
+}
@@ -0,0 +1,91 @@
+package com.ecommarce.project.cart;
+
+import com.ecommarce.project.repositories.CartItemRepository;
+import com.ecommarce.project.repositories.CartRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Takes a deleted product out of every cart, chunkSize carts per transaction so no statement holds row locks
+// on all of a bestseller's carts at once: one UPDATE subtracts the product's lines from the chunk's totals,
+// one DELETE drops those lines.
+@Component
+public class CartProductRemover {
+
+    private static final Logger logger = LoggerFactory.getLogger(CartProductRemover.class);
+
+    // lines still to remove, over all removals in progress
+    private final AtomicLong remaining = new AtomicLong();
+
+    private final Counter removed;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${spring.app.cartRemoval.chunkSize:1000}")
+    private int chunkSize;
+
+    public CartProductRemover(MeterRegistry meterRegistry) {
+        Gauge.builder("cart.product.removal.remaining", remaining, AtomicLong::get).register(meterRegistry);
+        this.removed = Counter.builder("cart.product.removal.lines").register(meterRegistry);
+    }
+
+    // returns the number of cart lines removed
+    public long removeProduct(Long productId) {
+        long expected = cartItemRepository.countLinesOfProduct(productId);
+        if (expected == 0) {
+            return 0;
+        }
+        remaining.addAndGet(expected);
+        long done = 0;
+        try {
+            while (true) {
+                Integer lines = transactionTemplate.execute(status -> {
+                    Long lastCartId = cartItemRepository.findChunkEndCartId(productId, chunkSize);
+                    if (lastCartId == null) {
+                        return 0;
+                    }
+                    cartRepository.subtractLinesOfProductUpToCart(productId, lastCartId);
+                    return cartItemRepository.deleteLinesOfProductUpToCart(productId, lastCartId);
+                });
+                if (lines == null || lines == 0) {
+                    break;
+                }
+                // lines added meanwhile can push done past the first count; the gauge only counts down that count
+                remaining.addAndGet(Math.min(done, expected) - Math.min(done + lines, expected));
+                done += lines;
+                removed.increment(lines);
+                logger.debug("Removed product {} from {} of {} cart lines", productId, done, expected);
+            }
+        } finally {
+            remaining.addAndGet(Math.min(done, expected) - expected);
+        }
+        if (done > chunkSize) {
+            logger.info("Removed product {} from {} cart lines", productId, done);
+        }
+        return done;
+    }
+
+    // whatever lines are left, in the caller's transaction: run with the product row locked right before the
+    // product is deleted, it catches lines added after the chunked pass that would fail the delete
+    public long removeRemainingLines(Long productId) {
+        cartRepository.subtractLinesOfProductUpToCart(productId, Long.MAX_VALUE);
+        int lines = cartItemRepository.deleteLinesOfProductUpToCart(productId, Long.MAX_VALUE);
+        removed.increment(lines);
+        return lines;
+    }
+}
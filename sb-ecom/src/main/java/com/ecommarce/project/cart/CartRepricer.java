@@ -0,0 +1,146 @@
+package com.ecommarce.project.cart;
+
+import com.ecommarce.project.repositories.CartItemRepository;
+import com.ecommarce.project.repositories.CartRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+// Moves carts onto a product's new price off the admin request. Events queue per product (a later price
+// replaces a pending one) and a single worker applies each with one UPDATE over the product's cart lines
+// and one recompute of the totals of the carts holding it.
+@Component
+public class CartRepricer {
+
+    private static final Logger logger = LoggerFactory.getLogger(CartRepricer.class);
+
+    private final Map<Long, ProductRepricedEvent> pending = new ConcurrentHashMap<>();
+
+    // failed events wait here for the next retry round instead of spinning the worker
+    private final Map<Long, ProductRepricedEvent> failed = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    private final Timer lag;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cart-repricer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public CartRepricer(MeterRegistry meterRegistry) {
+        Gauge.builder("cart.reprice.backlog", this, CartRepricer::backlog).register(meterRegistry);
+        Gauge.builder("cart.reprice.oldest.pending", this, CartRepricer::oldestPendingSeconds)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        this.lag = Timer.builder("cart.reprice.lag").register(meterRegistry);
+    }
+
+    // after commit, so the worker never reprices to a price that was rolled back
+    @TransactionalEventListener(fallbackExecution = true)
+    public void productRepriced(ProductRepricedEvent event) {
+        // an older price still waiting for a retry must not land after this one
+        failed.remove(event.productId());
+        // keep the oldest publish time so the lag covers the whole wait
+        pending.merge(event.productId(), event, (queued, latest) -> new ProductRepricedEvent(
+                latest.productId(), latest.unitPriceMinor(), queued.publishedAtNanos()));
+        startDraining();
+    }
+
+    @Scheduled(fixedDelayString = "${spring.app.cartReprice.retryIntervalMs:30000}")
+    public void retryFailed() {
+        for (Long productId : failed.keySet()) {
+            ProductRepricedEvent event = failed.remove(productId);
+            if (event != null) {
+                // a newer price queued meanwhile wins
+                pending.putIfAbsent(productId, event);
+            }
+        }
+        if (!pending.isEmpty()) {
+            startDraining();
+        }
+    }
+
+    public int backlog() {
+        return pending.size() + failed.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void drain() {
+        try {
+            for (Long productId : pending.keySet()) {
+                ProductRepricedEvent event = pending.remove(productId);
+                if (event != null) {
+                    apply(event);
+                }
+            }
+        } finally {
+            draining.set(false);
+        }
+        // an event queued after the last pass but before the flag was cleared found the worker still busy
+        if (!pending.isEmpty()) {
+            startDraining();
+        }
+    }
+
+    private void startDraining() {
+        if (draining.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void apply(ProductRepricedEvent event) {
+        try {
+            Integer lines = transactionTemplate.execute(status -> {
+                int repriced = cartItemRepository.repriceLines(event.productId(), event.unitPriceMinor());
+                if (repriced > 0) {
+                    cartRepository.recomputeTotalsOfCartsWithProduct(event.productId());
+                }
+                return repriced;
+            });
+            lag.record(System.nanoTime() - event.publishedAtNanos(), TimeUnit.NANOSECONDS);
+            logger.debug("Repriced {} cart lines of product {}", lines, event.productId());
+        } catch (RuntimeException e) {
+            failed.put(event.productId(), event);
+            logger.warn("Repricing carts of product {} failed, will retry", event.productId(), e);
+        }
+    }
+
+    private double oldestPendingSeconds() {
+        long now = System.nanoTime();
+        return Stream.concat(pending.values().stream(), failed.values().stream())
+                .mapToLong(event -> now - event.publishedAtNanos())
+                .max()
+                .orElse(0L) / 1e9;
+    }
+}
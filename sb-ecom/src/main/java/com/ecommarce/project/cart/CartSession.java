@@ -0,0 +1,174 @@
+package com.ecommarce.project.cart;
+
+import com.ecommarce.project.money.Money;
+import com.ecommarce.project.payload.CartDTO;
+import com.ecommarce.project.payload.ProductDTO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// one user's cart held in memory: parallel primitive arrays per line plus the product as it is shown, so
+// a cart view is built without touching the database. Callers synchronize on the session.
+class CartSession {
+
+    final Long userId;
+
+    final String email;
+
+    Long cartId;
+
+    private long[] productIds = new long[4];
+    private int[] quantities = new int[4];
+    private long[] pricesMinor = new long[4];
+    private double[] discounts = new double[4];
+    private ProductDTO[] products = new ProductDTO[4];
+    private int size;
+
+    private long totalMinor;
+
+    // bumped on every change; a flush only marks the session clean if nothing changed while it was writing
+    private long version;
+
+    private boolean dirty;
+
+    // oldest journal segment holding a change of this session that the database doesn't have yet
+    private long pendingSegment = Long.MAX_VALUE;
+
+    private long firstDirtyNanos;
+
+    private long lastChangeNanos = System.nanoTime();
+
+    boolean evicted;
+
+    // set while an order holding this cart is in flight; flush rounds leave the session alone
+    boolean checkingOut;
+
+    CartSession(Long userId, String email) {
+        this.userId = userId;
+        this.email = email;
+    }
+
+    int indexOf(long productId) {
+        for (int i = 0; i < size; i++) {
+            if (productIds[i] == productId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    int quantityAt(int index) {
+        return quantities[index];
+    }
+
+    long priceMinorAt(int index) {
+        return pricesMinor[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    ProductDTO productAt(int index) {
+        return products[index];
+    }
+
+    void set(ProductDTO product, long unitMinor, double discount, int quantity) {
+        int index = indexOf(product.getProductId());
+        if (index < 0) {
+            index = size++;
+            if (index == productIds.length) {
+                int capacity = index + (index >> 1) + 1;
+                productIds = Arrays.copyOf(productIds, capacity);
+                quantities = Arrays.copyOf(quantities, capacity);
+                pricesMinor = Arrays.copyOf(pricesMinor, capacity);
+                discounts = Arrays.copyOf(discounts, capacity);
+                products = Arrays.copyOf(products, capacity);
+            }
+            productIds[index] = product.getProductId();
+        } else {
+            totalMinor = Money.subtract(totalMinor, Money.line(pricesMinor[index], quantities[index]));
+        }
+        quantities[index] = quantity;
+        pricesMinor[index] = unitMinor;
+        discounts[index] = discount;
+        products[index] = product;
+        totalMinor = Money.add(totalMinor, Money.line(unitMinor, quantity));
+    }
+
+    void remove(int index) {
+        totalMinor = Money.subtract(totalMinor, Money.line(pricesMinor[index], quantities[index]));
+        int last = --size;
+        productIds[index] = productIds[last];
+        quantities[index] = quantities[last];
+        pricesMinor[index] = pricesMinor[last];
+        discounts[index] = discounts[last];
+        products[index] = products[last];
+        products[last] = null;
+    }
+
+    void clear() {
+        Arrays.fill(products, 0, size, null);
+        size = 0;
+        totalMinor = 0;
+    }
+
+    void changed(long segment) {
+        version++;
+        long now = System.nanoTime();
+        if (!dirty) {
+            dirty = true;
+            firstDirtyNanos = now;
+        }
+        pendingSegment = Math.min(pendingSegment, segment);
+        lastChangeNanos = now;
+    }
+
+    boolean dirty() {
+        return dirty;
+    }
+
+    boolean due(long nowNanos, long quietNanos, long maxDelayNanos) {
+        return dirty && (nowNanos - lastChangeNanos >= quietNanos || nowNanos - firstDirtyNanos >= maxDelayNanos);
+    }
+
+    boolean idle(long nowNanos, long idleNanos) {
+        return !dirty && nowNanos - lastChangeNanos >= idleNanos;
+    }
+
+    long version() {
+        return version;
+    }
+
+    long pendingSegment() {
+        return pendingSegment;
+    }
+
+    void touched() {
+        lastChangeNanos = System.nanoTime();
+    }
+
+    CartSnapshot snapshot() {
+        return new CartSnapshot(cartId, version, Arrays.copyOf(productIds, size), Arrays.copyOf(quantities, size),
+                Arrays.copyOf(pricesMinor, size), Arrays.copyOf(discounts, size), totalMinor);
+    }
+
+    void flushed(long flushedVersion) {
+        if (version == flushedVersion) {
+            dirty = false;
+            pendingSegment = Long.MAX_VALUE;
+        }
+    }
+
+    CartDTO toDto() {
+        List<ProductDTO> lines = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ProductDTO product = products[i];
+            lines.add(new ProductDTO(product.getProductId(), product.getProductName(), product.getImage(),
+                    product.getDescription(), quantities[i], product.getPrice(), product.getDiscount(),
+                    product.getSpecialPrice()));
+        }
+        return new CartDTO(cartId, Money.toMajor(totalMinor), lines);
+    }
+}
@@ -0,0 +1,6 @@
+package com.ecommarce.project.cart;
+
+// a session's lines copied out under its lock, written to carts/cart_items without holding it
+record CartSnapshot(Long cartId, long version, long[] productIds, int[] quantities, long[] pricesMinor,
+                    double[] discounts, long totalMinor) {
+}
@@ -0,0 +1,558 @@
+package com.ecommarce.project.cart;
+
+import com.ecommarce.project.exceptions.APIException;
+import com.ecommarce.project.mapper.CartMapper;
+import com.ecommarce.project.model.Cart;
+import com.ecommarce.project.model.CartItem;
+import com.ecommarce.project.model.Product;
+import com.ecommarce.project.model.User;
+import com.ecommarce.project.money.CartTotals;
+import com.ecommarce.project.money.Money;
+import com.ecommarce.project.payload.CartDTO;
+import com.ecommarce.project.payload.ProductDTO;
+import com.ecommarce.project.repositories.CartRepository;
+import com.ecommarce.project.repositories.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// carts served from memory, keyed by user id. Every change is journaled and applied to the session, and
+// the session is written back once it has been quiet for debounceMs (or dirty for maxDelayMs), many carts
+// per transaction. Checkout writes the buyer's cart synchronously first, so orders always see every line.
+@Component
+@ConditionalOnProperty(name = "spring.app.cartStore.inMemory", havingValue = "true")
+public class CartStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(CartStore.class);
+
+    private final Map<Long, CartSession> sessions = new ConcurrentHashMap<>();
+
+    private final Map<Long, CartSession> sessionsByCartId = new ConcurrentHashMap<>();
+
+    private final Map<String, Long> userIdsByEmail = new ConcurrentHashMap<>();
+
+    private final CartJournal journal;
+
+    private final Counter flushed;
+
+    @Value("${spring.app.cartStore.debounceMs:2000}")
+    private long debounceMs;
+
+    @Value("${spring.app.cartStore.maxDelayMs:10000}")
+    private long maxDelayMs;
+
+    @Value("${spring.app.cartStore.idleEvictMs:1800000}")
+    private long idleEvictMs;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CartMapper cartMapper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public CartStore(MeterRegistry meterRegistry,
+                     @Value("${spring.app.cartStore.journalDir:cart-journal}") String journalDir,
+                     @Value("${spring.app.cartStore.journalFsync:false}") boolean journalFsync) {
+        this.journal = new CartJournal(Path.of(journalDir), journalFsync);
+        Gauge.builder("cart.store.sessions", sessions, Map::size).register(meterRegistry);
+        this.flushed = Counter.builder("cart.store.flushed").register(meterRegistry);
+    }
+
+    // changes a previous run journaled but never wrote back; replaying absolute records is idempotent.
+    // Against a fresh schema (an in-memory database starts its ids over every run) the records would land
+    // on whichever carts and products took those ids, so they are dropped instead.
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void replay() {
+        List<CartJournal.Entry> recovered = journal.recoveredEntries();
+        boolean sameDatabase = journal.bind(databaseId());
+        if (!sameDatabase && !recovered.isEmpty()) {
+            logger.warn("Cart journal was written against another database, dropping {} records", recovered.size());
+        }
+        List<CartJournal.Entry> entries = sameDatabase ? recovered : List.of();
+        if (!entries.isEmpty()) {
+            Map<Long, List<CartJournal.Entry>> byCart = new LinkedHashMap<>();
+            entries.forEach(entry -> byCart.computeIfAbsent(entry.cartId(), id -> new ArrayList<>()).add(entry));
+            transactionTemplate.executeWithoutResult(status -> {
+                Set<Long> productIds = new HashSet<>();
+                entries.forEach(entry -> productIds.add(entry.productId()));
+                Set<Long> existing = new HashSet<>(productRepository.findExistingIds(productIds));
+                for (Cart cart : cartRepository.findCartsWithItemsByCartIdIn(byCart.keySet())) {
+                    Map<Long, CartItem> items = itemsByProductId(cart);
+                    // a committed order deleted the cart's rows, and no flush writes the cart again until the
+                    // after-commit records are journaled; an empty cart means an unsettled checkout went through
+                    boolean emptyInDatabase = items.isEmpty();
+                    List<CartJournal.Entry> cartEntries = byCart.get(cart.getCartId());
+                    for (int i = 0; i < cartEntries.size(); i++) {
+                        CartJournal.Entry entry = cartEntries.get(i);
+                        switch (entry.op()) {
+                            case CartJournal.SET -> {
+                                if (existing.contains(entry.productId())) {
+                                    setLine(cart, items, entry.productId(), entry.quantity(), entry.priceMinor(),
+                                            entry.discount());
+                                }
+                            }
+                            case CartJournal.REMOVE -> {
+                                CartItem cartItem = items.remove(entry.productId());
+                                cart.getCartItems().removeIf(item -> item == cartItem);
+                            }
+                            case CartJournal.CLEAR -> {
+                                items.clear();
+                                cart.getCartItems().clear();
+                            }
+                            case CartJournal.CHECKOUT -> {
+                                if (emptyInDatabase && !aborted(cartEntries, i)) {
+                                    items.clear();
+                                    cart.getCartItems().clear();
+                                }
+                            }
+                            case CartJournal.CHECKOUT_ABORTED -> {
+                                // only cancels the intent before it, see aborted()
+                            }
+                            default -> throw new IllegalStateException("Unknown cart journal op " + entry.op());
+                        }
+                    }
+                    cart.setTotalPriceMinor(CartTotals.expectedTotalMinor(cart));
+                }
+            });
+            logger.info("Replayed {} journaled changes to {} carts", entries.size(), byCart.size());
+        }
+        journal.deleteBefore(journal.currentSegment());
+    }
+
+    private static boolean aborted(List<CartJournal.Entry> cartEntries, int checkout) {
+        for (int i = checkout + 1; i < cartEntries.size(); i++) {
+            byte op = cartEntries.get(i).op();
+            if (op == CartJournal.CHECKOUT || op == CartJournal.CHECKOUT_ABORTED) {
+                return op == CartJournal.CHECKOUT_ABORTED;
+            }
+        }
+        return false;
+    }
+
+    // a random id stored in the schema itself (schema.sql creates the table), so it is gone whenever the schema is
+    private String databaseId() {
+        List<String> ids = jdbcTemplate.queryForList("SELECT database_id FROM cart_journal_database", String.class);
+        if (!ids.isEmpty()) {
+            return ids.get(0);
+        }
+        String id = UUID.randomUUID().toString();
+        jdbcTemplate.update("INSERT INTO cart_journal_database (database_id) VALUES (?)", id);
+        return id;
+    }
+
+    // null when the user has no cart yet
+    public CartDTO view(Long userId, String email) {
+        return withSession(userId, email, session -> {
+            session.touched();
+            return session.cartId != null ? session.toDto() : null;
+        });
+    }
+
+    public CartDTO addLine(Long userId, String email, ProductDTO product, int quantity) {
+        return withSession(userId, email, session -> {
+            if (session.indexOf(product.getProductId()) >= 0) {
+                throw new APIException("Product" + product.getProductName() + " already exist in the cart");
+            }
+            ensureCart(session);
+            set(session, product, quantity);
+            return session.toDto();
+        });
+    }
+
+    // absolute quantities, applied together under the session lock; 0 drops the line
+    public CartDTO setQuantities(Long userId, String email, List<ProductDTO> products, int[] quantities) {
+        return withSession(userId, email, session -> {
+            ensureCart(session);
+            for (int i = 0; i < quantities.length; i++) {
+                ProductDTO product = products.get(i);
+                int index = session.indexOf(product.getProductId());
+                if (quantities[i] > 0) {
+                    set(session, product, quantities[i]);
+                } else if (index >= 0) {
+                    remove(session, index);
+                }
+            }
+            return session.toDto();
+        });
+    }
+
+    // reprices the line at the product's current price, like CartServiceImpl does for stored carts
+    public CartDTO changeQuantity(Long userId, String email, ProductDTO product, int delta) {
+        return withSession(userId, email, session -> {
+            int index = session.indexOf(product.getProductId());
+            if (index < 0) {
+                throw new APIException("Product " + product.getProductName() + " not available in the cart!!!");
+            }
+            int quantity = session.quantityAt(index) + delta;
+            if (quantity < 0) {
+                throw new APIException("The result quantity can not be negative");
+            }
+            if (quantity == 0) {
+                remove(session, index);
+            } else {
+                set(session, product, quantity);
+            }
+            return session.toDto();
+        });
+    }
+
+    // null when the cart isn't held here or has no such line
+    public String removeLine(Long cartId, Long productId) {
+        CartSession session = sessionsByCartId.get(cartId);
+        if (session == null) {
+            return null;
+        }
+        synchronized (session) {
+            int index = session.evicted ? -1 : session.indexOf(productId);
+            if (index < 0) {
+                return null;
+            }
+            String productName = session.productAt(index).getProductName();
+            remove(session, index);
+            return productName;
+        }
+    }
+
+    // product writes reach every resident cart holding the product; one pass over the sessions
+    public void productRepriced(ProductDTO product) {
+        for (CartSession session : sessions.values()) {
+            synchronized (session) {
+                int index = session.evicted ? -1 : session.indexOf(product.getProductId());
+                if (index >= 0) {
+                    set(session, product, session.quantityAt(index));
+                }
+            }
+        }
+    }
+
+    public void productRemoved(Long productId) {
+        for (CartSession session : sessions.values()) {
+            synchronized (session) {
+                int index = session.evicted ? -1 : session.indexOf(productId);
+                if (index >= 0) {
+                    remove(session, index);
+                }
+            }
+        }
+    }
+
+    // writes the buyer's cart in the order's transaction and keeps flush rounds off it until the order
+    // completes; once committed the ordered lines are gone from the database and are dropped here too.
+    // Lines added or changed while the order was being placed weren't ordered and stay in the cart.
+    public void flushForCheckout(String email) {
+        Long userId = userIdsByEmail.get(email);
+        CartSession session = userId != null ? sessions.get(userId) : null;
+        if (session == null) {
+            return;
+        }
+        CartSnapshot snapshot;
+        boolean dirty;
+        synchronized (this) {
+            synchronized (session) {
+                if (session.evicted) {
+                    return;
+                }
+                session.checkingOut = true;
+                snapshot = session.snapshot();
+                dirty = session.dirty();
+            }
+            try {
+                if (dirty) {
+                    write(List.of(snapshot));
+                }
+            } catch (RuntimeException e) {
+                synchronized (session) {
+                    session.checkingOut = false;
+                }
+                throw e;
+            }
+        }
+        Long cartId = snapshot.cartId();
+        if (cartId != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                // a crash between the commit and the records below would otherwise replay the ordered lines
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    journal.append(CartJournal.CHECKOUT, cartId, 0, 0, 0, 0);
+                }
+            });
+        }
+        afterCompletion(committed -> {
+            synchronized (session) {
+                session.checkingOut = false;
+                if (!committed && cartId != null) {
+                    journal.append(CartJournal.CHECKOUT_ABORTED, cartId, 0, 0, 0, 0);
+                }
+                if (!committed || session.cartId == null) {
+                    return;
+                }
+                if (session.version() == snapshot.version()) {
+                    // journaled so a replay of older records can't bring the ordered lines back
+                    long segment = journal.append(CartJournal.CLEAR, session.cartId, 0, 0, 0, 0);
+                    session.clear();
+                    session.changed(segment);
+                    session.flushed(session.version());
+                } else {
+                    // the session stays dirty, so the next flush writes the remaining lines to the emptied cart
+                    removeOrderedLines(session, snapshot);
+                }
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${spring.app.cartStore.flushIntervalMs:500}")
+    public void flushDue() {
+        flush(false);
+    }
+
+    public void flushAll() {
+        flush(true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushAll();
+        journal.close();
+    }
+
+    private synchronized void flush(boolean all) {
+        long now = System.nanoTime();
+        long quiet = TimeUnit.MILLISECONDS.toNanos(debounceMs);
+        long maxDelay = TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+        long idle = TimeUnit.MILLISECONDS.toNanos(idleEvictMs);
+        List<CartSession> due = new ArrayList<>();
+        List<CartSnapshot> snapshots = new ArrayList<>();
+        for (CartSession session : sessions.values()) {
+            synchronized (session) {
+                if (session.checkingOut) {
+                    continue;
+                }
+                if (all ? session.dirty() : session.due(now, quiet, maxDelay)) {
+                    due.add(session);
+                    snapshots.add(session.snapshot());
+                } else if (session.idle(now, idle)) {
+                    evict(session);
+                }
+            }
+        }
+        if (!snapshots.isEmpty()) {
+            // changes from here on land in a new segment, so the ones just written can be trimmed
+            journal.rotate();
+            try {
+                write(snapshots);
+                for (int i = 0; i < due.size(); i++) {
+                    synchronized (due.get(i)) {
+                        due.get(i).flushed(snapshots.get(i).version());
+                    }
+                }
+                flushed.increment(snapshots.size());
+            } catch (RuntimeException e) {
+                logger.error("Cart flush failed, keeping {} carts dirty for the next run", snapshots.size(), e);
+            }
+        }
+        long oldestPending = journal.currentSegment();
+        for (CartSession session : sessions.values()) {
+            synchronized (session) {
+                oldestPending = Math.min(oldestPending, session.pendingSegment());
+            }
+        }
+        journal.deleteBefore(oldestPending);
+    }
+
+    private void write(List<CartSnapshot> snapshots) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<Long, CartSnapshot> byCartId = new HashMap<>();
+            Set<Long> productIds = new HashSet<>();
+            for (CartSnapshot snapshot : snapshots) {
+                byCartId.put(snapshot.cartId(), snapshot);
+                for (long productId : snapshot.productIds()) {
+                    productIds.add(productId);
+                }
+            }
+            // a product deleted since the line was added is left out rather than failing the batch
+            Set<Long> existing = new HashSet<>(productRepository.findExistingIds(productIds));
+            for (Cart cart : cartRepository.findCartsWithItemsByCartIdIn(byCartId.keySet())) {
+                CartSnapshot snapshot = byCartId.get(cart.getCartId());
+                Map<Long, CartItem> items = itemsByProductId(cart);
+                Map<Long, CartItem> stale = new HashMap<>(items);
+                for (int i = 0; i < snapshot.productIds().length; i++) {
+                    long productId = snapshot.productIds()[i];
+                    if (existing.contains(productId)) {
+                        stale.remove(productId);
+                        setLine(cart, items, productId, snapshot.quantities()[i], snapshot.pricesMinor()[i],
+                                snapshot.discounts()[i]);
+                    }
+                }
+                cart.getCartItems().removeIf(cartItem ->
+                        stale.get(cartItem.getProduct().getProductId()) == cartItem);
+                cart.setTotalPriceMinor(CartTotals.expectedTotalMinor(cart));
+            }
+        });
+    }
+
+    private void setLine(Cart cart, Map<Long, CartItem> items, long productId, int quantity, long priceMinor,
+                         double discount) {
+        CartItem cartItem = items.get(productId);
+        if (cartItem == null) {
+            cartItem = new CartItem();
+            cartItem.setCart(cart);
+            cartItem.setProduct(entityManager.getReference(Product.class, productId));
+            cart.getCartItems().add(cartItem);
+            items.put(productId, cartItem);
+        }
+        cartItem.setQuantity(quantity);
+        cartItem.setProductPriceMinor(priceMinor);
+        cartItem.setDiscount(discount);
+    }
+
+    private static Map<Long, CartItem> itemsByProductId(Cart cart) {
+        Map<Long, CartItem> items = new HashMap<>();
+        cart.getCartItems().forEach(cartItem -> items.put(cartItem.getProduct().getProductId(), cartItem));
+        return items;
+    }
+
+    private void set(CartSession session, ProductDTO product, int quantity) {
+        long unitMinor = Money.fromMajor(product.getSpecialPrice());
+        long segment = journal.append(CartJournal.SET, session.cartId, product.getProductId(), quantity, unitMinor,
+                product.getDiscount());
+        session.set(product, unitMinor, product.getDiscount(), quantity);
+        session.changed(segment);
+    }
+
+    private void remove(CartSession session, int index) {
+        long segment = journal.append(CartJournal.REMOVE, session.cartId, session.productAt(index).getProductId(),
+                0, 0, 0);
+        session.remove(index);
+        session.changed(segment);
+    }
+
+    // a line still as it was when the order read it was ordered; walking backwards keeps indexes valid as
+    // remove moves the last line into the freed slot
+    private void removeOrderedLines(CartSession session, CartSnapshot ordered) {
+        for (int index = session.size() - 1; index >= 0; index--) {
+            long productId = session.productAt(index).getProductId();
+            for (int i = 0; i < ordered.productIds().length; i++) {
+                if (ordered.productIds()[i] == productId) {
+                    if (ordered.quantities()[i] == session.quantityAt(index)
+                            && ordered.pricesMinor()[i] == session.priceMinorAt(index)) {
+                        remove(session, index);
+                    }
+                    break;
+                }
+            }
+        }
+    }
+
+    private <T> T withSession(Long userId, String email, Function<CartSession, T> action) {
+        while (true) {
+            CartSession session = sessions.get(userId);
+            if (session == null) {
+                CartSession loaded = load(userId, email);
+                session = sessions.putIfAbsent(userId, loaded);
+                if (session == null) {
+                    session = loaded;
+                    userIdsByEmail.put(email, userId);
+                    if (loaded.cartId != null) {
+                        sessionsByCartId.put(loaded.cartId, loaded);
+                    }
+                }
+            }
+            synchronized (session) {
+                // lost a race with eviction; load it again
+                if (!session.evicted) {
+                    return action.apply(session);
+                }
+            }
+        }
+    }
+
+    private CartSession load(Long userId, String email) {
+        CartSession session = new CartSession(userId, email);
+        transactionTemplate.executeWithoutResult(status -> {
+            Cart cart = cartRepository.findCartWithItemsByEmail(email);
+            if (cart != null) {
+                session.cartId = cart.getCartId();
+                for (CartItem cartItem : cart.getCartItems()) {
+                    session.set(cartMapper.toProductDto(cartItem), cartItem.getProductPriceMinor(),
+                            cartItem.getDiscount(), cartItem.getQuantity());
+                }
+            }
+        });
+        return session;
+    }
+
+    private void ensureCart(CartSession session) {
+        if (session.cartId != null) {
+            return;
+        }
+        session.cartId = transactionTemplate.execute(status -> {
+            Cart cart = new Cart();
+            cart.setUser(entityManager.getReference(User.class, session.userId));
+            return cartRepository.save(cart).getCartId();
+        });
+        sessionsByCartId.put(session.cartId, session);
+    }
+
+    private void evict(CartSession session) {
+        session.evicted = true;
+        sessions.remove(session.userId, session);
+        userIdsByEmail.remove(session.email, session.userId);
+        if (session.cartId != null) {
+            sessionsByCartId.remove(session.cartId, session);
+        }
+    }
+
+    private static void afterCompletion(Consumer<Boolean> action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.accept(true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                action.accept(status == STATUS_COMMITTED);
+            }
+        });
+    }
+}
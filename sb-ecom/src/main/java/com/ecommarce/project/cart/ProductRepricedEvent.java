@@ -0,0 +1,9 @@
+package com.ecommarce.project.cart;
+
+// published by a product write; unitPriceMinor is the special price carts should charge from now on
+public record ProductRepricedEvent(Long productId, long unitPriceMinor, long publishedAtNanos) {
+
+    public ProductRepricedEvent(Long productId, long unitPriceMinor) {
+        this(productId, unitPriceMinor, System.nanoTime());
+    }
+}
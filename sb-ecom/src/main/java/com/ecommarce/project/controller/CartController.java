@@ -1,10 +1,10 @@
 package com.ecommarce.project.controller;
 
-import com.ecommarce.project.model.Cart;
 import com.ecommarce.project.payload.CartDTO;
-import com.ecommarce.project.repositories.CartRepository;
+import com.ecommarce.project.payload.CartQuantitiesRequest;
 import com.ecommarce.project.service.CartService;
 import com.ecommarce.project.util.AuthUtil;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -19,9 +19,6 @@ public class CartController  {
     @Autowired
     private CartService cartService;
 
-    @Autowired
-    private CartRepository cartRepository;
-
     @Autowired
     private AuthUtil authUtil;
 
@@ -42,9 +39,7 @@ public class CartController  {
     @GetMapping("/carts/users/cart")
     public ResponseEntity<CartDTO> getCartById(){
         String emailId =authUtil.loggedInEmail();
-        Cart cart =cartRepository.findCartByEmail(emailId);
-        Long cartId = cart.getCartId();
-        CartDTO cartDTO = cartService.getCart(emailId,cartId);
+        CartDTO cartDTO = cartService.getCart(emailId);
         return new ResponseEntity<CartDTO>(cartDTO,HttpStatus.OK);
     }
 
@@ -57,6 +52,13 @@ public class CartController  {
 
     }
 
+    // absolute quantities for many lines in one request; a quantity of 0 removes the line
+    @PutMapping("/cart/products/quantities")
+    public ResponseEntity<CartDTO> updateCartProducts(@Valid @RequestBody CartQuantitiesRequest request){
+        CartDTO cartDTO = cartService.setProductQuantitiesInCart(request.getLines());
+        return new ResponseEntity<CartDTO>(cartDTO,HttpStatus.OK);
+    }
+
     @DeleteMapping("/carts/{cartId}/product/{productId}")
     public ResponseEntity<String> deleteProductFromCart(@PathVariable Long cartId,
                                                         @PathVariable Long productId){
@@ -23,8 +23,13 @@ public class CategoryController {
             @RequestParam(name = "pageNumber", defaultValue = AppConstants.PAGE_NUMBER, required = false) Integer pageNumber,
             @RequestParam(name = "pageSize", defaultValue = AppConstants.PAGE_SIZE, required = false) Integer pageSize,
             @RequestParam(name = "sortBy", defaultValue = AppConstants.SORT_CATEGORIES_BY, required = false) String sortBy,
-            @RequestParam(name = "sortOrder", defaultValue = AppConstants.SORT_DIR, required = false) String sortOrder) {
-        CategoryResponse categoryResponse = categoryService.getAllCategories(pageNumber, pageSize, sortBy, sortOrder);
+            @RequestParam(name = "sortOrder", defaultValue = AppConstants.SORT_DIR, required = false) String sortOrder,
+            @RequestParam(name = "after", required = false) String after,
+            @RequestParam(name = "includeTotals", defaultValue = "true", required = false) boolean includeTotals) {
+        // any "after" value, even an empty one, switches to keyset paging
+        CategoryResponse categoryResponse = after != null
+                ? categoryService.scrollCategories(after, pageSize, sortBy, sortOrder)
+                : categoryService.getAllCategories(pageNumber, pageSize, sortBy, sortOrder, includeTotals);
         return new ResponseEntity<>(categoryResponse, HttpStatus.OK);
     }
 
@@ -1,17 +1,27 @@
 package com.ecommarce.project.controller;
 
 import com.ecommarce.project.config.AppConstants;
+import com.ecommarce.project.export.ProductExportFormat;
+import com.ecommarce.project.payload.FacetedProductResponse;
 import com.ecommarce.project.payload.ProductDTO;
+import com.ecommarce.project.payload.ProductImportJobDTO;
 import com.ecommarce.project.payload.ProductResponse;
+import com.ecommarce.project.payload.SuggestionDTO;
+import com.ecommarce.project.service.ProductImportService;
 import com.ecommarce.project.service.ProductService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.Set;
 
 @CrossOrigin("*")
 @RestController
@@ -21,6 +31,9 @@ public class ProductController {
     @Autowired
     ProductService productService;
 
+    @Autowired
+    ProductImportService productImportService;
+
     @PostMapping("/admin/categories/{categoryId}/product")
     public ResponseEntity<ProductDTO> addProduct(@Valid @RequestBody ProductDTO productDTO,
                                                  @PathVariable Long categoryId){
@@ -33,9 +46,14 @@ public class ProductController {
             @RequestParam(name = "pageNumber", defaultValue = AppConstants.PAGE_NUMBER, required = false) Integer pageNumber,
             @RequestParam(name = "pageSize", defaultValue = AppConstants.PAGE_SIZE, required = false) Integer pageSize,
             @RequestParam(name = "sortBy", defaultValue = AppConstants.SORT_PRODUCTS_BY, required = false) String sortBy,
-            @RequestParam(name = "sortOrder", defaultValue = AppConstants.SORT_DIR, required = false) String sortOrder
+            @RequestParam(name = "sortOrder", defaultValue = AppConstants.SORT_DIR, required = false) String sortOrder,
+            @RequestParam(name = "after", required = false) String after,
+            @RequestParam(name = "includeTotals", defaultValue = "true", required = false) boolean includeTotals
     ){
-        ProductResponse productResponse = productService.getAllProducts(pageNumber, pageSize, sortBy, sortOrder);
+        // any "after" value, even an empty one, switches to keyset paging
+        ProductResponse productResponse = after != null
+                ? productService.scrollProducts(after, pageSize, sortBy, sortOrder)
+                : productService.getAllProducts(pageNumber, pageSize, sortBy, sortOrder, includeTotals);
         return new ResponseEntity<>(productResponse,HttpStatus.OK);
     }
 
@@ -44,21 +62,83 @@ public class ProductController {
                                                                  @RequestParam(name = "pageNumber", defaultValue = AppConstants.PAGE_NUMBER, required = false) Integer pageNumber,
                                                                  @RequestParam(name = "pageSize", defaultValue = AppConstants.PAGE_SIZE, required = false) Integer pageSize,
                                                                  @RequestParam(name = "sortBy", defaultValue = AppConstants.SORT_PRODUCTS_BY, required = false) String sortBy,
-                                                                 @RequestParam(name = "sortOrder", defaultValue = AppConstants.SORT_DIR, required = false) String sortOrder){
-        ProductResponse productResponse = productService.searchByCategory(categoryId, pageNumber, pageSize, sortBy, sortOrder);
+                                                                 @RequestParam(name = "sortOrder", defaultValue = AppConstants.SORT_DIR, required = false) String sortOrder,
+                                                                 @RequestParam(name = "after", required = false) String after,
+                                                                 @RequestParam(name = "includeTotals", defaultValue = "true", required = false) boolean includeTotals){
+        ProductResponse productResponse = after != null
+                ? productService.scrollByCategory(categoryId, after, pageSize, sortBy, sortOrder)
+                : productService.searchByCategory(categoryId, pageNumber, pageSize, sortBy, sortOrder, includeTotals);
         return new ResponseEntity<>(productResponse, HttpStatus.OK);
     }
 
     @GetMapping("/public/products/keyword/{keyword}")
     public ResponseEntity<ProductResponse> getProductsByKeyword(@PathVariable String keyword,
+                                                                @RequestParam(name = "categoryId", required = false) Long categoryId,
+                                                                @RequestParam(name = "minPrice", required = false) Double minPrice,
+                                                                @RequestParam(name = "maxPrice", required = false) Double maxPrice,
                                                                 @RequestParam(name = "pageNumber", defaultValue = AppConstants.PAGE_NUMBER, required = false) Integer pageNumber,
                                                                 @RequestParam(name = "pageSize", defaultValue = AppConstants.PAGE_SIZE, required = false) Integer pageSize,
-                                                                @RequestParam(name = "sortBy", defaultValue = AppConstants.SORT_PRODUCTS_BY, required = false) String sortBy,
-                                                                @RequestParam(name = "sortOrder", defaultValue = AppConstants.SORT_DIR, required = false) String sortOrder){
-        ProductResponse productResponse = productService.searchProductByKeyword(keyword, pageNumber, pageSize, sortBy, sortOrder);
+                                                                @RequestParam(name = "sortBy", defaultValue = AppConstants.SORT_SEARCH_BY, required = false) String sortBy,
+                                                                @RequestParam(name = "sortOrder", defaultValue = AppConstants.SORT_DIR, required = false) String sortOrder,
+                                                                @RequestParam(name = "after", required = false) String after,
+                                                                @RequestParam(name = "includeTotals", defaultValue = "true", required = false) boolean includeTotals){
+        ProductResponse productResponse = after != null
+                ? productService.scrollProductsByKeyword(keyword, categoryId, minPrice, maxPrice, after, pageSize, sortBy, sortOrder)
+                : productService.searchProductByKeyword(keyword, categoryId, minPrice, maxPrice, pageNumber, pageSize, sortBy, sortOrder, includeTotals);
         return new ResponseEntity<>(productResponse, HttpStatus.FOUND);
     }
 
+    @GetMapping("/public/products/filter")
+    public ResponseEntity<FacetedProductResponse> filterProducts(@RequestParam(name = "categoryId", required = false) Set<Long> categoryIds,
+                                                                 @RequestParam(name = "minPrice", required = false) Double minPrice,
+                                                                 @RequestParam(name = "maxPrice", required = false) Double maxPrice,
+                                                                 @RequestParam(name = "discount", required = false) Set<String> discounts,
+                                                                 @RequestParam(name = "inStock", required = false) Boolean inStock,
+                                                                 @RequestParam(name = "pageNumber", defaultValue = AppConstants.PAGE_NUMBER, required = false) Integer pageNumber,
+                                                                 @RequestParam(name = "pageSize", defaultValue = AppConstants.PAGE_SIZE, required = false) Integer pageSize,
+                                                                 @RequestParam(name = "sortBy", defaultValue = AppConstants.SORT_PRODUCTS_BY, required = false) String sortBy,
+                                                                 @RequestParam(name = "sortOrder", defaultValue = AppConstants.SORT_DIR, required = false) String sortOrder){
+        FacetedProductResponse facetedProductResponse = productService.filterProducts(categoryIds, minPrice, maxPrice,
+                discounts, inStock, pageNumber, pageSize, sortBy, sortOrder);
+        return new ResponseEntity<>(facetedProductResponse, HttpStatus.OK);
+    }
+
+    @GetMapping("/public/products/suggest")
+    public ResponseEntity<List<SuggestionDTO>> suggestProducts(@RequestParam(name = "q") String query,
+                                                               @RequestParam(name = "limit", defaultValue = AppConstants.SUGGEST_LIMIT, required = false) Integer limit){
+        List<SuggestionDTO> suggestions = productService.suggest(query, limit);
+        return new ResponseEntity<>(suggestions, HttpStatus.OK);
+    }
+
+    @GetMapping("/admin/products/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts(@RequestParam(name = "format", defaultValue = AppConstants.EXPORT_FORMAT, required = false) String format,
+                                                                @RequestParam(name = "categoryId", required = false) Long categoryId,
+                                                                @RequestParam(name = "afterProductId", required = false) Long afterProductId,
+                                                                @RequestParam(name = "gzip", defaultValue = "false", required = false) boolean gzip){
+        ProductExportFormat exportFormat = ProductExportFormat.from(format);
+        StreamingResponseBody body = productService.exportProducts(categoryId, afterProductId, exportFormat, gzip);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=products." + exportFormat.extension());
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    @PostMapping("/admin/products/import")
+    public ResponseEntity<ProductImportJobDTO> importProducts(@RequestParam("file") MultipartFile file,
+                                                              @RequestParam(name = "format", defaultValue = AppConstants.EXPORT_FORMAT, required = false) String format) throws IOException {
+        ProductImportJobDTO job = productImportService.startImport(file, ProductExportFormat.from(format));
+        return new ResponseEntity<>(job, HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping("/admin/products/import/{jobId}")
+    public ResponseEntity<ProductImportJobDTO> getImportJob(@PathVariable String jobId){
+        ProductImportJobDTO job = productImportService.getImportJob(jobId);
+        return new ResponseEntity<>(job, HttpStatus.OK);
+    }
+
     @PutMapping("/admin/products/{productId}")
     public ResponseEntity<ProductDTO> updateProduct(@Valid @RequestBody ProductDTO productDTO,
                                                     @PathVariable Long productId){
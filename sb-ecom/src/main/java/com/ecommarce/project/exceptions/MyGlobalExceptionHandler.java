@@ -2,14 +2,18 @@ package com.ecommarce.project.exceptions;
 
 
 import com.ecommarce.project.payload.APIResponse;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
 
 @RestControllerAdvice
@@ -40,4 +44,30 @@ public class MyGlobalExceptionHandler {
         APIResponse apiResponse = new APIResponse(message, false);
         return new ResponseEntity<>(apiResponse, HttpStatus.BAD_REQUEST);
     }
+
+    // a write that raced past a service-level duplicate check and hit one of the unique indexes
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<APIResponse> myDataIntegrityViolationException(DataIntegrityViolationException e) {
+        String constraint = e.getCause() instanceof ConstraintViolationException violation
+                && violation.getConstraintName() != null
+                ? violation.getConstraintName().toLowerCase(Locale.ROOT)
+                : "";
+        String message;
+        if (constraint.contains("uk_products_category_name")) {
+            message = "Product already exist!!";
+        } else if (constraint.contains("uk_categories_name")) {
+            message = "Category with this name already exists !!!";
+        } else {
+            message = "Request conflicts with existing data";
+        }
+        APIResponse apiResponse = new APIResponse(message, false);
+        return new ResponseEntity<>(apiResponse, HttpStatus.CONFLICT);
+    }
+
+    // a cart edit that read the cart before a background reprice or removal rewrote it
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<APIResponse> myObjectOptimisticLockingFailureException(ObjectOptimisticLockingFailureException e) {
+        APIResponse apiResponse = new APIResponse("The cart changed while the request was processed, please retry", false);
+        return new ResponseEntity<>(apiResponse, HttpStatus.CONFLICT);
+    }
 }
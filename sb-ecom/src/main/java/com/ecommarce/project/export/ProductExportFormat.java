@@ -0,0 +1,33 @@
+package com.ecommarce.project.export;
+
+import com.ecommarce.project.exceptions.APIException;
+
+public enum ProductExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    ProductExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    public static ProductExportFormat from(String format) {
+        for (ProductExportFormat value : values()) {
+            if (value.extension.equalsIgnoreCase(format)) {
+                return value;
+            }
+        }
+        throw new APIException("Export format must be ndjson or csv");
+    }
+}
@@ -0,0 +1,130 @@
+package com.ecommarce.project.export;
+
+import com.ecommarce.project.model.Product;
+import com.ecommarce.project.repositories.ProductRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+// Writes the catalog in product id order from a forward-only result stream. The persistence context is
+// cleared after every chunk and the output flushed, so memory stays flat however many products there are.
+// Each line carries its productId; passing the last one back as afterProductId resumes a broken download.
+@Component
+public class ProductExporter {
+
+    private static final String CSV_HEADER =
+            "productId,productName,description,image,quantity,price,discount,specialPrice,categoryId";
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${spring.app.export.chunkSize:500}")
+    private int chunkSize;
+
+    @Transactional(readOnly = true)
+    public long export(Long categoryId, long afterProductId, ProductExportFormat format, OutputStream out)
+            throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        JsonGenerator json = null;
+        if (format == ProductExportFormat.NDJSON) {
+            json = objectMapper.getFactory().createGenerator(writer);
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // lines are separated by hand, not by the generator's root value separator
+            json.setRootValueSeparator(null);
+        } else {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        long rows = 0;
+        try (Stream<Product> products = categoryId != null
+                ? productRepository.streamByCategoryAfter(categoryId, afterProductId)
+                : productRepository.streamAfter(afterProductId)) {
+            Iterator<Product> iterator = products.iterator();
+            while (iterator.hasNext()) {
+                ExportedProduct product = ExportedProduct.from(iterator.next());
+                if (json != null) {
+                    json.writeObject(product);
+                    json.writeRaw('\n');
+                } else {
+                    writeCsv(writer, product);
+                }
+                if (++rows % chunkSize == 0) {
+                    entityManager.clear();
+                    if (json != null) {
+                        json.flush();
+                    }
+                    writer.flush();
+                }
+            }
+        }
+        if (json != null) {
+            json.flush();
+        }
+        writer.flush();
+        return rows;
+    }
+
+    private static void writeCsv(Writer writer, ExportedProduct product) throws IOException {
+        writer.write(String.valueOf(product.productId()));
+        writer.write(',');
+        writer.write(csv(product.productName()));
+        writer.write(',');
+        writer.write(csv(product.description()));
+        writer.write(',');
+        writer.write(csv(product.image()));
+        writer.write(',');
+        writer.write(product.quantity() != null ? String.valueOf(product.quantity()) : "");
+        writer.write(',');
+        writer.write(String.valueOf(product.price()));
+        writer.write(',');
+        writer.write(String.valueOf(product.discount()));
+        writer.write(',');
+        writer.write(String.valueOf(product.specialPrice()));
+        writer.write(',');
+        writer.write(product.categoryId() != null ? String.valueOf(product.categoryId()) : "");
+        writer.write('\n');
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    public record ExportedProduct(Long productId, String productName, String description, String image,
+                                 Integer quantity, double price, double discount, double specialPrice,
+                                 Long categoryId) {
+
+        static ExportedProduct from(Product product) {
+            // the category proxy hands out its id without being loaded
+            Long categoryId = product.getCategory() != null ? product.getCategory().getCategoryId() : null;
+            return new ExportedProduct(product.getProductId(), product.getProductName(), product.getDescription(),
+                    product.getImage(), product.getQuantity(), product.getPrice(), product.getDiscount(),
+                    product.getSpecialPrice(), categoryId);
+        }
+    }
+}
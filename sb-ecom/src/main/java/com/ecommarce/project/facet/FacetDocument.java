@@ -0,0 +1,13 @@
+package com.ecommarce.project.facet;
+
+import com.ecommarce.project.model.Product;
+
+public record FacetDocument(Long productId, Long categoryId, double price, double specialPrice, double discount,
+                            int quantity) {
+
+    public static FacetDocument from(Product product) {
+        Long categoryId = product.getCategory() != null ? product.getCategory().getCategoryId() : null;
+        return new FacetDocument(product.getProductId(), categoryId, product.getPrice(), product.getSpecialPrice(),
+                product.getDiscount(), product.getQuantity() != null ? product.getQuantity() : 0);
+    }
+}
@@ -0,0 +1,8 @@
+package com.ecommarce.project.facet;
+
+import java.util.Set;
+
+// empty sets and null bounds mean "don't filter on this facet"
+public record FacetQuery(Set<Long> categoryIds, Double minPrice, Double maxPrice, Set<String> discounts,
+                         Boolean inStock, String sortBy, boolean ascending, int offset, int limit) {
+}
@@ -0,0 +1,8 @@
+package com.ecommarce.project.facet;
+
+import java.util.List;
+import java.util.Map;
+
+// facets maps facet name -> value -> matching products, counted with every other facet's filter applied
+public record FacetResult(List<Long> productIds, int totalHits, Map<String, Map<String, Integer>> facets) {
+}
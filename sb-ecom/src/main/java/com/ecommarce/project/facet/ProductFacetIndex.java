@@ -0,0 +1,451 @@
+package com.ecommarce.project.facet;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Facet filtering over product ordinals. Every facet value owns a compressed bitmap of the products that
+// have it, so a filter is an OR within a facet and an AND across facets, and a facet count is the size of
+// its value bitmap intersected with the other facets' filters. Ordinals of removed products are reused.
+@Component
+public class ProductFacetIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductFacetIndex.class);
+
+    public static final String FACET_CATEGORY = "category";
+    public static final String FACET_PRICE = "price";
+    public static final String FACET_DISCOUNT = "discount";
+    public static final String FACET_AVAILABILITY = "availability";
+
+    public static final String IN_STOCK = "inStock";
+    public static final String OUT_OF_STOCK = "outOfStock";
+
+    private static final Set<String> SORTS = Set.of("productId", "price", "specialPrice", "discount");
+
+    // bucket i holds values in [BOUNDS[i], BOUNDS[i + 1]); the last bucket is open-ended
+    private static final double[] PRICE_BOUNDS = {0, 25, 50, 100, 250, 500, 1000};
+    private static final double[] DISCOUNT_BOUNDS = {0, 10, 25, 50};
+
+    public static final List<String> PRICE_BUCKETS = labels(PRICE_BOUNDS);
+    public static final List<String> DISCOUNT_BUCKETS = labels(DISCOUNT_BOUNDS);
+
+    private static final long NO_CATEGORY = Long.MIN_VALUE;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Integer> ordinalsByProductId = new HashMap<>();
+    private final RoaringBitmap live = new RoaringBitmap();
+    private final RoaringBitmap free = new RoaringBitmap();
+    private final Map<Long, RoaringBitmap> byCategory = new TreeMap<>();
+    private final RoaringBitmap[] byPrice = bitmaps(PRICE_BOUNDS.length);
+    private final RoaringBitmap[] byDiscount = bitmaps(DISCOUNT_BOUNDS.length);
+    private final RoaringBitmap inStock = new RoaringBitmap();
+
+    private long[] productIds = new long[1024];
+    private long[] categoryIds = new long[1024];
+    private double[] prices = new double[1024];
+    private double[] specialPrices = new double[1024];
+    private double[] discounts = new double[1024];
+    private int[] quantities = new int[1024];
+    private int ordinalCount;
+
+    @Autowired(required = false)
+    private JdbcTemplate jdbcTemplate;
+
+    public ProductFacetIndex(MeterRegistry meterRegistry) {
+        Gauge.builder("facet.index.products", this, ProductFacetIndex::size).register(meterRegistry);
+        Gauge.builder("facet.index.bytes", this, ProductFacetIndex::sizeInBytes)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public static boolean supportsSort(String sortBy) {
+        return SORTS.contains(sortBy);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<FacetDocument> documents = new ArrayList<>();
+        jdbcTemplate.query("SELECT product_id, category_id, price, special_price, discount, quantity FROM products", rs -> {
+            long categoryId = rs.getLong("category_id");
+            Long productCategory = rs.wasNull() ? null : categoryId;
+            documents.add(new FacetDocument(rs.getLong("product_id"), productCategory, rs.getDouble("price"),
+                    rs.getDouble("special_price"), rs.getDouble("discount"), rs.getInt("quantity")));
+        });
+        rebuild(documents);
+        logger.info("Facet index built for {} products", documents.size());
+    }
+
+    public void rebuild(Collection<FacetDocument> documents) {
+        lock.writeLock().lock();
+        try {
+            clear();
+            documents.forEach(this::add);
+            live.runOptimize();
+            inStock.runOptimize();
+            byCategory.values().forEach(RoaringBitmap::runOptimize);
+            Arrays.stream(byPrice).forEach(RoaringBitmap::runOptimize);
+            Arrays.stream(byDiscount).forEach(RoaringBitmap::runOptimize);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void index(FacetDocument document) {
+        lock.writeLock().lock();
+        try {
+            delete(document.productId());
+            add(document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            delete(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeCategory(Long categoryId) {
+        lock.writeLock().lock();
+        try {
+            RoaringBitmap ordinals = byCategory.get(categoryId);
+            if (ordinals != null) {
+                for (int ordinal : ordinals.toArray()) {
+                    delete(productIds[ordinal]);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // checkout decrements stock without going through a product write
+    public void stockReserved(Map<Long, Integer> quantitiesByProductId) {
+        lock.writeLock().lock();
+        try {
+            quantitiesByProductId.forEach((productId, quantity) -> {
+                Integer ordinal = ordinalsByProductId.get(productId);
+                if (ordinal != null) {
+                    quantities[ordinal] -= quantity;
+                    if (quantities[ordinal] <= 0) {
+                        inStock.remove(ordinal);
+                    }
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinalsByProductId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long sizeInBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = live.getLongSizeInBytes() + free.getLongSizeInBytes() + inStock.getLongSizeInBytes();
+            for (RoaringBitmap bitmap : byCategory.values()) {
+                bytes += bitmap.getLongSizeInBytes();
+            }
+            for (RoaringBitmap bitmap : byPrice) {
+                bytes += bitmap.getLongSizeInBytes();
+            }
+            for (RoaringBitmap bitmap : byDiscount) {
+                bytes += bitmap.getLongSizeInBytes();
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public FacetResult search(FacetQuery query) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap categoryFilter = categoryFilter(query.categoryIds());
+            RoaringBitmap priceFilter = priceFilter(query.minPrice(), query.maxPrice());
+            RoaringBitmap discountFilter = discountFilter(query.discounts());
+            RoaringBitmap stockFilter = query.inStock() == null ? null
+                    : query.inStock() ? inStock : RoaringBitmap.andNot(live, inStock);
+
+            RoaringBitmap hits = matching(categoryFilter, priceFilter, discountFilter, stockFilter);
+
+            // each facet is counted against the other facets' filters, so picking one value keeps its siblings visible
+            Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+            RoaringBitmap base = matching(null, priceFilter, discountFilter, stockFilter);
+            Map<String, Integer> categories = new LinkedHashMap<>();
+            byCategory.forEach((categoryId, bitmap) -> {
+                int count = RoaringBitmap.andCardinality(base, bitmap);
+                if (count > 0) {
+                    categories.put(String.valueOf(categoryId), count);
+                }
+            });
+            facets.put(FACET_CATEGORY, categories);
+            facets.put(FACET_PRICE, counts(PRICE_BUCKETS, byPrice, matching(categoryFilter, null, discountFilter, stockFilter)));
+            facets.put(FACET_DISCOUNT, counts(DISCOUNT_BUCKETS, byDiscount, matching(categoryFilter, priceFilter, null, stockFilter)));
+            RoaringBitmap stockBase = matching(categoryFilter, priceFilter, discountFilter, null);
+            Map<String, Integer> availability = new LinkedHashMap<>();
+            int available = RoaringBitmap.andCardinality(stockBase, inStock);
+            availability.put(IN_STOCK, available);
+            availability.put(OUT_OF_STOCK, stockBase.getCardinality() - available);
+            facets.put(FACET_AVAILABILITY, availability);
+
+            int[] window = topOrdinals(query, hits);
+            List<Long> ids = new ArrayList<>(window.length);
+            for (int ordinal : window) {
+                ids.add(productIds[ordinal]);
+            }
+            return new FacetResult(ids, hits.getCardinality(), facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private RoaringBitmap matching(RoaringBitmap... filters) {
+        RoaringBitmap result = live.clone();
+        for (RoaringBitmap filter : filters) {
+            if (filter != null) {
+                result.and(filter);
+            }
+        }
+        return result;
+    }
+
+    private RoaringBitmap categoryFilter(Set<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return null;
+        }
+        RoaringBitmap filter = new RoaringBitmap();
+        for (Long id : ids) {
+            RoaringBitmap bitmap = byCategory.get(id);
+            if (bitmap != null) {
+                filter.or(bitmap);
+            }
+        }
+        return filter;
+    }
+
+    private RoaringBitmap discountFilter(Set<String> labels) {
+        if (labels == null || labels.isEmpty()) {
+            return null;
+        }
+        RoaringBitmap filter = new RoaringBitmap();
+        for (String label : labels) {
+            int bucket = DISCOUNT_BUCKETS.indexOf(label);
+            if (bucket >= 0) {
+                filter.or(byDiscount[bucket]);
+            }
+        }
+        return filter;
+    }
+
+    // buckets inside the range are taken whole; only the ones straddling a bound are checked product by product
+    private RoaringBitmap priceFilter(Double minPrice, Double maxPrice) {
+        if (minPrice == null && maxPrice == null) {
+            return null;
+        }
+        double min = minPrice != null ? minPrice : Double.NEGATIVE_INFINITY;
+        double max = maxPrice != null ? maxPrice : Double.POSITIVE_INFINITY;
+        RoaringBitmap filter = new RoaringBitmap();
+        for (int bucket = 0; bucket < PRICE_BOUNDS.length; bucket++) {
+            double from = bucket == 0 ? Double.NEGATIVE_INFINITY : PRICE_BOUNDS[bucket];
+            double to = bucket + 1 < PRICE_BOUNDS.length ? PRICE_BOUNDS[bucket + 1] : Double.POSITIVE_INFINITY;
+            if (to <= min || from > max) {
+                continue;
+            }
+            if (from >= min && (to <= max || max == Double.POSITIVE_INFINITY)) {
+                filter.or(byPrice[bucket]);
+                continue;
+            }
+            IntIterator ordinals = byPrice[bucket].getIntIterator();
+            while (ordinals.hasNext()) {
+                int ordinal = ordinals.next();
+                if (specialPrices[ordinal] >= min && specialPrices[ordinal] <= max) {
+                    filter.add(ordinal);
+                }
+            }
+        }
+        return filter;
+    }
+
+    private static Map<String, Integer> counts(List<String> labels, RoaringBitmap[] buckets, RoaringBitmap base) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (int bucket = 0; bucket < buckets.length; bucket++) {
+            counts.put(labels.get(bucket), RoaringBitmap.andCardinality(base, buckets[bucket]));
+        }
+        return counts;
+    }
+
+    // bounded heap of the best offset + limit hits instead of sorting them all
+    private int[] topOrdinals(FacetQuery query, RoaringBitmap hits) {
+        int wanted = (int) Math.min(hits.getCardinality(), (long) query.offset() + query.limit());
+        if (query.offset() >= wanted) {
+            return new int[0];
+        }
+        OrdinalOrder order = order(query);
+        PriorityQueue<Integer> worstFirst = new PriorityQueue<>(wanted, (a, b) -> order.compare(b, a));
+        IntIterator ordinals = hits.getIntIterator();
+        while (ordinals.hasNext()) {
+            int ordinal = ordinals.next();
+            if (worstFirst.size() < wanted) {
+                worstFirst.add(ordinal);
+            } else if (order.compare(ordinal, worstFirst.peek()) < 0) {
+                worstFirst.poll();
+                worstFirst.add(ordinal);
+            }
+        }
+        int[] ranked = new int[worstFirst.size()];
+        for (int i = ranked.length - 1; i >= 0; i--) {
+            ranked[i] = worstFirst.poll();
+        }
+        return Arrays.copyOfRange(ranked, query.offset(), ranked.length);
+    }
+
+    private OrdinalOrder order(FacetQuery query) {
+        OrdinalOrder byProductId = (a, b) -> Long.compare(productIds[a], productIds[b]);
+        OrdinalOrder primary = switch (query.sortBy()) {
+            case "price" -> (a, b) -> Double.compare(prices[a], prices[b]);
+            case "specialPrice" -> (a, b) -> Double.compare(specialPrices[a], specialPrices[b]);
+            case "discount" -> (a, b) -> Double.compare(discounts[a], discounts[b]);
+            default -> byProductId;
+        };
+        return (a, b) -> {
+            int result = primary.compare(a, b);
+            if (!query.ascending()) {
+                result = -result;
+            }
+            return result != 0 ? result : byProductId.compare(a, b);
+        };
+    }
+
+    private void add(FacetDocument document) {
+        int ordinal;
+        if (free.isEmpty()) {
+            ordinal = ordinalCount++;
+            if (ordinal == productIds.length) {
+                grow();
+            }
+        } else {
+            ordinal = free.first();
+            free.remove(ordinal);
+        }
+        productIds[ordinal] = document.productId();
+        categoryIds[ordinal] = document.categoryId() != null ? document.categoryId() : NO_CATEGORY;
+        prices[ordinal] = document.price();
+        specialPrices[ordinal] = document.specialPrice();
+        discounts[ordinal] = document.discount();
+        quantities[ordinal] = document.quantity();
+        ordinalsByProductId.put(document.productId(), ordinal);
+
+        live.add(ordinal);
+        if (document.categoryId() != null) {
+            byCategory.computeIfAbsent(document.categoryId(), k -> new RoaringBitmap()).add(ordinal);
+        }
+        byPrice[bucket(PRICE_BOUNDS, document.specialPrice())].add(ordinal);
+        byDiscount[bucket(DISCOUNT_BOUNDS, document.discount())].add(ordinal);
+        if (document.quantity() > 0) {
+            inStock.add(ordinal);
+        }
+    }
+
+    private void delete(Long productId) {
+        Integer ordinal = ordinalsByProductId.remove(productId);
+        if (ordinal == null) {
+            return;
+        }
+        live.remove(ordinal);
+        RoaringBitmap category = byCategory.get(categoryIds[ordinal]);
+        if (category != null) {
+            category.remove(ordinal);
+            if (category.isEmpty()) {
+                byCategory.remove(categoryIds[ordinal]);
+            }
+        }
+        byPrice[bucket(PRICE_BOUNDS, specialPrices[ordinal])].remove(ordinal);
+        byDiscount[bucket(DISCOUNT_BOUNDS, discounts[ordinal])].remove(ordinal);
+        inStock.remove(ordinal);
+        free.add(ordinal);
+    }
+
+    private void clear() {
+        ordinalsByProductId.clear();
+        live.clear();
+        free.clear();
+        byCategory.clear();
+        Arrays.stream(byPrice).forEach(RoaringBitmap::clear);
+        Arrays.stream(byDiscount).forEach(RoaringBitmap::clear);
+        inStock.clear();
+        ordinalCount = 0;
+    }
+
+    private void grow() {
+        int capacity = productIds.length * 2;
+        productIds = Arrays.copyOf(productIds, capacity);
+        categoryIds = Arrays.copyOf(categoryIds, capacity);
+        prices = Arrays.copyOf(prices, capacity);
+        specialPrices = Arrays.copyOf(specialPrices, capacity);
+        discounts = Arrays.copyOf(discounts, capacity);
+        quantities = Arrays.copyOf(quantities, capacity);
+    }
+
+    private static int bucket(double[] bounds, double value) {
+        int bucket = 0;
+        while (bucket + 1 < bounds.length && value >= bounds[bucket + 1]) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    private static List<String> labels(double[] bounds) {
+        List<String> labels = new ArrayList<>(bounds.length);
+        for (int i = 0; i < bounds.length; i++) {
+            labels.add(i + 1 < bounds.length
+                    ? (int) bounds[i] + "-" + (int) bounds[i + 1]
+                    : (int) bounds[i] + "+");
+        }
+        return List.copyOf(labels);
+    }
+
+    private static RoaringBitmap[] bitmaps(int count) {
+        RoaringBitmap[] bitmaps = new RoaringBitmap[count];
+        for (int i = 0; i < count; i++) {
+            bitmaps[i] = new RoaringBitmap();
+        }
+        return bitmaps;
+    }
+
+    private interface OrdinalOrder {
+        int compare(int a, int b);
+    }
+}
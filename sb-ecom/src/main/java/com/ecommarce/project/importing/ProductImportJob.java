@@ -0,0 +1,85 @@
+package com.ecommarce.project.importing;
+
+import com.ecommarce.project.payload.ProductImportJobDTO;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+// progress of one bulk import; written by the import thread, read by the status endpoint
+public class ProductImportJob {
+
+    public enum Status { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    // only the first rejections are kept with their reason, the rest are just counted
+    private static final int MAX_ERRORS = 100;
+
+    private final String jobId;
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong inserted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final List<String> errors = new ArrayList<>();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String failure;
+
+    public ProductImportJob(String jobId) {
+        this.jobId = jobId;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public void started() {
+        startedAt = Instant.now();
+        status = Status.RUNNING;
+    }
+
+    public void completed() {
+        finishedAt = Instant.now();
+        status = Status.COMPLETED;
+    }
+
+    public void failed(String reason) {
+        failure = reason;
+        finishedAt = Instant.now();
+        status = Status.FAILED;
+    }
+
+    public void inserted(int rows) {
+        processed.addAndGet(rows);
+        inserted.addAndGet(rows);
+    }
+
+    public void rejected(long line, String reason) {
+        processed.incrementAndGet();
+        rejected.incrementAndGet();
+        synchronized (errors) {
+            if (errors.size() < MAX_ERRORS) {
+                errors.add("line " + line + ": " + reason);
+            }
+        }
+    }
+
+    public ProductImportJobDTO toDto() {
+        Instant start = startedAt;
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        long rows = processed.get();
+        double rowsPerSecond = 0;
+        if (start != null) {
+            long millis = Math.max(1, Duration.between(start, end).toMillis());
+            rowsPerSecond = rows * 1000.0 / millis;
+        }
+        List<String> errorSample;
+        synchronized (errors) {
+            errorSample = List.copyOf(errors);
+        }
+        return new ProductImportJobDTO(jobId, status.name(), rows, inserted.get(), rejected.get(), rowsPerSecond,
+                start, finishedAt, failure, errorSample);
+    }
+}
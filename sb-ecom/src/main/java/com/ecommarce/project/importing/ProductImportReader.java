@@ -0,0 +1,199 @@
+package com.ecommarce.project.importing;
+
+import com.ecommarce.project.export.ProductExportFormat;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+// Reads an import file one record at a time. It takes the same NDJSON and CSV layouts the catalog export
+// writes (columns it doesn't use, like productId or specialPrice, are ignored), so an export can be loaded
+// back as is. A record that can't be parsed comes back as a rejected row instead of failing the file.
+public class ProductImportReader implements Iterator<ProductImportRow>, Closeable {
+
+    private final BufferedReader reader;
+    private final ProductExportFormat format;
+    private final ObjectMapper objectMapper;
+
+    private Map<String, Integer> csvColumns;
+    private long line;
+    // first line of the CSV record just read, a quoted field can span several
+    private long recordLine;
+    private ProductImportRow next;
+
+    public ProductImportReader(BufferedReader reader, ProductExportFormat format, ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            try {
+                next = format == ProductExportFormat.NDJSON ? readJson() : readCsv();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public ProductImportRow next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        ProductImportRow row = next;
+        next = null;
+        return row;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private ProductImportRow readJson() throws IOException {
+        String text;
+        do {
+            text = reader.readLine();
+            if (text == null) {
+                return null;
+            }
+            line++;
+        } while (text.isBlank());
+
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(text);
+        } catch (IOException e) {
+            return ProductImportRow.rejected(line, "Malformed JSON");
+        }
+        try {
+            return new ProductImportRow(line, text(node, "productName"), text(node, "description"),
+                    number(node, "quantity", Integer::valueOf),
+                    number(node, "price", Double::valueOf),
+                    number(node, "discount", Double::valueOf),
+                    number(node, "categoryId", Long::valueOf),
+                    null);
+        } catch (NumberFormatException e) {
+            return ProductImportRow.rejected(line, "Malformed number: " + e.getMessage());
+        } catch (RuntimeException e) {
+            return ProductImportRow.rejected(line, "Malformed record");
+        }
+    }
+
+    private static String text(JsonNode node, String field) {
+        return node.hasNonNull(field) ? node.get(field).asText() : null;
+    }
+
+    // parsed like the CSV columns, so "abc", true or 2.5 for an integer reject the row instead of becoming 0
+    private static <T> T number(JsonNode node, String field, Function<String, T> parser) {
+        if (!node.hasNonNull(field)) {
+            return null;
+        }
+        JsonNode value = node.get(field);
+        if (!value.isNumber() && !value.isTextual()) {
+            throw new NumberFormatException(field + " is not a number: " + value);
+        }
+        try {
+            return number(value.asText(), parser);
+        } catch (NumberFormatException e) {
+            throw new NumberFormatException(field + " is not a number: " + value);
+        }
+    }
+
+    private ProductImportRow readCsv() throws IOException {
+        if (csvColumns == null) {
+            List<String> header = readCsvRecord();
+            if (header == null) {
+                return null;
+            }
+            csvColumns = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                csvColumns.put(header.get(i).trim(), i);
+            }
+        }
+        List<String> fields;
+        do {
+            fields = readCsvRecord();
+            if (fields == null) {
+                return null;
+            }
+        } while (fields.size() == 1 && fields.get(0).isBlank());
+
+        try {
+            return new ProductImportRow(recordLine, csv(fields, "productName"), csv(fields, "description"),
+                    number(csv(fields, "quantity"), Integer::valueOf),
+                    number(csv(fields, "price"), Double::valueOf),
+                    number(csv(fields, "discount"), Double::valueOf),
+                    number(csv(fields, "categoryId"), Long::valueOf),
+                    null);
+        } catch (NumberFormatException e) {
+            return ProductImportRow.rejected(recordLine, "Malformed number: " + e.getMessage());
+        }
+    }
+
+    private String csv(List<String> fields, String column) {
+        Integer index = csvColumns.get(column);
+        return index != null && index < fields.size() ? fields.get(index) : null;
+    }
+
+    private static <T> T number(String value, Function<String, T> parser) {
+        return value == null || value.isBlank() ? null : parser.apply(value.trim());
+    }
+
+    // RFC 4180: quoted fields may hold commas, doubled quotes and line breaks
+    private List<String> readCsvRecord() throws IOException {
+        int c = reader.read();
+        if (c < 0) {
+            return null;
+        }
+        recordLine = ++line;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (c >= 0) {
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int peek = reader.read();
+                    if (peek == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        reader.reset();
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
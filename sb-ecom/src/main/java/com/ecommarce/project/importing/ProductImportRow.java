@@ -0,0 +1,10 @@
+package com.ecommarce.project.importing;
+
+// one parsed record of an import file; error is set when the record couldn't be read into a product
+public record ProductImportRow(long line, String productName, String description, Integer quantity, Double price,
+                               Double discount, Long categoryId, String error) {
+
+    static ProductImportRow rejected(long line, String error) {
+        return new ProductImportRow(line, null, null, null, null, null, null, error);
+    }
+}
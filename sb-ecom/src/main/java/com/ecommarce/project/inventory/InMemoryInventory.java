@@ -0,0 +1,155 @@
+package com.ecommarce.project.inventory;
+
+import com.ecommarce.project.repositories.ProductRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+@ConditionalOnProperty(name = "spring.app.inventory.inMemory", havingValue = "true")
+public class InMemoryInventory {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryInventory.class);
+
+    private final Map<Long, StripedStockCounter> stock = new ConcurrentHashMap<>();
+
+    // units reserved in memory but not yet subtracted from the products table
+    private final Map<Long, LongAdder> unflushed = new ConcurrentHashMap<>();
+
+    @Value("${spring.app.inventory.stripes:8}")
+    private int stripes;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public InMemoryInventory(MeterRegistry meterRegistry) {
+        Gauge.builder("inventory.unflushed.products", unflushed, Map::size).register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void reconcile() {
+        flush();
+        Map<Long, Long> quantities = new HashMap<>();
+        jdbcTemplate.query("SELECT product_id, quantity FROM products", rs -> {
+            quantities.put(rs.getLong("product_id"), rs.getLong("quantity"));
+        });
+        stock.keySet().retainAll(quantities.keySet());
+        quantities.forEach(this::replaceCounter);
+        logger.info("Inventory reconciled from database for {} products", quantities.size());
+    }
+
+    public long available(Long productId) {
+        return counter(productId).available();
+    }
+
+    // returns null when a line is short; the reservation remembers which counters it took from, so a
+    // reset in between (which swaps the counter) can be told apart when the order completes
+    public Reservation tryReserve(SortedMap<Long, Integer> quantitiesByProductId) {
+        Map<Long, StripedStockCounter> counters = new TreeMap<>();
+        for (Map.Entry<Long, Integer> line : quantitiesByProductId.entrySet()) {
+            StripedStockCounter counter = counter(line.getKey());
+            if (!counter.tryReserve(line.getValue())) {
+                release(new Reservation(quantitiesByProductId, counters));
+                return null;
+            }
+            counters.put(line.getKey(), counter);
+        }
+        return new Reservation(quantitiesByProductId, counters);
+    }
+
+    // units go back to the counters they came from; one a reset has replaced is no longer read, so a late
+    // rollback can't inflate the admin's new count
+    public void release(Reservation reservation) {
+        reservation.counters().forEach((productId, counter) ->
+                counter.release(reservation.quantities().get(productId)));
+    }
+
+    // lines whose counter was reset since the reservation are dropped: the admin's absolute quantity
+    // already replaced them in memory and in the database
+    public synchronized void commit(Reservation reservation) {
+        reservation.counters().forEach((productId, counter) -> {
+            if (stock.get(productId) == counter) {
+                unflushed.computeIfAbsent(productId, id -> new LongAdder())
+                        .add(reservation.quantities().get(productId));
+            }
+        });
+    }
+
+    // an admin stock edit is absolute: it replaces the in-memory count and any reservations not yet flushed.
+    // It holds the lock flush writes under, and rewrites the row itself, so a flush that took its deltas
+    // before the edit can't subtract them from the new quantity afterwards.
+    public synchronized void reset(Long productId, long quantity) {
+        replaceCounter(productId, quantity);
+        jdbcTemplate.update("UPDATE products SET quantity = ? WHERE product_id = ?", quantity, productId);
+    }
+
+    public synchronized void remove(Long productId) {
+        stock.remove(productId);
+        unflushed.remove(productId);
+    }
+
+    @Scheduled(fixedDelayString = "${spring.app.inventory.flushIntervalMs:1000}")
+    public synchronized void flush() {
+        Map<Long, Long> deltas = new HashMap<>();
+        unflushed.forEach((productId, adder) -> {
+            long delta = adder.sumThenReset();
+            if (delta != 0) {
+                deltas.put(productId, delta);
+            }
+        });
+        if (deltas.isEmpty()) {
+            return;
+        }
+        try {
+            productRepository.applyStockDeltas(deltas);
+        } catch (RuntimeException e) {
+            logger.error("Inventory flush failed, keeping {} deltas for the next run", deltas.size(), e);
+            deltas.forEach((productId, delta) ->
+                    unflushed.computeIfAbsent(productId, id -> new LongAdder()).add(delta));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void replaceCounter(Long productId, long quantity) {
+        unflushed.remove(productId);
+        stock.put(productId, new StripedStockCounter(stripes, quantity));
+    }
+
+    // products created after startup are picked up from the database on first use
+    private StripedStockCounter counter(Long productId) {
+        return stock.computeIfAbsent(productId, id -> {
+            List<Integer> quantity = jdbcTemplate.queryForList(
+                    "SELECT quantity FROM products WHERE product_id = ?", Integer.class, id);
+            return new StripedStockCounter(stripes,
+                    quantity.isEmpty() || quantity.get(0) == null ? 0 : quantity.get(0));
+        });
+    }
+
+    public record Reservation(SortedMap<Long, Integer> quantities, Map<Long, StripedStockCounter> counters) {
+    }
+}
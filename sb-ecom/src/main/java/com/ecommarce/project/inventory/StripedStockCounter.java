@@ -0,0 +1,81 @@
+package com.ecommarce.project.inventory;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class StripedStockCounter {
+
+    // cells are spread 8 longs apart so neighbouring stripes don't share a cache line
+    private static final int PADDING = 8;
+
+    private final AtomicLongArray cells;
+
+    private final int stripes;
+
+    public StripedStockCounter(int stripes, long quantity) {
+        int powerOfTwo = 1;
+        while (powerOfTwo < stripes) {
+            powerOfTwo <<= 1;
+        }
+        this.stripes = powerOfTwo;
+        this.cells = new AtomicLongArray(this.stripes * PADDING);
+        distribute(quantity);
+    }
+
+    public boolean tryReserve(long quantity) {
+        if (quantity <= 0) {
+            return true;
+        }
+        int home = homeStripe();
+        for (int i = 0; i < stripes; i++) {
+            int index = ((home + i) & (stripes - 1)) * PADDING;
+            long current = cells.get(index);
+            while (current >= quantity) {
+                if (cells.compareAndSet(index, current, current - quantity)) {
+                    return true;
+                }
+                current = cells.get(index);
+            }
+        }
+        // stock is fragmented across stripes or nearly gone: pool it and decide under the lock
+        return rebalanceAndReserve(quantity);
+    }
+
+    public void release(long quantity) {
+        cells.getAndAdd(homeStripe() * PADDING, quantity);
+    }
+
+    public long available() {
+        long sum = 0;
+        for (int i = 0; i < stripes; i++) {
+            sum += cells.get(i * PADDING);
+        }
+        return sum;
+    }
+
+    private synchronized boolean rebalanceAndReserve(long quantity) {
+        long total = drain();
+        boolean reserved = total >= quantity;
+        distribute(reserved ? total - quantity : total);
+        return reserved;
+    }
+
+    private long drain() {
+        long total = 0;
+        for (int i = 0; i < stripes; i++) {
+            total += cells.getAndSet(i * PADDING, 0);
+        }
+        return total;
+    }
+
+    private void distribute(long quantity) {
+        long share = quantity / stripes;
+        long remainder = quantity % stripes;
+        for (int i = 0; i < stripes; i++) {
+            cells.getAndAdd(i * PADDING, share + (i < remainder ? 1 : 0));
+        }
+    }
+
+    private int homeStripe() {
+        return (int) (Thread.currentThread().getId() * 0x9E3779B9L >>> 16) & (stripes - 1);
+    }
+}
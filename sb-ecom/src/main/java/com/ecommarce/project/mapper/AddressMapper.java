@@ -0,0 +1,19 @@
+package com.ecommarce.project.mapper;
+
+import com.ecommarce.project.model.Address;
+import com.ecommarce.project.payload.AddressDTO;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+import java.util.List;
+
+@Mapper(componentModel = "spring")
+public interface AddressMapper {
+
+    AddressDTO toDto(Address address);
+
+    List<AddressDTO> toDtos(List<Address> addresses);
+
+    @Mapping(target = "user", ignore = true)
+    Address toEntity(AddressDTO addressDTO);
+}
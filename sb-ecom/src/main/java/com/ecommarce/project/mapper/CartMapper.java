@@ -0,0 +1,30 @@
+package com.ecommarce.project.mapper;
+
+import com.ecommarce.project.model.Cart;
+import com.ecommarce.project.model.CartItem;
+import com.ecommarce.project.payload.CartDTO;
+import com.ecommarce.project.payload.ProductDTO;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+import java.util.List;
+
+@Mapper(componentModel = "spring")
+public interface CartMapper {
+
+    @Mapping(target = "products", source = "cartItems")
+    CartDTO toDto(Cart cart);
+
+    List<CartDTO> toDtos(List<Cart> carts);
+
+    // a cart line is shown as its product with the quantity in the cart
+    @Mapping(target = "productId", source = "product.productId")
+    @Mapping(target = "productName", source = "product.productName")
+    @Mapping(target = "image", source = "product.image")
+    @Mapping(target = "description", source = "product.description")
+    @Mapping(target = "quantity", source = "quantity")
+    @Mapping(target = "price", source = "product.price")
+    @Mapping(target = "discount", source = "product.discount")
+    @Mapping(target = "specialPrice", source = "product.specialPrice")
+    ProductDTO toProductDto(CartItem cartItem);
+}
@@ -0,0 +1,20 @@
+package com.ecommarce.project.mapper;
+
+import com.ecommarce.project.model.Category;
+import com.ecommarce.project.payload.CategoryDTO;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+import java.util.List;
+
+@Mapper(componentModel = "spring")
+public interface CategoryMapper {
+
+    CategoryDTO toDto(Category category);
+
+    List<CategoryDTO> toDtos(List<Category> categories);
+
+    @Mapping(target = "products", ignore = true)
+    @Mapping(target = "normalizedName", ignore = true)
+    Category toEntity(CategoryDTO categoryDTO);
+}
@@ -0,0 +1,25 @@
+package com.ecommarce.project.mapper;
+
+import com.ecommarce.project.model.Order;
+import com.ecommarce.project.model.OrderItem;
+import com.ecommarce.project.model.Payment;
+import com.ecommarce.project.payload.OrderDTO;
+import com.ecommarce.project.payload.OrderItemDTO;
+import com.ecommarce.project.payload.PaymentDTO;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+import java.util.List;
+
+@Mapper(componentModel = "spring", uses = ProductMapper.class)
+public interface OrderMapper {
+
+    @Mapping(target = "addressId", source = "address.addressId")
+    OrderDTO toDto(Order order);
+
+    OrderItemDTO toDto(OrderItem orderItem);
+
+    List<OrderItemDTO> toItemDtos(List<OrderItem> orderItems);
+
+    PaymentDTO toDto(Payment payment);
+}
@@ -0,0 +1,22 @@
+package com.ecommarce.project.mapper;
+
+import com.ecommarce.project.model.Product;
+import com.ecommarce.project.payload.ProductDTO;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+import java.util.List;
+
+@Mapper(componentModel = "spring")
+public interface ProductMapper {
+
+    ProductDTO toDto(Product product);
+
+    List<ProductDTO> toDtos(List<Product> products);
+
+    @Mapping(target = "category", ignore = true)
+    @Mapping(target = "user", ignore = true)
+    @Mapping(target = "products", ignore = true)
+    @Mapping(target = "normalizedName", ignore = true)
+    Product toEntity(ProductDTO productDTO);
+}
@@ -0,0 +1,22 @@
+package com.ecommarce.project.metrics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+@Component
+public class HandlerNameInterceptor implements HandlerInterceptor {
+
+    public static final String HANDLER_ATTRIBUTE = HandlerNameInterceptor.class.getName() + ".handler";
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod handlerMethod) {
+            request.setAttribute(HANDLER_ATTRIBUTE,
+                    handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName());
+        }
+        return true;
+    }
+}
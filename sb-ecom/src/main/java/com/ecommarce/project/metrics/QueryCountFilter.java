@@ -0,0 +1,57 @@
+package com.ecommarce.project.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryCountFilter.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        QueryStats stats = QueryCounter.reset();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Object handler = request.getAttribute(HandlerNameInterceptor.HANDLER_ATTRIBUTE);
+            String handlerName = handler != null ? handler.toString() : "none";
+            request.setAttribute(QueryStats.REQUEST_ATTRIBUTE, stats);
+            logger.debug("{} {} ({}) issued {} SQL statements, {} rows in {} ms", request.getMethod(),
+                    request.getRequestURI(), handlerName, stats.getStatements(), stats.getRows(), stats.getElapsedMillis());
+
+            DistributionSummary.builder("http.server.requests.queries")
+                    .tag("handler", handlerName)
+                    .register(meterRegistry)
+                    .record(stats.getStatements());
+            DistributionSummary.builder("http.server.requests.query.rows")
+                    .tag("handler", handlerName)
+                    .register(meterRegistry)
+                    .record(stats.getRows());
+            Timer.builder("http.server.requests.query.time")
+                    .tag("handler", handlerName)
+                    .register(meterRegistry)
+                    .record(stats.getElapsedMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.ecommarce.project.metrics;
+
+public final class QueryCounter {
+
+    private static final ThreadLocal<QueryStats> STATS = ThreadLocal.withInitial(QueryStats::new);
+
+    private QueryCounter() {
+    }
+
+    public static QueryStats reset() {
+        QueryStats stats = new QueryStats();
+        STATS.set(stats);
+        return stats;
+    }
+
+    public static QueryStats current() {
+        return STATS.get();
+    }
+}
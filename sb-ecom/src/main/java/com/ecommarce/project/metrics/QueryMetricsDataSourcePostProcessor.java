@@ -0,0 +1,26 @@
+package com.ecommarce.project.metrics;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+@Component
+public class QueryMetricsDataSourcePostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+            QueryMetricsListener listener = new QueryMetricsListener();
+            return ProxyDataSourceBuilder.create(dataSource)
+                    .name(beanName)
+                    .listener(listener)
+                    .proxyResultSet()
+                    .methodListener(listener)
+                    .build();
+        }
+        return bean;
+    }
+}
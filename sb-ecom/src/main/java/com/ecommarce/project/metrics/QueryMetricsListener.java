@@ -0,0 +1,48 @@
+package com.ecommarce.project.metrics;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.sql.ResultSet;
+import java.util.List;
+
+public class QueryMetricsListener implements QueryExecutionListener, MethodExecutionListener {
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        QueryStats stats = QueryCounter.current();
+        stats.recordStatement(execInfo.getElapsedTime());
+
+        // rows written; rows read are counted as the result sets are iterated
+        Object result = execInfo.getResult();
+        if (result instanceof Integer updated && updated > 0) {
+            stats.recordRows(updated);
+        } else if (result instanceof int[] batch) {
+            for (int updated : batch) {
+                if (updated > 0) {
+                    stats.recordRows(updated);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        if (executionContext.getTarget() instanceof ResultSet
+                && "next".equals(executionContext.getMethod().getName())
+                && Boolean.TRUE.equals(executionContext.getResult())) {
+            QueryCounter.current().recordRows(1);
+        }
+    }
+}
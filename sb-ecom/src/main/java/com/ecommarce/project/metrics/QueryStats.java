@@ -0,0 +1,21 @@
+package com.ecommarce.project.metrics;
+
+import lombok.Getter;
+
+@Getter
+public class QueryStats {
+    public static final String REQUEST_ATTRIBUTE = QueryStats.class.getName();
+
+    private int statements;
+    private long rows;
+    private long elapsedMillis;
+
+    void recordStatement(long elapsedMillis) {
+        this.statements++;
+        this.elapsedMillis += elapsedMillis;
+    }
+
+    void recordRows(long rows) {
+        this.rows += rows;
+    }
+}
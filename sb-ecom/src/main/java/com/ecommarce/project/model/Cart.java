@@ -1,5 +1,6 @@
 package com.ecommarce.project.model;
 
+import com.ecommarce.project.money.Money;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -26,6 +27,20 @@ public class Cart {
             CascadeType.MERGE,CascadeType.REMOVE},orphanRemoval = true)
     private List<CartItem> cartItems = new ArrayList<>();
 
-    private Double totalPrice = 0.0;
+    // minor units, moved only through CartTotals
+    @Column(name = "total_price_minor", nullable = false)
+    private long totalPriceMinor;
 
+    // the bulk UPDATEs on carts bump it too, so an edit that read the cart before one of them fails
+    // instead of writing back a total computed from old lines
+    @Version
+    private long version;
+
+    public Double getTotalPrice() {
+        return Money.toMajor(totalPriceMinor);
+    }
+
+    public void setTotalPrice(double totalPrice) {
+        totalPriceMinor = Money.fromMajor(totalPrice);
+    }
 }
@@ -1,5 +1,6 @@
 package com.ecommarce.project.model;
 
+import com.ecommarce.project.money.Money;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -7,12 +8,14 @@ import lombok.NoArgsConstructor;
 
 @Entity
 @Data
-@Table(name = "cart_items")
+// product-wide passes (repricing, removing a deleted product) walk a product's lines in cart order
+@Table(name = "cart_items", indexes = @Index(name = "idx_cart_items_product_cart", columnList = "product_id, cart_id"))
 @NoArgsConstructor
 @AllArgsConstructor
 public class CartItem {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cart_items_seq")
+    @SequenceGenerator(name = "cart_items_seq", sequenceName = "cart_items_seq", allocationSize = 50)
     private Long cartItemId;
 
     @ManyToOne
@@ -25,7 +28,15 @@ public class CartItem {
 
     private Integer quantity;
     private double discount;
-    private double productPrice;
+    // unit price in minor units
+    @Column(name = "product_price_minor", nullable = false)
+    private long productPriceMinor;
 
+    public double getProductPrice() {
+        return Money.toMajor(productPriceMinor);
+    }
 
+    public void setProductPrice(double productPrice) {
+        productPriceMinor = Money.fromMajor(productPrice);
+    }
 }
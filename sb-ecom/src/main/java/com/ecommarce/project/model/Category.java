@@ -1,15 +1,19 @@
 package com.ecommarce.project.model;
 
+import com.ecommarce.project.util.NameNormalizer;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.util.List;
 
 @Entity(name = "categories")
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_categories_name", columnNames = "normalized_name"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -22,6 +26,18 @@ public class Category {
     @Size(min = 5, message = "Category name must contain atleast 5 characters")
     private String categoryName;
 
+    // kept in step with categoryName so the unique constraint is case-insensitive
+    @Column(name = "normalized_name", nullable = false)
+    private String normalizedName;
+
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @OneToMany(mappedBy = "category", cascade = CascadeType.ALL)
     private List<Product> products;
+
+    @PrePersist
+    @PreUpdate
+    void normalizeName() {
+        normalizedName = NameNormalizer.normalize(categoryName);
+    }
 }
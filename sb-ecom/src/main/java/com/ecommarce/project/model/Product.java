@@ -1,10 +1,12 @@
 package com.ecommarce.project.model;
 
+import com.ecommarce.project.util.NameNormalizer;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
 
@@ -15,7 +17,8 @@ import java.util.List;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "products")
+@Table(name = "products", uniqueConstraints = @UniqueConstraint(name = "uk_products_category_name",
+        columnNames = {"category_id", "normalized_name"}))
 @ToString
 public class Product {
 
@@ -26,6 +29,10 @@ public class Product {
     @NotBlank
     @Size(min = 3, message = "Product name must contain atleast 3 characters")
     private String productName;
+
+    // kept in step with productName so the unique constraint is case-insensitive
+    @Column(name = "normalized_name", nullable = false)
+    private String normalizedName;
     private String image;
 
     @NotBlank
@@ -36,15 +43,29 @@ public class Product {
     private double discount;
     private double specialPrice;
 
-    @ManyToOne
+    // catalog reads only need the category id, which the proxy carries without a select
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id")
     private Category category;
 
-    @ManyToOne
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "seller_id")
     private User user;
 
+    // cart lines are reached from the cart side (CartRepository join-fetches them), never from a product page
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @OneToMany(mappedBy = "product",cascade = {CascadeType.PERSIST,
-            CascadeType.MERGE},fetch = FetchType.EAGER)
+            CascadeType.MERGE})
     private List<CartItem> products = new ArrayList<>();
+
+    @PrePersist
+    @PreUpdate
+    void normalizeName() {
+        normalizedName = NameNormalizer.normalize(productName);
+    }
 }
@@ -0,0 +1,56 @@
+package com.ecommarce.project.money;
+
+import com.ecommarce.project.model.Cart;
+import com.ecommarce.project.model.CartItem;
+
+// every cart mutation goes through here: the stored total moves by exactly the old and new line amounts,
+// so it never has to be recomputed from the lines. Each step checks itself in O(1): the arithmetic is
+// overflow-checked and a total that would go negative means it no longer matches its lines.
+public final class CartTotals {
+
+    private CartTotals() {
+    }
+
+    public static void addLine(Cart cart, CartItem cartItem, long unitMinor, int quantity) {
+        cartItem.setProductPriceMinor(unitMinor);
+        cartItem.setQuantity(quantity);
+        move(cart, 0, Money.line(unitMinor, quantity));
+    }
+
+    public static void changeLine(Cart cart, CartItem cartItem, long unitMinor, int quantity) {
+        long before = lineMinor(cartItem);
+        cartItem.setProductPriceMinor(unitMinor);
+        cartItem.setQuantity(quantity);
+        move(cart, before, Money.line(unitMinor, quantity));
+    }
+
+    public static void removeLine(Cart cart, CartItem cartItem) {
+        move(cart, lineMinor(cartItem), 0);
+    }
+
+    public static void clear(Cart cart) {
+        cart.setTotalPriceMinor(0);
+    }
+
+    public static long lineMinor(CartItem cartItem) {
+        return Money.line(cartItem.getProductPriceMinor(), cartItem.getQuantity());
+    }
+
+    // full recount over loaded lines, for tests and one-off checks; the reconciler does this in SQL for all carts
+    public static long expectedTotalMinor(Cart cart) {
+        long total = 0;
+        for (CartItem cartItem : cart.getCartItems()) {
+            total = Money.add(total, lineMinor(cartItem));
+        }
+        return total;
+    }
+
+    private static void move(Cart cart, long beforeMinor, long afterMinor) {
+        long total = Money.add(Money.subtract(cart.getTotalPriceMinor(), beforeMinor), afterMinor);
+        if (total < 0) {
+            throw new IllegalStateException("Total of cart " + cart.getCartId() + " would drop to " + total
+                    + " minor units; it is out of step with its lines");
+        }
+        cart.setTotalPriceMinor(total);
+    }
+}
@@ -0,0 +1,37 @@
+package com.ecommarce.project.money;
+
+import com.ecommarce.project.repositories.CartRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// totals are exact, so a run should fix nothing; a non-zero count points at a write that bypassed CartTotals
+@Component
+public class CartTotalsReconciler {
+
+    private static final Logger logger = LoggerFactory.getLogger(CartTotalsReconciler.class);
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    private final Counter corrected;
+
+    public CartTotalsReconciler(MeterRegistry meterRegistry) {
+        this.corrected = Counter.builder("cart.totals.corrected").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${spring.app.cartTotals.reconcileIntervalMs:3600000}",
+            initialDelayString = "${spring.app.cartTotals.reconcileIntervalMs:3600000}")
+    public int reconcile() {
+        int fixed = cartRepository.reconcileTotals();
+        if (fixed > 0) {
+            corrected.increment(fixed);
+            logger.warn("Reconciled {} cart totals that had drifted from their lines", fixed);
+        }
+        return fixed;
+    }
+}
@@ -0,0 +1,64 @@
+package com.ecommarce.project.money;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// A database from before amounts moved to minor units still has the double columns, and ddl-auto adds the
+// *_minor columns to it as 0. Each row is converted once, before anything reads it: the minor column gets the
+// old amount and the old column is zeroed, so a later run can't overwrite a total that has since become 0.
+// On a schema created by this version the old columns don't exist and this does nothing.
+@Component
+@DependsOn("entityManagerFactory")
+public class LegacyMoneyBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(LegacyMoneyBackfill.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void backfill() {
+        int carts = backfill("carts", "cart_id", "total_price", "total_price_minor");
+        int lines = backfill("cart_items", "cart_item_id", "product_price", "product_price_minor");
+        if (carts > 0 || lines > 0) {
+            logger.info("Moved {} cart totals and {} cart line prices to minor units", carts, lines);
+        }
+    }
+
+    private int backfill(String table, String idColumn, String legacyColumn, String minorColumn) {
+        if (!hasColumn(table, legacyColumn)) {
+            return 0;
+        }
+        List<Object[]> rows = new ArrayList<>();
+        jdbcTemplate.query("SELECT " + idColumn + ", " + legacyColumn + " FROM " + table
+                + " WHERE " + minorColumn + " = 0 AND " + legacyColumn + " <> 0", rs -> {
+            rows.add(new Object[]{Money.fromMajor(rs.getDouble(2)), rs.getLong(1)});
+        });
+        jdbcTemplate.batchUpdate("UPDATE " + table + " SET " + minorColumn + " = ?, " + legacyColumn + " = 0 WHERE "
+                + idColumn + " = ?", rows);
+        return rows.size();
+    }
+
+    private boolean hasColumn(String table, String column) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            boolean upper = metaData.storesUpperCaseIdentifiers();
+            try (ResultSet columns = metaData.getColumns(connection.getCatalog(), null,
+                    upper ? table.toUpperCase(Locale.ROOT) : table, upper ? column.toUpperCase(Locale.ROOT) : column)) {
+                return columns.next();
+            }
+        }));
+    }
+}
@@ -0,0 +1,34 @@
+package com.ecommarce.project.money;
+
+// amounts are longs of minor units (cents) so cart arithmetic is exact and never boxes; doubles only
+// appear at the edges, when a catalog price comes in and when a total goes out in a DTO
+public final class Money {
+
+    public static final int MINOR_PER_MAJOR = 100;
+
+    private Money() {
+    }
+
+    public static long fromMajor(double amount) {
+        if (!Double.isFinite(amount)) {
+            throw new IllegalArgumentException("Amount is not a finite number: " + amount);
+        }
+        return Math.round(amount * MINOR_PER_MAJOR);
+    }
+
+    public static double toMajor(long minor) {
+        return (double) minor / MINOR_PER_MAJOR;
+    }
+
+    public static long line(long unitMinor, int quantity) {
+        return Math.multiplyExact(unitMinor, (long) quantity);
+    }
+
+    public static long add(long a, long b) {
+        return Math.addExact(a, b);
+    }
+
+    public static long subtract(long a, long b) {
+        return Math.subtractExact(a, b);
+    }
+}
@@ -0,0 +1,20 @@
+package com.ecommarce.project.payload;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartLineQuantityDTO {
+    @NotNull
+    private Long productId;
+
+    // absolute quantity for the line; 0 removes it
+    @NotNull
+    @Min(0)
+    private Integer quantity;
+}
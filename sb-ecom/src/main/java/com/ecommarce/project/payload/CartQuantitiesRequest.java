@@ -0,0 +1,19 @@
+package com.ecommarce.project.payload;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartQuantitiesRequest {
+    @NotEmpty
+    @Valid
+    private List<CartLineQuantityDTO> lines = new ArrayList<>();
+}
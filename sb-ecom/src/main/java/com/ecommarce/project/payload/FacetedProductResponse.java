@@ -0,0 +1,15 @@
+package com.ecommarce.project.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetedProductResponse {
+    private ProductResponse products;
+    private Map<String, Map<String, Integer>> facets;
+}
@@ -0,0 +1,24 @@
+package com.ecommarce.project.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportJobDTO {
+    private String jobId;
+    private String status;
+    private long rowsProcessed;
+    private long rowsInserted;
+    private long rowsRejected;
+    private double rowsPerSecond;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private String failure;
+    private List<String> errors;
+}
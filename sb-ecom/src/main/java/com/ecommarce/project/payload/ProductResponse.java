@@ -16,4 +16,7 @@ public class ProductResponse {
     private Long totalElements;
     private Integer totalPages;
     private boolean lastPage;
+    private String nextCursor;
+    // true when totalElements/totalPages are a lower bound rather than an exact count
+    private boolean totalsCapped;
 }
@@ -12,4 +12,26 @@ public interface CartItemRepository extends JpaRepository<CartItem,Long> {
     @Modifying
     @Query("DELETE FROM CartItem ci WHERE ci.cart.id = ?1 AND ci.product.id = ?2")
     void deleteCartItemByProductIdAndCartId(Long cartId, Long productId);
+
+    @Modifying
+    @Query("DELETE FROM CartItem ci WHERE ci.cart.id = ?1")
+    void deleteAllByCartId(Long cartId);
+
+    // lines already at the price are left alone, so a re-sent price touches no rows
+    @Modifying
+    @Query(value = "UPDATE cart_items SET product_price_minor = ?2 "
+            + "WHERE product_id = ?1 AND product_price_minor <> ?2", nativeQuery = true)
+    int repriceLines(Long productId, long unitPriceMinor);
+
+    @Query(value = "SELECT COUNT(*) FROM cart_items WHERE product_id = ?1", nativeQuery = true)
+    long countLinesOfProduct(Long productId);
+
+    // the highest cart id among the next limit carts holding the product, null once none are left
+    @Query(value = "SELECT MAX(chunk.cart_id) FROM (SELECT cart_id FROM cart_items WHERE product_id = ?1 "
+            + "ORDER BY cart_id LIMIT ?2) chunk", nativeQuery = true)
+    Long findChunkEndCartId(Long productId, int limit);
+
+    @Modifying
+    @Query(value = "DELETE FROM cart_items WHERE product_id = ?1 AND cart_id <= ?2", nativeQuery = true)
+    int deleteLinesOfProductUpToCart(Long productId, Long lastCartId);
 }
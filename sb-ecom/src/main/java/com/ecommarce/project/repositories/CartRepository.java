@@ -2,17 +2,50 @@ package com.ecommarce.project.repositories;
 
 import com.ecommarce.project.model.Cart;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CartRepository extends JpaRepository<Cart,Long> {
      @Query("SELECT c FROM Cart c WHERE c.user.email = ?1")
      Cart findCartByEmail(String email);
 
+     @Query("SELECT DISTINCT c FROM Cart c LEFT JOIN FETCH c.cartItems ci LEFT JOIN FETCH ci.product WHERE c.user.email = ?1")
+     Cart findCartWithItemsByEmail(String email);
+
      @Query("SELECT c FROM Cart c WHERE c.user.email = ?1 AND c.id = ?2")
      Cart findCartByEmailAndCartId(String emailId, Long cartId);
 
-     @Query("SELECT c FROM Cart c JOIN FETCH c.cartItems ci JOIN FETCH ci.product p WHERE p.id = ?1")
-     List<Cart> findCartsByProductId(Long productId);
+     @Query("SELECT DISTINCT c FROM Cart c LEFT JOIN FETCH c.cartItems ci LEFT JOIN FETCH ci.product WHERE c.cartId IN ?1")
+     List<Cart> findCartsWithItemsByCartIdIn(Collection<Long> cartIds);
+
+     // re-derives the totals of the carts holding a product from their lines, after the lines were repriced
+     @Modifying
+     @Query(value = "UPDATE carts c SET version = version + 1, "
+             + "total_price_minor = (SELECT COALESCE(SUM(ci.quantity * ci.product_price_minor), 0) "
+             + "FROM cart_items ci WHERE ci.cart_id = c.cart_id) "
+             + "WHERE c.cart_id IN (SELECT ci.cart_id FROM cart_items ci WHERE ci.product_id = ?1)", nativeQuery = true)
+     int recomputeTotalsOfCartsWithProduct(Long productId);
+
+     // takes a product's lines out of the totals of the carts up to lastCartId, before the lines are deleted
+     @Modifying
+     @Query(value = "UPDATE carts c SET version = version + 1, "
+             + "total_price_minor = total_price_minor - (SELECT SUM(ci.quantity * ci.product_price_minor) "
+             + "FROM cart_items ci WHERE ci.cart_id = c.cart_id AND ci.product_id = ?1) "
+             + "WHERE c.cart_id IN (SELECT ci.cart_id FROM cart_items ci WHERE ci.product_id = ?1 AND ci.cart_id <= ?2)",
+             nativeQuery = true)
+     int subtractLinesOfProductUpToCart(Long productId, Long lastCartId);
+
+     // one pass over every cart: rewrites only the totals that no longer equal the sum of their lines
+     @Transactional
+     @Modifying
+     @Query(value = "UPDATE carts c SET version = version + 1, "
+             + "total_price_minor = COALESCE((SELECT SUM(ci.quantity * ci.product_price_minor) "
+             + "FROM cart_items ci WHERE ci.cart_id = c.cart_id), 0) "
+             + "WHERE c.total_price_minor <> COALESCE((SELECT SUM(ci.quantity * ci.product_price_minor) "
+             + "FROM cart_items ci WHERE ci.cart_id = c.cart_id), 0)", nativeQuery = true)
+     int reconcileTotals();
 }
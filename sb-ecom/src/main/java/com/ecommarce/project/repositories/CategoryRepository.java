@@ -1,8 +1,27 @@
 package com.ecommarce.project.repositories;
 
 import com.ecommarce.project.model.Category;
+import com.ecommarce.project.payload.CategoryDTO;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface CategoryRepository extends JpaRepository<Category,Long> {
-    Category findByCategoryName(String categoryName);
+    boolean existsByNormalizedName(String normalizedName);
+
+    @Query("SELECT new com.ecommarce.project.payload.CategoryDTO(c.categoryId, c.categoryName) FROM categories c")
+    Slice<CategoryDTO> findDtoSliceBy(Pageable pageDetails);
+
+    @Query("SELECT c.categoryId FROM categories c WHERE c.categoryId IN ?1")
+    List<Long> findExistingIds(Collection<Long> categoryIds);
+
+    Window<Category> findAllBy(ScrollPosition position, Sort sort, Limit limit);
 }
@@ -2,14 +2,85 @@ package com.ecommarce.project.repositories;
 
 import com.ecommarce.project.model.Category;
 import com.ecommarce.project.model.Product;
-import org.springframework.data.domain.Page;
+import com.ecommarce.project.payload.ProductDTO;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
-    Page<Product> findByCategoryOrderByPriceAsc(Category category, Pageable pageDetails);
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
+    // listings select straight into the response DTO, so no entities enter the persistence context
+    String PRODUCT_DTO = "new com.ecommarce.project.payload.ProductDTO(p.productId, p.productName, p.image, "
+            + "p.description, p.quantity, p.price, p.discount, p.specialPrice)";
+
+    @Query("SELECT " + PRODUCT_DTO + " FROM Product p")
+    Slice<ProductDTO> findDtoSliceBy(Pageable pageDetails);
+
+    @Query("SELECT " + PRODUCT_DTO + " FROM Product p WHERE p.category.categoryId = ?1 ORDER BY p.price ASC")
+    Slice<ProductDTO> findDtoSliceByCategoryId(Long categoryId, Pageable pageDetails);
+
+    @Query("SELECT " + PRODUCT_DTO + " FROM Product p WHERE UPPER(p.productName) LIKE UPPER(?1)")
+    Slice<ProductDTO> findDtoSliceByProductNameLikeIgnoreCase(String keyword, Pageable pageDetails);
+
+    @Query("SELECT " + PRODUCT_DTO + " FROM Product p WHERE p.productId IN ?1")
+    List<ProductDTO> findDtosByProductIdIn(Collection<Long> productIds);
+
+    @Query("SELECT p.productId FROM Product p WHERE p.productId IN ?1")
+    List<Long> findExistingIds(Collection<Long> productIds);
+
+    // holds the row until the transaction ends; a cart line insert checking its foreign key waits behind it
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.productId = ?1")
+    Product findAndLockById(Long productId);
+
+    // both served by the (category_id, normalized_name) unique index
+    boolean existsByCategoryCategoryIdAndNormalizedName(Long categoryId, String normalizedName);
+
+    // names from the given batch already taken in the category; the bulk import checks a whole chunk at once
+    @Query("SELECT p.normalizedName FROM Product p WHERE p.category.categoryId = ?1 AND p.normalizedName IN ?2")
+    List<String> findNormalizedNamesIn(Long categoryId, Collection<String> normalizedNames);
+
+    long countByCategory(Category category);
+
+    Window<Product> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    Window<Product> findByCategory(Category category, ScrollPosition position, Sort sort, Limit limit);
+
+    // forward-only cursors for the catalog export, in id order so a download can resume after the last id
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Product p WHERE p.productId > ?1 ORDER BY p.productId")
+    Stream<Product> streamAfter(long afterProductId);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Product p WHERE p.category.categoryId = ?1 AND p.productId > ?2 ORDER BY p.productId")
+    Stream<Product> streamByCategoryAfter(Long categoryId, long afterProductId);
 
-    Page<Product> findByProductNameLikeIgnoreCase(String keyword, Pageable pageDetails);
+    // only the image column, so the write can't put back a quantity the inventory flush has since moved
+    @Transactional
+    @Modifying
+    @Query("UPDATE Product p SET p.image = ?2 WHERE p.productId = ?1")
+    int updateImage(Long productId, String image);
 }
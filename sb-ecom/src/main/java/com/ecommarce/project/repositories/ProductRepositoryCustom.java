@@ -0,0 +1,13 @@
+package com.ecommarce.project.repositories;
+
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+public interface ProductRepositoryCustom {
+    List<Long> reserveStock(SortedMap<Long, Integer> quantitiesByProductId);
+
+    void applyStockDeltas(Map<Long, Long> deltasByProductId);
+
+    long countByNameLikeCapped(String pattern, int cap);
+}
@@ -0,0 +1,87 @@
+package com.ecommarce.project.repositories;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // set once the driver has returned real per-statement counts for a batch; until then (and on drivers that
+    // answer Statement.SUCCESS_NO_INFO, e.g. MySQL with rewriteBatchedStatements) a count can't tell an applied
+    // decrement from a skipped one, so the stock is read under lock first and decides the rejections instead
+    private volatile boolean countsReported;
+
+    // rows are locked in ascending product id order so concurrent checkouts can't deadlock;
+    // returns the ids whose stock was too low to cover the requested quantity
+    @Override
+    public List<Long> reserveStock(SortedMap<Long, Integer> quantitiesByProductId) {
+        if (quantitiesByProductId.isEmpty()) {
+            return List.of();
+        }
+        List<Map.Entry<Long, Integer>> lines = new ArrayList<>(quantitiesByProductId.entrySet());
+        Map<Long, Long> locked = countsReported ? null : lockQuantities(quantitiesByProductId.keySet());
+        List<Object[]> args = lines.stream()
+                .map(line -> new Object[]{line.getValue(), line.getKey(), line.getValue()})
+                .toList();
+        int[] updated = jdbcTemplate.batchUpdate(
+                "UPDATE products SET quantity = quantity - ? WHERE product_id = ? AND quantity >= ?", args);
+        boolean reported = Arrays.stream(updated).allMatch(count -> count >= 0);
+
+        List<Long> rejected = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            Map.Entry<Long, Integer> line = lines.get(i);
+            boolean applied = locked != null
+                    ? locked.getOrDefault(line.getKey(), 0L) >= line.getValue()
+                    : updated[i] == 1;
+            if (!applied) {
+                rejected.add(line.getKey());
+            }
+        }
+        if (locked == null && !reported) {
+            // the counts were trusted and no longer can be; fail so the order's transaction rolls back
+            countsReported = false;
+            throw new IllegalStateException("Stock reservation batch returned no update counts");
+        }
+        countsReported = reported;
+        return rejected;
+    }
+
+    private Map<Long, Long> lockQuantities(Collection<Long> productIds) {
+        String placeholders = String.join(", ", Collections.nCopies(productIds.size(), "?"));
+        Map<Long, Long> quantities = new HashMap<>();
+        jdbcTemplate.query("SELECT product_id, quantity FROM products WHERE product_id IN (" + placeholders + ") "
+                + "ORDER BY product_id FOR UPDATE", rs -> {
+            quantities.put(rs.getLong("product_id"), rs.getLong("quantity"));
+        }, productIds.toArray());
+        return quantities;
+    }
+
+    @Override
+    public void applyStockDeltas(Map<Long, Long> deltasByProductId) {
+        List<Object[]> args = new TreeMap<>(deltasByProductId).entrySet().stream()
+                .map(delta -> new Object[]{delta.getValue(), delta.getKey()})
+                .toList();
+        jdbcTemplate.batchUpdate("UPDATE products SET quantity = quantity - ? WHERE product_id = ?", args);
+    }
+
+    // stops scanning after cap matches instead of counting every row a '%kw%' pattern hits
+    @Override
+    public long countByNameLikeCapped(String pattern, int cap) {
+        Long count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM (SELECT 1 FROM products WHERE UPPER(product_name) LIKE UPPER(?) LIMIT ?) capped",
+                Long.class, pattern, cap);
+        return count != null ? count : 0;
+    }
+}
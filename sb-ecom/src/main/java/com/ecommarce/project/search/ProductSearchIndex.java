@@ -0,0 +1,408 @@
+package com.ecommarce.project.search;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-process inverted index over product name and description. Every word is indexed with its edge n-grams,
+// so a query word matches any word it starts. Postings are sorted int[] of internal doc ids; re-indexing a
+// product tombstones its old doc and appends a new one, and tombstones are compacted away once they pile up.
+@Component
+public class ProductSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    public static final String SORT_RELEVANCE = "relevance";
+
+    private static final Set<String> SORTS = Set.of(SORT_RELEVANCE, "productId", "productName", "price");
+
+    private static final float NAME_WEIGHT = 3f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+    // a whole-word match ranks above a word that only starts with the query
+    private static final float EXACT_BONUS = 0.5f;
+
+    private static final long NO_CATEGORY = Long.MIN_VALUE;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, IntList> namePrefixes = new HashMap<>();
+    private final Map<String, IntList> nameWords = new HashMap<>();
+    private final Map<String, IntList> descriptionPrefixes = new HashMap<>();
+    private final Map<String, IntList> descriptionWords = new HashMap<>();
+
+    private final Map<Long, Integer> docsByProductId = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+
+    private long[] productIds = new long[1024];
+    private long[] categoryIds = new long[1024];
+    private double[] prices = new double[1024];
+    private String[] names = new String[1024];
+    private String[] descriptions = new String[1024];
+    private int docCount;
+    private int deletedCount;
+
+    @Autowired(required = false)
+    private JdbcTemplate jdbcTemplate;
+
+    public ProductSearchIndex(MeterRegistry meterRegistry) {
+        Gauge.builder("search.index.documents", this, ProductSearchIndex::size).register(meterRegistry);
+    }
+
+    public static boolean supportsSort(String sortBy) {
+        return SORTS.contains(sortBy);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<SearchDocument> documents = new ArrayList<>();
+        jdbcTemplate.query("SELECT product_id, product_name, description, category_id, price FROM products", rs -> {
+            long categoryId = rs.getLong("category_id");
+            Long productCategory = rs.wasNull() ? null : categoryId;
+            documents.add(new SearchDocument(rs.getLong("product_id"), rs.getString("product_name"),
+                    rs.getString("description"), productCategory, rs.getDouble("price")));
+        });
+        rebuild(documents);
+        logger.info("Search index built for {} products", documents.size());
+    }
+
+    public void rebuild(Collection<SearchDocument> documents) {
+        lock.writeLock().lock();
+        try {
+            clear();
+            documents.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void index(SearchDocument document) {
+        lock.writeLock().lock();
+        try {
+            delete(document.productId());
+            add(document);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            delete(productId);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeCategory(Long categoryId) {
+        lock.writeLock().lock();
+        try {
+            for (int doc = 0; doc < docCount; doc++) {
+                if (!deleted.get(doc) && categoryIds[doc] == categoryId) {
+                    delete(productIds[doc]);
+                }
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docCount - deletedCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public SearchResult search(SearchQuery query) {
+        if (query.after() != null && (SORT_RELEVANCE.equals(query.sortBy())
+                || !query.sortBy().equals(query.after().sortBy()))) {
+            // scores move with every indexed product, so relevance has no stable keyset
+            throw new IllegalArgumentException("Cursor does not fit sort " + query.sortBy());
+        }
+        List<String> words = SearchTokenizer.tokens(query.text());
+        if (words.isEmpty()) {
+            return new SearchResult(List.of(), 0);
+        }
+        lock.readLock().lock();
+        try {
+            // every query word has to match the name or the description
+            int[][] matchesPerWord = new int[words.size()][];
+            for (int i = 0; i < words.size(); i++) {
+                matchesPerWord[i] = union(postingsList(nameWords, namePrefixes, words.get(i)),
+                        postingsList(descriptionWords, descriptionPrefixes, words.get(i)));
+            }
+            int[][] bySize = matchesPerWord.clone();
+            Arrays.sort(bySize, (a, b) -> Integer.compare(a.length, b.length));
+            int[] candidates = bySize[0];
+            for (int i = 1; i < bySize.length && candidates.length > 0; i++) {
+                candidates = intersect(candidates, bySize[i]);
+            }
+
+            int[] hits = new int[candidates.length];
+            int hitCount = 0;
+            for (int doc : candidates) {
+                if (accepts(doc, query) && (query.after() == null || follows(doc, query))) {
+                    hits[hitCount++] = doc;
+                }
+            }
+
+            float[] scores = SORT_RELEVANCE.equals(query.sortBy()) ? score(words, matchesPerWord, hits, hitCount) : null;
+            int[] window = topPositions(query, hits, hitCount, scores);
+            List<Long> ids = new ArrayList<>(window.length);
+            for (int position : window) {
+                ids.add(productIds[hits[position]]);
+            }
+            SearchCursor last = null;
+            if (window.length > 0) {
+                int doc = hits[window[window.length - 1]];
+                last = new SearchCursor(query.sortBy(), prices[doc], names[doc], productIds[doc]);
+            }
+            return new SearchResult(ids, hitCount, last);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean accepts(int doc, SearchQuery query) {
+        if (deleted.get(doc)) {
+            return false;
+        }
+        if (query.categoryId() != null && categoryIds[doc] != query.categoryId()) {
+            return false;
+        }
+        if (query.minPrice() != null && prices[doc] < query.minPrice()) {
+            return false;
+        }
+        return query.maxPrice() == null || prices[doc] <= query.maxPrice();
+    }
+
+    // strictly after the cursor in the same order order() ranks by, so keyset pages neither skip nor repeat
+    private boolean follows(int doc, SearchQuery query) {
+        SearchCursor after = query.after();
+        int primary = switch (query.sortBy()) {
+            case "price" -> directed(query, Double.compare(prices[doc], after.price()));
+            case "productName" -> directed(query, names[doc].compareToIgnoreCase(after.productName()));
+            default -> directed(query, Long.compare(productIds[doc], after.productId()));
+        };
+        return primary != 0 ? primary > 0 : productIds[doc] > after.productId();
+    }
+
+    // tf is ignored (words are indexed once per field); idf keeps rare words ahead of common ones.
+    // hits and postings are both sorted, so each postings list is walked once alongside the hits
+    private float[] score(List<String> words, int[][] matchesPerWord, int[] hits, int hitCount) {
+        int live = Math.max(1, docCount - deletedCount);
+        float[] scores = new float[hitCount];
+        for (int w = 0; w < words.size(); w++) {
+            String word = words.get(w);
+            float idf = (float) Math.log(1 + (double) live / (1 + matchesPerWord[w].length));
+            addScores(scores, hits, hitCount, postingsList(nameWords, namePrefixes, word), NAME_WEIGHT * idf);
+            addScores(scores, hits, hitCount, nameWords.get(word), NAME_WEIGHT * EXACT_BONUS * idf);
+            addScores(scores, hits, hitCount, postingsList(descriptionWords, descriptionPrefixes, word), DESCRIPTION_WEIGHT * idf);
+            addScores(scores, hits, hitCount, descriptionWords.get(word), DESCRIPTION_WEIGHT * EXACT_BONUS * idf);
+        }
+        return scores;
+    }
+
+    private static void addScores(float[] scores, int[] hits, int hitCount, IntList postings, float weight) {
+        if (postings == null) {
+            return;
+        }
+        int p = 0;
+        for (int i = 0; i < hitCount && p < postings.size(); i++) {
+            while (p < postings.size() && postings.get(p) < hits[i]) {
+                p++;
+            }
+            if (p < postings.size() && postings.get(p) == hits[i]) {
+                scores[i] += weight;
+            }
+        }
+    }
+
+    // bounded heap of the best offset + limit hits instead of sorting them all
+    private int[] topPositions(SearchQuery query, int[] hits, int hitCount, float[] scores) {
+        int offset = query.after() != null ? 0 : query.offset();
+        int wanted = (int) Math.min(hitCount, (long) offset + query.limit());
+        if (offset >= wanted) {
+            return new int[0];
+        }
+        PositionOrder order = order(query, hits, scores);
+        PriorityQueue<Integer> worstFirst = new PriorityQueue<>(wanted, (a, b) -> order.compare(b, a));
+        for (int position = 0; position < hitCount; position++) {
+            if (worstFirst.size() < wanted) {
+                worstFirst.add(position);
+            } else if (order.compare(position, worstFirst.peek()) < 0) {
+                worstFirst.poll();
+                worstFirst.add(position);
+            }
+        }
+        int[] ranked = new int[worstFirst.size()];
+        for (int i = ranked.length - 1; i >= 0; i--) {
+            ranked[i] = worstFirst.poll();
+        }
+        return Arrays.copyOfRange(ranked, offset, ranked.length);
+    }
+
+    private PositionOrder order(SearchQuery query, int[] hits, float[] scores) {
+        PositionOrder byProductId = (a, b) -> Long.compare(productIds[hits[a]], productIds[hits[b]]);
+        PositionOrder primary = switch (query.sortBy()) {
+            case SORT_RELEVANCE -> (a, b) -> Float.compare(scores[b], scores[a]);
+            case "price" -> (a, b) -> directed(query, Double.compare(prices[hits[a]], prices[hits[b]]));
+            case "productName" -> (a, b) -> directed(query, names[hits[a]].compareToIgnoreCase(names[hits[b]]));
+            default -> (a, b) -> directed(query, byProductId.compare(a, b));
+        };
+        return (a, b) -> {
+            int result = primary.compare(a, b);
+            return result != 0 ? result : byProductId.compare(a, b);
+        };
+    }
+
+    private static int directed(SearchQuery query, int comparison) {
+        return query.ascending() ? comparison : -comparison;
+    }
+
+    private IntList postingsList(Map<String, IntList> words, Map<String, IntList> prefixes, String word) {
+        return word.length() < SearchTokenizer.MIN_PREFIX
+                ? words.get(word)
+                : prefixes.get(SearchTokenizer.prefixKey(word));
+    }
+
+    private void add(SearchDocument document) {
+        int doc = docCount++;
+        if (doc == productIds.length) {
+            grow();
+        }
+        productIds[doc] = document.productId();
+        categoryIds[doc] = document.categoryId() != null ? document.categoryId() : NO_CATEGORY;
+        prices[doc] = document.price();
+        names[doc] = document.productName() != null ? document.productName() : "";
+        descriptions[doc] = document.description();
+        docsByProductId.put(document.productId(), doc);
+        addField(doc, document.productName(), nameWords, namePrefixes);
+        addField(doc, document.description(), descriptionWords, descriptionPrefixes);
+    }
+
+    private void addField(int doc, String text, Map<String, IntList> words, Map<String, IntList> prefixes) {
+        Set<String> docPrefixes = new HashSet<>();
+        for (String word : SearchTokenizer.tokens(text)) {
+            words.computeIfAbsent(word, k -> new IntList()).add(doc);
+            int longest = Math.min(word.length(), SearchTokenizer.MAX_PREFIX);
+            for (int length = SearchTokenizer.MIN_PREFIX; length <= longest; length++) {
+                docPrefixes.add(word.substring(0, length));
+            }
+        }
+        for (String prefix : docPrefixes) {
+            prefixes.computeIfAbsent(prefix, k -> new IntList()).add(doc);
+        }
+    }
+
+    private void delete(Long productId) {
+        Integer doc = docsByProductId.remove(productId);
+        if (doc != null && !deleted.get(doc)) {
+            deleted.set(doc);
+            deletedCount++;
+        }
+    }
+
+    private void compactIfNeeded() {
+        if (deletedCount > 1024 && deletedCount > docCount / 4) {
+            List<SearchDocument> live = new ArrayList<>(docCount - deletedCount);
+            for (int doc = 0; doc < docCount; doc++) {
+                if (!deleted.get(doc)) {
+                    live.add(new SearchDocument(productIds[doc], names[doc], descriptions[doc],
+                            categoryIds[doc] == NO_CATEGORY ? null : categoryIds[doc], prices[doc]));
+                }
+            }
+            clear();
+            live.forEach(this::add);
+        }
+    }
+
+    private void clear() {
+        namePrefixes.clear();
+        nameWords.clear();
+        descriptionPrefixes.clear();
+        descriptionWords.clear();
+        docsByProductId.clear();
+        deleted.clear();
+        docCount = 0;
+        deletedCount = 0;
+    }
+
+    private void grow() {
+        int capacity = productIds.length * 2;
+        productIds = Arrays.copyOf(productIds, capacity);
+        categoryIds = Arrays.copyOf(categoryIds, capacity);
+        prices = Arrays.copyOf(prices, capacity);
+        names = Arrays.copyOf(names, capacity);
+        descriptions = Arrays.copyOf(descriptions, capacity);
+    }
+
+    private static int[] union(IntList a, IntList b) {
+        if (a == null || b == null) {
+            return a != null ? a.toArray() : b != null ? b.toArray() : new int[0];
+        }
+        int[] out = new int[a.size() + b.size()];
+        int i = 0, j = 0, n = 0;
+        while (i < a.size() && j < b.size()) {
+            if (a.get(i) < b.get(j)) {
+                out[n++] = a.get(i++);
+            } else if (a.get(i) > b.get(j)) {
+                out[n++] = b.get(j++);
+            } else {
+                out[n++] = a.get(i++);
+                j++;
+            }
+        }
+        while (i < a.size()) {
+            out[n++] = a.get(i++);
+        }
+        while (j < b.size()) {
+            out[n++] = b.get(j++);
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] out = new int[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                out[n++] = a[i++];
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    private interface PositionOrder {
+        int compare(int a, int b);
+    }
+}
@@ -0,0 +1,173 @@
+package com.ecommarce.project.search;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Autocomplete over product and category names. Queries read an immutable SuggestionTrie snapshot; writes
+// land in a small pending overlay that queries merge in, and the trie is rebuilt off the request path once
+// the overlay has changes (or right away if it grows past MAX_PENDING).
+@Component
+public class ProductSuggester {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSuggester.class);
+
+    private static final int MAX_PENDING = 1000;
+
+    // what the next trie is built from, keyed by "product:12" / "category:3"
+    private final Map<String, Suggestion> entries = new ConcurrentHashMap<>();
+
+    // changes since the current trie was built
+    private final Map<String, Change> pending = new ConcurrentHashMap<>();
+
+    private volatile SuggestionTrie trie = SuggestionTrie.build(List.of());
+
+    @Autowired(required = false)
+    private JdbcTemplate jdbcTemplate;
+
+    public ProductSuggester(MeterRegistry meterRegistry) {
+        Gauge.builder("suggest.trie.bytes", this, s -> s.trie.footprintBytes())
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("suggest.trie.entries", this, s -> s.trie.size()).register(meterRegistry);
+        Gauge.builder("suggest.pending.changes", pending, Map::size).register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        Map<String, Suggestion> loaded = new HashMap<>();
+        jdbcTemplate.query("SELECT p.product_id, p.product_name, p.category_id, COALESCE(SUM(oi.quantity), 0) AS sold "
+                + "FROM products p LEFT JOIN order_items oi ON oi.product_id = p.product_id "
+                + "GROUP BY p.product_id, p.product_name, p.category_id", rs -> {
+            long categoryId = rs.getLong("category_id");
+            Long productCategory = rs.wasNull() ? null : categoryId;
+            loaded.put(productKey(rs.getLong("product_id")), new Suggestion(rs.getString("product_name"),
+                    Suggestion.PRODUCT, rs.getLong("product_id"), productCategory, rs.getInt("sold")));
+        });
+        jdbcTemplate.query("SELECT c.category_id, c.category_name, COUNT(p.product_id) AS products "
+                + "FROM categories c LEFT JOIN products p ON p.category_id = c.category_id "
+                + "GROUP BY c.category_id, c.category_name", rs -> {
+            loaded.put(categoryKey(rs.getLong("category_id")), new Suggestion(rs.getString("category_name"),
+                    Suggestion.CATEGORY, rs.getLong("category_id"), null, rs.getInt("products")));
+        });
+        entries.clear();
+        entries.putAll(loaded);
+        rebuild();
+        logger.info("Suggestion trie built for {} names", trie.size());
+    }
+
+    public List<Suggestion> suggest(String query, int limit) {
+        String prefix = SuggestionTrie.normalize(query);
+        if (prefix.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        SuggestionTrie current = trie;
+        Set<String> hidden = new HashSet<>();
+        List<Suggestion> overlay = new ArrayList<>();
+        pending.values().forEach(change -> {
+            if (change.previous() != null) {
+                hidden.add(SuggestionTrie.normalize(change.previous().text()));
+            }
+            if (change.current() != null && SuggestionTrie.normalize(change.current().text()).startsWith(prefix)) {
+                overlay.add(change.current());
+            }
+        });
+
+        // over-fetch by what the overlay can hide so the page still fills
+        int fetch = limit + hidden.size();
+        List<Suggestion> candidates = new ArrayList<>(current.complete(prefix, fetch));
+        if (candidates.size() < fetch && prefix.length() >= 3) {
+            int maxEdits = prefix.length() >= 6 ? 2 : 1;
+            candidates.addAll(current.completeFuzzy(prefix, maxEdits, fetch - candidates.size(), candidates));
+        }
+
+        Map<String, Suggestion> merged = new LinkedHashMap<>();
+        overlay.stream()
+                .sorted(Comparator.comparingInt(Suggestion::weight).reversed())
+                .forEach(s -> merged.putIfAbsent(SuggestionTrie.normalize(s.text()), s));
+        for (Suggestion candidate : candidates) {
+            String key = SuggestionTrie.normalize(candidate.text());
+            if (!hidden.contains(key)) {
+                merged.putIfAbsent(key, candidate);
+            }
+        }
+        return merged.values().stream().limit(limit).toList();
+    }
+
+    public void productChanged(Long productId, String productName, Long categoryId) {
+        Suggestion previous = entries.get(productKey(productId));
+        int weight = previous != null ? previous.weight() : 0;
+        put(productKey(productId), new Suggestion(productName, Suggestion.PRODUCT, productId, categoryId, weight));
+    }
+
+    public void productRemoved(Long productId) {
+        put(productKey(productId), null);
+    }
+
+    public void categoryChanged(Long categoryId, String categoryName) {
+        Suggestion previous = entries.get(categoryKey(categoryId));
+        int weight = previous != null ? previous.weight() : 0;
+        put(categoryKey(categoryId), new Suggestion(categoryName, Suggestion.CATEGORY, categoryId, null, weight));
+    }
+
+    // deleting a category cascades to its products
+    public void categoryRemoved(Long categoryId) {
+        put(categoryKey(categoryId), null);
+        entries.entrySet().stream()
+                .filter(entry -> categoryId.equals(entry.getValue().categoryId()))
+                .map(Map.Entry::getKey)
+                .toList()
+                .forEach(key -> put(key, null));
+    }
+
+    @Scheduled(fixedDelayString = "${spring.app.suggest.rebuildIntervalMs:5000}")
+    public void rebuildIfPending() {
+        if (!pending.isEmpty()) {
+            rebuild();
+        }
+    }
+
+    public synchronized void rebuild() {
+        Map<String, Change> applied = new HashMap<>(pending);
+        trie = SuggestionTrie.build(new ArrayList<>(entries.values()));
+        // changes made while building stay pending for the next round
+        applied.forEach(pending::remove);
+    }
+
+    private void put(String key, Suggestion current) {
+        Suggestion previous = current != null ? entries.put(key, current) : entries.remove(key);
+        pending.merge(key, new Change(previous, current), (older, newer) -> new Change(older.previous(), newer.current()));
+        if (pending.size() > MAX_PENDING) {
+            rebuild();
+        }
+    }
+
+    private static String productKey(Long productId) {
+        return "product:" + productId;
+    }
+
+    private static String categoryKey(Long categoryId) {
+        return "category:" + categoryId;
+    }
+
+    // previous is what the current trie may still return for the key
+    private record Change(Suggestion previous, Suggestion current) {
+    }
+}
@@ -0,0 +1,5 @@
+package com.ecommarce.project.search;
+
+// where a keyset page over the index ends: the sort keys of its last hit, with the id breaking ties
+public record SearchCursor(String sortBy, double price, String productName, long productId) {
+}
@@ -0,0 +1,12 @@
+package com.ecommarce.project.search;
+
+import com.ecommarce.project.model.Product;
+
+public record SearchDocument(Long productId, String productName, String description, Long categoryId, double price) {
+
+    public static SearchDocument from(Product product) {
+        Long categoryId = product.getCategory() != null ? product.getCategory().getCategoryId() : null;
+        return new SearchDocument(product.getProductId(), product.getProductName(), product.getDescription(),
+                categoryId, product.getPrice());
+    }
+}
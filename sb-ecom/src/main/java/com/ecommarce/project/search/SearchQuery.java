@@ -0,0 +1,11 @@
+package com.ecommarce.project.search;
+
+// after is null for offset paging; with a cursor offset is ignored and hits start right after it
+public record SearchQuery(String text, Long categoryId, Double minPrice, Double maxPrice,
+                          String sortBy, boolean ascending, int offset, int limit, SearchCursor after) {
+
+    public SearchQuery(String text, Long categoryId, Double minPrice, Double maxPrice,
+                       String sortBy, boolean ascending, int offset, int limit) {
+        this(text, categoryId, minPrice, maxPrice, sortBy, ascending, offset, limit, null);
+    }
+}
@@ -0,0 +1,11 @@
+package com.ecommarce.project.search;
+
+import java.util.List;
+
+// totalHits counts the hits after the query's cursor when it has one; last is the cursor of the final id
+public record SearchResult(List<Long> productIds, int totalHits, SearchCursor last) {
+
+    public SearchResult(List<Long> productIds, int totalHits) {
+        this(productIds, totalHits, null);
+    }
+}
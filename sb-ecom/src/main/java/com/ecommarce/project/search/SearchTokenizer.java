@@ -0,0 +1,60 @@
+package com.ecommarce.project.search;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+public final class SearchTokenizer {
+
+    // edge n-grams shorter than this would match most of the catalog, longer ones are cut here
+    static final int MIN_PREFIX = 2;
+    static final int MAX_PREFIX = 15;
+
+    private SearchTokenizer() {
+    }
+
+    // lower-cased runs of letters and digits, in order, without duplicates
+    public static List<String> tokens(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return new ArrayList<>(tokens);
+        }
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                token.append(Character.toLowerCase(c));
+            } else if (!token.isEmpty()) {
+                tokens.add(token.toString());
+                token.setLength(0);
+            }
+        }
+        if (!token.isEmpty()) {
+            tokens.add(token.toString());
+        }
+        return new ArrayList<>(tokens);
+    }
+
+    static String prefixKey(String token) {
+        return token.length() > MAX_PREFIX ? token.substring(0, MAX_PREFIX) : token;
+    }
+
+    // true when every word of the query starts some word of the texts, the way the index matches
+    public static boolean matches(String query, String... texts) {
+        List<String> queryTokens = tokens(query);
+        if (queryTokens.isEmpty()) {
+            return false;
+        }
+        List<String> textTokens = new ArrayList<>();
+        for (String text : texts) {
+            textTokens.addAll(tokens(text));
+        }
+        for (String queryToken : queryTokens) {
+            if (textTokens.stream().noneMatch(token -> token.startsWith(queryToken))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
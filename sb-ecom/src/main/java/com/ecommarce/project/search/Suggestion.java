@@ -0,0 +1,8 @@
+package com.ecommarce.project.search;
+
+// weight is the popularity used for ranking: units sold for a product, product count for a category
+public record Suggestion(String text, String type, Long id, Long categoryId, int weight) {
+
+    public static final String PRODUCT = "product";
+    public static final String CATEGORY = "category";
+}
@@ -0,0 +1,228 @@
+package com.ecommarce.project.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+// Immutable prefix trie laid out breadth-first in parallel primitive arrays: the children of a node are
+// contiguous and sorted by label, so a lookup is a binary search per character. Each node also keeps the
+// heaviest weight below it, which lets top-k completion walk the best branches first and stop after k hits.
+public final class SuggestionTrie {
+
+    private final char[] labels;
+    private final int[] firstChild;
+    private final int[] childCount;
+    private final int[] bestWeight;
+    private final int[] terminal;
+    private final Suggestion[] suggestions;
+
+    private SuggestionTrie(int nodes, Suggestion[] suggestions) {
+        this.labels = new char[nodes];
+        this.firstChild = new int[nodes];
+        this.childCount = new int[nodes];
+        this.bestWeight = new int[nodes];
+        this.terminal = new int[nodes];
+        this.suggestions = suggestions;
+    }
+
+    public static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public static SuggestionTrie build(Collection<Suggestion> entries) {
+        // one suggestion per normalized text, the heaviest wins
+        Map<String, Suggestion> byKey = new LinkedHashMap<>();
+        for (Suggestion entry : entries) {
+            String key = normalize(entry.text());
+            if (!key.isEmpty()) {
+                byKey.merge(key, entry, (a, b) -> b.weight() > a.weight() ? b : a);
+            }
+        }
+        String[] keys = byKey.keySet().toArray(new String[0]);
+        Arrays.sort(keys);
+        Suggestion[] sorted = new Suggestion[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            sorted[i] = byKey.get(keys[i]);
+        }
+
+        // every character a key doesn't share with the previous key adds one node
+        int nodes = 1;
+        for (int i = 0; i < keys.length; i++) {
+            nodes += keys[i].length() - (i == 0 ? 0 : commonPrefix(keys[i - 1], keys[i]));
+        }
+
+        SuggestionTrie trie = new SuggestionTrie(nodes, sorted);
+        Arrays.fill(trie.terminal, -1);
+        int[] rangeStart = new int[nodes];
+        int[] rangeEnd = new int[nodes];
+        int[] depth = new int[nodes];
+        rangeEnd[0] = keys.length;
+        int next = 1;
+        for (int node = 0; node < next; node++) {
+            int lo = rangeStart[node];
+            int hi = rangeEnd[node];
+            int d = depth[node];
+            if (lo < hi && keys[lo].length() == d) {
+                trie.terminal[node] = lo++;
+            }
+            trie.firstChild[node] = next;
+            while (lo < hi) {
+                char label = keys[lo].charAt(d);
+                int end = lo;
+                while (end < hi && keys[end].charAt(d) == label) {
+                    end++;
+                }
+                trie.labels[next] = label;
+                rangeStart[next] = lo;
+                rangeEnd[next] = end;
+                depth[next] = d + 1;
+                next++;
+                trie.childCount[node]++;
+                lo = end;
+            }
+        }
+        // children always sit after their parent, so one backwards pass fills the subtree maxima
+        for (int node = nodes - 1; node >= 0; node--) {
+            int best = trie.terminal[node] >= 0 ? sorted[trie.terminal[node]].weight() : 0;
+            for (int c = trie.firstChild[node]; c < trie.firstChild[node] + trie.childCount[node]; c++) {
+                best = Math.max(best, trie.bestWeight[c]);
+            }
+            trie.bestWeight[node] = best;
+        }
+        return trie;
+    }
+
+    public int size() {
+        return suggestions.length;
+    }
+
+    public List<Suggestion> complete(String prefix, int limit) {
+        int node = find(normalize(prefix));
+        return node < 0 ? List.of() : topK(List.of(node), limit, List.of());
+    }
+
+    // completions whose first query-length characters are within maxEdits of the query, closest first
+    public List<Suggestion> completeFuzzy(String query, int maxEdits, int limit, Collection<Suggestion> exclude) {
+        char[] q = normalize(query).toCharArray();
+        List<List<Integer>> byDistance = new ArrayList<>();
+        for (int d = 0; d <= maxEdits; d++) {
+            byDistance.add(new ArrayList<>());
+        }
+        int[] row = new int[q.length + 1];
+        for (int j = 0; j <= q.length; j++) {
+            row[j] = j;
+        }
+        collectFuzzy(0, q, row, maxEdits, byDistance);
+
+        List<Suggestion> found = new ArrayList<>();
+        List<Suggestion> skip = new ArrayList<>(exclude);
+        for (List<Integer> nodes : byDistance) {
+            if (found.size() >= limit) {
+                break;
+            }
+            List<Suggestion> group = topK(nodes, limit - found.size(), skip);
+            found.addAll(group);
+            skip.addAll(group);
+        }
+        return found;
+    }
+
+    // heap estimate of the arrays and the suggestion objects they point to
+    public long footprintBytes() {
+        long bytes = 16L + 2L * labels.length + 16L + 4L * 4 * labels.length + 16L * 4;
+        bytes += 16L + 4L * suggestions.length;
+        for (Suggestion suggestion : suggestions) {
+            bytes += 32 + 40 + 2L * suggestion.text().length();
+        }
+        return bytes;
+    }
+
+    private int find(String key) {
+        int node = 0;
+        for (int i = 0; i < key.length() && node >= 0; i++) {
+            node = child(node, key.charAt(i));
+        }
+        return node;
+    }
+
+    private int child(int node, char label) {
+        int lo = firstChild[node];
+        int hi = lo + childCount[node] - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (labels[mid] < label) {
+                lo = mid + 1;
+            } else if (labels[mid] > label) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private void collectFuzzy(int node, char[] q, int[] prevRow, int maxEdits, List<List<Integer>> byDistance) {
+        for (int c = firstChild[node]; c < firstChild[node] + childCount[node]; c++) {
+            int[] row = new int[q.length + 1];
+            row[0] = prevRow[0] + 1;
+            int min = row[0];
+            for (int j = 1; j <= q.length; j++) {
+                int substitution = prevRow[j - 1] + (q[j - 1] == labels[c] ? 0 : 1);
+                row[j] = Math.min(Math.min(row[j - 1] + 1, prevRow[j] + 1), substitution);
+                min = Math.min(min, row[j]);
+            }
+            if (row[q.length] <= maxEdits) {
+                // everything below completes this spelling of the query
+                byDistance.get(row[q.length]).add(c);
+            } else if (min <= maxEdits) {
+                collectFuzzy(c, q, row, maxEdits, byDistance);
+            }
+        }
+    }
+
+    // best-first over subtrees: a node is expanded only when its heaviest suggestion could still make the cut
+    private List<Suggestion> topK(List<Integer> roots, int limit, Collection<Suggestion> exclude) {
+        List<Suggestion> found = new ArrayList<>();
+        if (limit <= 0) {
+            return found;
+        }
+        PriorityQueue<long[]> queue = new PriorityQueue<>(
+                Comparator.<long[]>comparingLong(e -> -e[0]).thenComparingLong(e -> e[1]));
+        for (int root : roots) {
+            queue.add(new long[]{bestWeight[root], root, 0});
+        }
+        while (!queue.isEmpty() && found.size() < limit) {
+            long[] entry = queue.poll();
+            int node = (int) entry[1];
+            if (entry[2] == 1) {
+                Suggestion suggestion = suggestions[terminal[node]];
+                if (!exclude.contains(suggestion)) {
+                    found.add(suggestion);
+                }
+                continue;
+            }
+            if (terminal[node] >= 0) {
+                queue.add(new long[]{suggestions[terminal[node]].weight(), node, 1});
+            }
+            for (int c = firstChild[node]; c < firstChild[node] + childCount[node]; c++) {
+                queue.add(new long[]{bestWeight[c], c, 0});
+            }
+        }
+        return found;
+    }
+
+    private static int commonPrefix(String a, String b) {
+        int n = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < n && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+}
@@ -1,5 +1,6 @@
 package com.ecommarce.project.security.jwt;
 
+import com.ecommarce.project.security.services.UserDetailsImpl;
 import com.ecommarce.project.security.services.UserDetailsServiceImpl;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -8,9 +9,10 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -25,6 +27,12 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
+    @Autowired
+    private JwtTokenCache jwtTokenCache;
+
+    @Value("${spring.app.jwtClaimsOnly:false}")
+    private boolean claimsOnly;
+
     private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
 
     @Override
@@ -33,11 +41,18 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         logger.debug("AuthTokenFilter called for URI: {}", request.getRequestURI());
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
-
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            UserDetailsImpl userDetails = jwt != null ? jwtTokenCache.get(jwt) : null;
+            if (userDetails == null && jwt != null) {
+                JwtClaims claims = jwtUtils.parseJwtToken(jwt);
+                if (claims.isValid()) {
+                    userDetails = claimsOnly && claims.getUserId() != null
+                            ? userDetailsFromClaims(claims)
+                            : (UserDetailsImpl) userDetailsService.loadUserByUsername(claims.getSubject());
+                    jwtTokenCache.put(jwt, userDetails, claims.getExpiration().getTime());
+                }
+            }
 
+            if (userDetails != null) {
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(userDetails,
                                 null,
@@ -55,6 +70,14 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private UserDetailsImpl userDetailsFromClaims(JwtClaims claims) {
+        return new UserDetailsImpl(claims.getUserId(),
+                claims.getSubject(),
+                claims.getEmail(),
+                null,
+                claims.getRoles().stream().map(SimpleGrantedAuthority::new).toList());
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String jwt = jwtUtils.getJwtFromCookies(request);
         logger.debug("AuthTokenFilter.java: {}", jwt);
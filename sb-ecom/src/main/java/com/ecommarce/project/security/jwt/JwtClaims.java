@@ -0,0 +1,26 @@
+package com.ecommarce.project.security.jwt;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Date;
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class JwtClaims {
+    private JwtStatus status;
+    private String subject;
+    private Long userId;
+    private String email;
+    private Date expiration;
+    private List<String> roles;
+
+    public static JwtClaims invalid(JwtStatus status) {
+        return new JwtClaims(status, null, null, null, null, List.of());
+    }
+
+    public boolean isValid() {
+        return status == JwtStatus.VALID;
+    }
+}
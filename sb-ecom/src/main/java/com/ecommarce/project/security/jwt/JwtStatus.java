@@ -0,0 +1,10 @@
+package com.ecommarce.project.security.jwt;
+
+public enum JwtStatus {
+    VALID,
+    EXPIRED,
+    MALFORMED,
+    UNSUPPORTED,
+    INVALID_SIGNATURE,
+    EMPTY
+}
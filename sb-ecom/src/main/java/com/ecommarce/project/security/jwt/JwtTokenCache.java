@@ -0,0 +1,108 @@
+package com.ecommarce.project.security.jwt;
+
+import com.ecommarce.project.security.services.UserDetailsImpl;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class JwtTokenCache {
+
+    private final Map<String, CachedToken> tokens = new ConcurrentHashMap<>();
+
+    private final int maxSize;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public JwtTokenCache(@Value("${spring.app.jwtCacheMaxSize:10000}") int maxSize,
+                         MeterRegistry meterRegistry) {
+        this.maxSize = maxSize;
+        this.hits = Counter.builder("jwt.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("jwt.cache.requests").tag("result", "miss").register(meterRegistry);
+        this.evictions = Counter.builder("jwt.cache.evictions").register(meterRegistry);
+        Gauge.builder("jwt.cache.size", tokens, Map::size).register(meterRegistry);
+    }
+
+    public UserDetailsImpl get(String token) {
+        String key = digest(token);
+        CachedToken cached = tokens.get(key);
+        if (cached == null) {
+            misses.increment();
+            return null;
+        }
+        if (cached.expiresAt() <= System.currentTimeMillis()) {
+            // token reached its exp, drop it so the filter re-validates and rejects it
+            if (tokens.remove(key, cached)) {
+                evictions.increment();
+            }
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return cached.userDetails();
+    }
+
+    public void put(String token, UserDetailsImpl userDetails, long expiresAt) {
+        if (maxSize <= 0 || expiresAt <= System.currentTimeMillis()) {
+            return;
+        }
+        if (tokens.size() >= maxSize) {
+            evict();
+        }
+        tokens.put(digest(token), new CachedToken(userDetails, expiresAt));
+    }
+
+    public int size() {
+        return tokens.size();
+    }
+
+    private void evict() {
+        long now = System.currentTimeMillis();
+        tokens.entrySet().removeIf(entry -> {
+            boolean expired = entry.getValue().expiresAt() <= now;
+            if (expired) {
+                evictions.increment();
+            }
+            return expired;
+        });
+
+        // still full: drop the tenth of the tokens closest to expiry so the next puts don't rescan
+        int overflow = tokens.size() - maxSize + Math.max(1, maxSize / 10);
+        if (overflow > 0) {
+            tokens.entrySet().stream()
+                    .sorted(Map.Entry.comparingByValue(Comparator.comparingLong(CachedToken::expiresAt)))
+                    .limit(overflow)
+                    .toList()
+                    .forEach(entry -> {
+                        if (tokens.remove(entry.getKey(), entry.getValue())) {
+                            evictions.increment();
+                        }
+                    });
+        }
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            byte[] hash = sha256.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record CachedToken(UserDetailsImpl userDetails, long expiresAt) {
+    }
+}
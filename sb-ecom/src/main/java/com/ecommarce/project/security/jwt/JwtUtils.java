@@ -1,25 +1,29 @@
 package com.ecommarce.project.security.jwt;
 
 import com.ecommarce.project.security.services.UserDetailsImpl;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseCookie;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
 import org.springframework.web.util.WebUtils;
 
 import javax.crypto.SecretKey;
-import java.security.Key;
 import java.util.Date;
+import java.util.List;
 
 @Component
 public class JwtUtils {
@@ -34,6 +38,16 @@ public class JwtUtils {
     @Value("${spring.ecom.app.jwtCookieName}")
     private String jwtCookie;
 
+    private SecretKey signingKey;
+
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        jwtParser = Jwts.parser().verifyWith(signingKey).build();
+    }
+
 //    public String getJwtFromHeader(HttpServletRequest request) {
 //        String bearerToken = request.getHeader("Authorization");
 //        logger.debug("Authorization Header: {}", bearerToken);
@@ -55,7 +69,7 @@ public class JwtUtils {
     }
 
     public ResponseCookie generateJwtCookie(UserDetailsImpl userPrinciple){
-        String jwt = generateTokenFromUsername(userPrinciple.getUsername());
+        String jwt = generateTokenFromUserDetails(userPrinciple);
         ResponseCookie cookie = ResponseCookie.from(jwtCookie,jwt)
                 .path("/api")
                 .maxAge(24 * 60 * 60)
@@ -76,35 +90,67 @@ public class JwtUtils {
                 .subject(username)
                 .issuedAt(new Date())
                 .expiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(key())
+                .signWith(signingKey)
+                .compact();
+    }
+
+    public String generateTokenFromUserDetails(UserDetailsImpl userDetails) {
+        List<String> roles = userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
+        return Jwts.builder()
+                .subject(userDetails.getUsername())
+                .claim("id", userDetails.getId())
+                .claim("email", userDetails.getEmail())
+                .claim("roles", roles)
+                .issuedAt(new Date())
+                .expiration(new Date((new Date()).getTime() + jwtExpirationMs))
+                .signWith(signingKey)
                 .compact();
     }
 
     public String getUserNameFromJwtToken(String token) {
-        return Jwts.parser()
-                        .verifyWith((SecretKey) key())
-                .build().parseSignedClaims(token)
+        return jwtParser.parseSignedClaims(token)
                 .getPayload().getSubject();
     }
 
-    private Key key() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+    public boolean validateJwtToken(String authToken) {
+        return parseJwtToken(authToken).isValid();
     }
 
-    public boolean validateJwtToken(String authToken) {
+    public JwtClaims parseJwtToken(String authToken) {
         try {
-            System.out.println("Validate");
-            Jwts.parser().verifyWith((SecretKey) key()).build().parseSignedClaims(authToken);
-            return true;
+            Claims claims = jwtParser.parseSignedClaims(authToken).getPayload();
+            Number userId = claims.get("id", Number.class);
+            return new JwtClaims(JwtStatus.VALID,
+                    claims.getSubject(),
+                    userId != null ? userId.longValue() : null,
+                    claims.get("email", String.class),
+                    claims.getExpiration(),
+                    rolesFrom(claims));
         } catch (MalformedJwtException e) {
             logger.error("Invalid JWT token: {}", e.getMessage());
+            return JwtClaims.invalid(JwtStatus.MALFORMED);
         } catch (ExpiredJwtException e) {
             logger.error("JWT token is expired: {}", e.getMessage());
+            return JwtClaims.invalid(JwtStatus.EXPIRED);
         } catch (UnsupportedJwtException e) {
             logger.error("JWT token is unsupported: {}", e.getMessage());
+            return JwtClaims.invalid(JwtStatus.UNSUPPORTED);
+        } catch (SignatureException e) {
+            logger.error("JWT signature does not match: {}", e.getMessage());
+            return JwtClaims.invalid(JwtStatus.INVALID_SIGNATURE);
         } catch (IllegalArgumentException e) {
             logger.error("JWT claims string is empty: {}", e.getMessage());
+            return JwtClaims.invalid(JwtStatus.EMPTY);
+        }
+    }
+
+    private List<String> rolesFrom(Claims claims) {
+        List<?> roles = claims.get("roles", List.class);
+        if (roles == null) {
+            return List.of();
         }
-        return false;
+        return roles.stream().map(String::valueOf).toList();
     }
 }
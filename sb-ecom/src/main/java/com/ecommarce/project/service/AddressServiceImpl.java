@@ -1,12 +1,12 @@
 package com.ecommarce.project.service;
 
 import com.ecommarce.project.exceptions.ResourceNotFoundException;
+import com.ecommarce.project.mapper.AddressMapper;
 import com.ecommarce.project.model.Address;
 import com.ecommarce.project.model.User;
 import com.ecommarce.project.payload.AddressDTO;
 import com.ecommarce.project.repositories.AddressRepository;
 import com.ecommarce.project.repositories.UserRepository;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -16,7 +16,7 @@ import java.util.List;
 public class AddressServiceImpl implements AddressService{
 
     @Autowired
-    private ModelMapper modelMapper;
+    private AddressMapper addressMapper;
 
     @Autowired
     private AddressRepository addressRepository;
@@ -26,23 +26,21 @@ public class AddressServiceImpl implements AddressService{
 
     @Override
     public AddressDTO createAddress(AddressDTO addressDTO, User user) {
-        Address address = modelMapper.map(addressDTO,Address.class);
+        Address address = addressMapper.toEntity(addressDTO);
         List<Address> addressList = user.getAddresses();
         addressList.add(address);
         user.setAddresses(addressList);
 
         address.setUser(user);
         Address savedAddress = addressRepository.save(address);
-        return modelMapper.map(savedAddress,AddressDTO.class);
+        return addressMapper.toDto(savedAddress);
     }
 
     @Override
     public List<AddressDTO> getAddress() {
         List<Address> addresses = addressRepository.findAll();
 
-        return addresses.stream()
-                .map(address -> modelMapper.map(address,AddressDTO.class))
-                .toList();
+        return addressMapper.toDtos(addresses);
     }
 
     @Override
@@ -50,15 +48,13 @@ public class AddressServiceImpl implements AddressService{
         Address address = addressRepository.findById(addressId)
                 .orElseThrow(()->new ResourceNotFoundException("Address","addressId",addressId));
 
-        return modelMapper.map(address,AddressDTO.class);
+        return addressMapper.toDto(address);
     }
 
     @Override
     public List<AddressDTO> getUserAddress(User user) {
         List<Address> addresses = user.getAddresses();
-        return addresses.stream()
-                .map(address -> modelMapper.map(address,AddressDTO.class))
-                .toList();
+        return addressMapper.toDtos(addresses);
     }
 
     @Override
@@ -80,7 +76,7 @@ public class AddressServiceImpl implements AddressService{
         user.getAddresses().add(updatedAddress);
         userRepository.save(user);
 
-        return modelMapper.map(updatedAddress,AddressDTO.class);
+        return addressMapper.toDto(updatedAddress);
     }
 
     @Override
@@ -1,6 +1,7 @@
 package com.ecommarce.project.service;
 
 import com.ecommarce.project.payload.CartDTO;
+import com.ecommarce.project.payload.CartLineQuantityDTO;
 import jakarta.transaction.Transactional;
 
 import java.util.List;
@@ -13,10 +14,13 @@ public interface CartService {
 
     CartDTO getCart(String emailId, Long cartId);
 
+    CartDTO getCart(String emailId);
+
     @Transactional
     CartDTO updateProductQuantityInCart(Long productId, Integer quantity);
 
+    CartDTO setProductQuantitiesInCart(List<CartLineQuantityDTO> lines);
+
     String deleteProductFromCart(Long cartId, Long productId);
 
-    void updateProductInCart(Long cartId, Long productId);
 }
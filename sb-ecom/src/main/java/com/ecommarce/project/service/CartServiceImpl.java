@@ -1,24 +1,31 @@
 package com.ecommarce.project.service;
 
+import com.ecommarce.project.cart.CartStore;
 import com.ecommarce.project.exceptions.APIException;
 import com.ecommarce.project.exceptions.ResourceNotFoundException;
+import com.ecommarce.project.mapper.CartMapper;
+import com.ecommarce.project.mapper.ProductMapper;
 import com.ecommarce.project.model.Cart;
 import com.ecommarce.project.model.CartItem;
 import com.ecommarce.project.model.Product;
+import com.ecommarce.project.money.CartTotals;
+import com.ecommarce.project.money.Money;
 import com.ecommarce.project.payload.CartDTO;
+import com.ecommarce.project.payload.CartLineQuantityDTO;
 import com.ecommarce.project.payload.ProductDTO;
 import com.ecommarce.project.repositories.CartItemRepository;
 import com.ecommarce.project.repositories.CartRepository;
 import com.ecommarce.project.repositories.ProductRepository;
 import com.ecommarce.project.util.AuthUtil;
 import jakarta.transaction.Transactional;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.Map;
 
 @Service
 public class CartServiceImpl implements CartService{
@@ -33,13 +40,34 @@ public class CartServiceImpl implements CartService{
     CartItemRepository cartItemRepository;
 
     @Autowired
-    ModelMapper modelMapper;
+    CartMapper cartMapper;
 
     @Autowired
     AuthUtil authUtil;
 
+    @Autowired
+    InventoryService inventoryService;
+
+    @Autowired
+    ProductMapper productMapper;
+
+    // only present when spring.app.cartStore.inMemory=true; it then owns the logged-in user's cart
+    @Autowired(required = false)
+    CartStore cartStore;
+
     @Override
     public CartDTO addProductToCart(Long productId, Integer quantity) {
+        if (cartStore != null) {
+            Product product = productRepository.findById(productId)
+                    .orElseThrow(()->new ResourceNotFoundException("Product","productId",productId));
+            long available = inventoryService.availableQuantity(product);
+            if(available < quantity ){
+                throw new APIException("Please, make an order of the " + product.getProductName()
+                + " less than or equal to the quantity " + available+".");
+            }
+            return cartStore.addLine(authUtil.loggedInUserId(), authUtil.loggedInEmail(),
+                    productMapper.toDto(product), quantity);
+        }
         //find existing cart or create one
         Cart cart = createCart();
 
@@ -56,87 +84,79 @@ public class CartServiceImpl implements CartService{
             throw new APIException("Product" + product.getProductName() + " already exist in the cart");
         }
 
-        if(product.getQuantity() < quantity ){
+        long available = inventoryService.availableQuantity(product);
+        if(available < quantity ){
             throw new APIException("Please, make an order of the " + product.getProductName()
-            + " less than or equal to the quantity " + product.getQuantity()+".");
+            + " less than or equal to the quantity " + available+".");
         }
 
         //Create Cart Item
         CartItem newCartItem = new CartItem();
         newCartItem.setProduct(product);
         newCartItem.setCart(cart);
-        newCartItem.setQuantity(quantity);
         newCartItem.setDiscount(product.getDiscount());
-        newCartItem.setProductPrice(product.getSpecialPrice());
+        CartTotals.addLine(cart, newCartItem, Money.fromMajor(product.getSpecialPrice()), quantity);
         //Save Cart Item
         cartItemRepository.save(newCartItem);
 
         product.setQuantity(product.getQuantity());
 
-        cart.setTotalPrice(cart.getTotalPrice() + (product.getSpecialPrice() * quantity));
-
         cartRepository.save(cart);
         //Return Updated cart
 
-       CartDTO cartDTO = modelMapper.map(cart,CartDTO.class);
-
-        List<CartItem> cartItems = cart.getCartItems();
-
-        Stream<ProductDTO> productDTOStream = cartItems.stream().map(item->{
-            ProductDTO map = modelMapper.map(item.getProduct(),ProductDTO.class);
-            map.setQuantity(item.getQuantity());
-            return map;
-        });
-        cartDTO.setProducts(productDTOStream.toList());
-
-        return cartDTO;
+        return cartMapper.toDto(cart);
     }
 
     @Override
     public List<CartDTO> getAllCarts() {
+        if (cartStore != null) {
+            cartStore.flushAll();
+        }
         List<Cart> carts = cartRepository.findAll();
 
         if(carts.size() == 0){
             throw new APIException("No cart exist");
         }
 
-        List<CartDTO> cartDTOs = carts.stream()
-                .map(cart -> {
-                    CartDTO cartDTO = modelMapper.map(cart,CartDTO.class);
-
-//                    List<ProductDTO> products = cart.getCartItems().stream()
-//                            .map(p-> modelMapper.map(p.getProduct(),ProductDTO.class))
-//                            .toList();
-
-        List<ProductDTO> products = cart.getCartItems().stream().map(cartItem -> {
-            ProductDTO productDTO = modelMapper.map(cartItem.getProduct(),ProductDTO.class);
-            productDTO.setQuantity(cartItem.getQuantity());
-            return productDTO;
-        }).collect(Collectors.toList());
-                    cartDTO.setProducts(products);
-                    return cartDTO;
-                }).collect(Collectors.toList());
-        return cartDTOs;
+        return cartMapper.toDtos(carts);
     }
 
     @Override
     public CartDTO getCart(String emailId, Long cartId) {
+        CartDTO storedCart = fromStore(emailId);
+        if (storedCart != null && storedCart.getCartId().equals(cartId)) {
+            return storedCart;
+        }
         Cart cart = cartRepository.findCartByEmailAndCartId(emailId,cartId);
         if (cart == null){
             throw new ResourceNotFoundException("Cart","cartId",cartId);
         }
-        CartDTO cartDTO = modelMapper.map(cart,CartDTO.class);
-        cart.getCartItems().forEach(c->c.getProduct().setQuantity(c.getQuantity()));
-        List<ProductDTO> products =cart.getCartItems().stream()
-                .map(p->modelMapper.map(p.getProduct(),ProductDTO.class))
-                .toList();
-        cartDTO.setProducts(products);
-        return cartDTO;
+        return cartMapper.toDto(cart);
+    }
+
+    @Override
+    public CartDTO getCart(String emailId) {
+        CartDTO storedCart = fromStore(emailId);
+        if (storedCart != null) {
+            return storedCart;
+        }
+        Cart cart = cartRepository.findCartByEmail(emailId);
+        if (cart == null){
+            throw new ResourceNotFoundException("Cart","email",emailId);
+        }
+        return cartMapper.toDto(cart);
     }
 
     @Transactional
     @Override
     public CartDTO updateProductQuantityInCart(Long productId, Integer quantity) {
+        if (cartStore != null) {
+            Product product = productRepository.findById(productId)
+                    .orElseThrow(()->new ResourceNotFoundException("Product","productId",productId));
+            checkAvailable(product, quantity);
+            return cartStore.changeQuantity(authUtil.loggedInUserId(), authUtil.loggedInEmail(),
+                    productMapper.toDto(product), quantity);
+        }
         String emailId = authUtil.loggedInEmail();
         Cart userCart = cartRepository.findCartByEmail(emailId);
         Long cartId = userCart.getCartId();
@@ -147,14 +167,7 @@ public class CartServiceImpl implements CartService{
         Product product = productRepository.findById(productId)
                 .orElseThrow(()->new ResourceNotFoundException("Product","productId",productId));
 
-        if(product.getQuantity() == 0){
-            throw new APIException( product.getProductName() + "is not available");
-        }
-
-        if(product.getQuantity() < quantity ){
-            throw new APIException("Please, make an order of the " + product.getProductName()
-                    + " less than or equal to the quantity " + product.getQuantity()+".");
-        }
+        checkAvailable(product, quantity);
 
         CartItem cartItem = cartItemRepository.findCartItemByProductIdAndCarId(cartId,productId);
         if(cartItem == null){
@@ -174,10 +187,9 @@ public class CartServiceImpl implements CartService{
         }else {
 
 
-            cartItem.setProductPrice(product.getSpecialPrice());
-            cartItem.setQuantity(cartItem.getQuantity() + quantity);
+            //reprices the whole line, not just the added units
+            CartTotals.changeLine(cart, cartItem, Money.fromMajor(product.getSpecialPrice()), newQuantity);
             cartItem.setDiscount(product.getDiscount());
-            cart.setTotalPrice(cart.getTotalPrice() + (cartItem.getProductPrice() * quantity));
             cartRepository.save(cart);
         }
         CartItem updatedItem = cartItemRepository.save(cartItem);
@@ -185,22 +197,90 @@ public class CartServiceImpl implements CartService{
             cartItemRepository.deleteById(updatedItem.getCartItemId());
         }
 
-        CartDTO cartDTO = modelMapper.map(cart,CartDTO.class);
-        List<CartItem> cartItems = cart.getCartItems();
+        return cartMapper.toDto(cart);
+    }
 
-        Stream<ProductDTO> productDTOStream = cartItems.stream().map(item->{
-            ProductDTO prd = modelMapper.map(item.getProduct(),ProductDTO.class);
-            prd.setQuantity(item.getQuantity());
-            return prd;
-        });
+    @Transactional
+    @Override
+    public CartDTO setProductQuantitiesInCart(List<CartLineQuantityDTO> lines) {
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (CartLineQuantityDTO line : lines) {
+            if (quantities.put(line.getProductId(), line.getQuantity()) != null) {
+                throw new APIException("Product " + line.getProductId() + " is listed more than once");
+            }
+        }
 
-        cartDTO.setProducts(productDTOStream.toList());
-        return cartDTO;
+        //one select for all the products, and every line is validated before any is changed
+        Map<Long, Product> products = new HashMap<>();
+        productRepository.findAllById(quantities.keySet())
+                .forEach(product -> products.put(product.getProductId(), product));
+        List<String> rejected = new ArrayList<>();
+        for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+            Product product = products.get(line.getKey());
+            if (product == null) {
+                throw new ResourceNotFoundException("Product","productId",line.getKey());
+            }
+            long available = inventoryService.availableQuantity(product);
+            if (available < line.getValue()) {
+                rejected.add(product.getProductName() + " (" + available + " available)");
+            }
+        }
+        if (!rejected.isEmpty()) {
+            throw new APIException("Please, reduce the quantity of " + String.join(", ", rejected));
+        }
+
+        if (cartStore != null) {
+            List<ProductDTO> productDTOs = new ArrayList<>(quantities.size());
+            int[] absolute = new int[quantities.size()];
+            int i = 0;
+            for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+                productDTOs.add(productMapper.toDto(products.get(line.getKey())));
+                absolute[i++] = line.getValue();
+            }
+            return cartStore.setQuantities(authUtil.loggedInUserId(), authUtil.loggedInEmail(), productDTOs, absolute);
+        }
+
+        Cart cart = cartRepository.findCartWithItemsByEmail(authUtil.loggedInEmail());
+        if (cart == null) {
+            cart = createCart();
+        }
+        Map<Long, CartItem> items = new HashMap<>();
+        cart.getCartItems().forEach(cartItem -> items.put(cartItem.getProduct().getProductId(), cartItem));
+
+        for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+            Product product = products.get(line.getKey());
+            int quantity = line.getValue();
+            CartItem cartItem = items.get(line.getKey());
+            if (quantity == 0) {
+                if (cartItem != null) {
+                    CartTotals.removeLine(cart, cartItem);
+                    cart.getCartItems().removeIf(item -> item == cartItem);
+                }
+            } else if (cartItem == null) {
+                CartItem newCartItem = new CartItem();
+                newCartItem.setProduct(product);
+                newCartItem.setCart(cart);
+                newCartItem.setDiscount(product.getDiscount());
+                CartTotals.addLine(cart, newCartItem, Money.fromMajor(product.getSpecialPrice()), quantity);
+                cart.getCartItems().add(newCartItem);
+            } else {
+                CartTotals.changeLine(cart, cartItem, Money.fromMajor(product.getSpecialPrice()), quantity);
+                cartItem.setDiscount(product.getDiscount());
+            }
+        }
+
+        //sequence ids and ordered inserts/updates let hibernate send the line changes as jdbc batches
+        cart = cartRepository.save(cart);
+        return cartMapper.toDto(cart);
     }
 
     @Transactional
     @Override
     public String deleteProductFromCart(Long cartId, Long productId) {
+        String storedProductName = cartStore != null ? cartStore.removeLine(cartId, productId) : null;
+        if (storedProductName != null) {
+            return "Product " + storedProductName + " removed from the cart !!!";
+        }
         Cart cart = cartRepository.findById(cartId)
                 .orElseThrow(()->new ResourceNotFoundException("Cart","cartId",cartId));
 
@@ -210,39 +290,35 @@ public class CartServiceImpl implements CartService{
             throw new ResourceNotFoundException("Product","productId",productId);
         }
 
-        cart.setTotalPrice(cart.getTotalPrice() -
-                (cartItem.getProductPrice() * cartItem.getQuantity()));
+        CartTotals.removeLine(cart, cartItem);
 
         cartItemRepository.deleteCartItemByProductIdAndCartId(cartId,productId);
 
         return "Product " + cartItem.getProduct().getProductName() + " removed from the cart !!!";
     }
 
-    @Override
-    public void updateProductInCart(Long cartId, Long productId) {
-
-        Cart cart = cartRepository.findById(cartId)
-                .orElseThrow(()->new ResourceNotFoundException("Cart","cartId",cartId));
-
-        Product product = productRepository.findById(productId)
-                .orElseThrow(()->new ResourceNotFoundException("Product","productId",productId));
-
-        CartItem cartItem = cartItemRepository.findCartItemByProductIdAndCarId(cartId,productId);
-
-        if(cartItem == null){
-            throw new APIException("Product "+ product.getProductName() + " not available in the cart!!");
+    private void checkAvailable(Product product, Integer quantity) {
+        long available = inventoryService.availableQuantity(product);
+        if(available == 0){
+            throw new APIException( product.getProductName() + "is not available");
         }
-          //1000 - 100*2 = 800
-        double cartPrise = cart.getTotalPrice() -
-                (cartItem.getProductPrice() * cartItem.getQuantity());
-        //200
-        cartItem.setProductPrice(product.getSpecialPrice());
-        //800 + (200*2) = 1200
-        cart.setTotalPrice(cartPrise +
-                (cartItem.getProductPrice() * cartItem.getQuantity()));
 
-        cartItem = cartItemRepository.save(cartItem);
+        if(available < quantity ){
+            throw new APIException("Please, make an order of the " + product.getProductName()
+                    + " less than or equal to the quantity " + available+".");
+        }
+    }
 
+    // the store only holds the logged-in user's cart; anyone else's is read from the database
+    private CartDTO fromStore(String emailId) {
+        if (cartStore == null || !emailId.equals(authUtil.loggedInEmail())) {
+            return null;
+        }
+        CartDTO cart = cartStore.view(authUtil.loggedInUserId(), emailId);
+        if (cart == null){
+            throw new ResourceNotFoundException("Cart","email",emailId);
+        }
+        return cart;
     }
 
     private Cart createCart(){
@@ -251,7 +327,6 @@ public class CartServiceImpl implements CartService{
             return  userCart;
         }
         Cart cart = new Cart();
-        cart.setTotalPrice(0.00);
         cart.setUser(authUtil.loggedInUser());
         Cart newCart = cartRepository.save(cart);
         return newCart;
@@ -1,18 +1,31 @@
 package com.ecommarce.project.service;
 
+import com.ecommarce.project.cache.CatalogCache;
+import com.ecommarce.project.cache.CatalogCounts;
+import com.ecommarce.project.cache.CategoryPageKey;
 import com.ecommarce.project.exceptions.APIException;
 import com.ecommarce.project.exceptions.ResourceNotFoundException;
+import com.ecommarce.project.facet.ProductFacetIndex;
+import com.ecommarce.project.mapper.CategoryMapper;
 import com.ecommarce.project.model.Category;
 import com.ecommarce.project.payload.CategoryDTO;
 import com.ecommarce.project.payload.CategoryResponse;
 import com.ecommarce.project.repositories.CategoryRepository;
-import org.modelmapper.ModelMapper;
+import com.ecommarce.project.search.ProductSearchIndex;
+import com.ecommarce.project.search.ProductSuggester;
+import com.ecommarce.project.util.CursorCodec;
+import com.ecommarce.project.util.NameNormalizer;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
 
@@ -23,43 +36,94 @@ public class CategoryServiceImpl implements CategoryService{
     private CategoryRepository categoryRepository;
 
     @Autowired
-    private ModelMapper modelMapper;
+    private CategoryMapper categoryMapper;
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    @Autowired
+    private CatalogCounts catalogCounts;
+
+    @Autowired
+    private CursorCodec cursorCodec;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private ProductSuggester productSuggester;
+
+    @Autowired
+    private ProductFacetIndex productFacetIndex;
+
+    // cached listings only open their read-only transaction on a miss, inside the loader
+    @Autowired
+    @Qualifier("readOnlyTransactionTemplate")
+    private TransactionTemplate readOnlyTransaction;
 
     @Override
-    public CategoryResponse getAllCategories(Integer pageNumber, Integer pageSize, String sortBy, String sortOrder) {
+    public CategoryResponse getAllCategories(Integer pageNumber, Integer pageSize, String sortBy, String sortOrder,
+                                             boolean includeTotals) {
+        return catalogCache.categories(new CategoryPageKey(pageNumber, pageSize, sortBy, sortOrder.toLowerCase(), includeTotals),
+                () -> readOnlyTransaction.execute(status ->
+                        loadCategories(pageNumber, pageSize, sortBy, sortOrder, includeTotals)));
+    }
+
+    private CategoryResponse loadCategories(Integer pageNumber, Integer pageSize, String sortBy, String sortOrder,
+                                            boolean includeTotals) {
         Sort sortByAndOrder = sortOrder.equalsIgnoreCase("asc")
                 ? Sort.by(sortBy).ascending()
                 : Sort.by(sortBy).descending();
 
         Pageable pageDetails = PageRequest.of(pageNumber, pageSize, sortByAndOrder);
-        Page<Category> categoryPage = categoryRepository.findAll(pageDetails);
+        Slice<CategoryDTO> categorySlice = categoryRepository.findDtoSliceBy(pageDetails);
 
-        List<Category> categories = categoryPage.getContent();
-        if (categories.isEmpty())
+        List<CategoryDTO> categoryDTOS = categorySlice.getContent();
+        if (categoryDTOS.isEmpty())
             throw new APIException("No category created till now.");
 
-        List<CategoryDTO> categoryDTOS = categories.stream()
-                .map(category -> modelMapper.map(category, CategoryDTO.class))
-                .toList();
-
         CategoryResponse categoryResponse = new CategoryResponse();
         categoryResponse.setContent(categoryDTOS);
-        categoryResponse.setPageNumber(categoryPage.getNumber());
-        categoryResponse.setPageSize(categoryPage.getSize());
-        categoryResponse.setTotalElements(categoryPage.getTotalElements());
-        categoryResponse.setTotalPages(categoryPage.getTotalPages());
-        categoryResponse.setLastPage(categoryPage.isLast());
+        categoryResponse.setPageNumber(categorySlice.getNumber());
+        categoryResponse.setPageSize(categorySlice.getSize());
+        if (includeTotals) {
+            long totalElements = catalogCounts.categoryCount();
+            categoryResponse.setTotalElements(totalElements);
+            categoryResponse.setTotalPages((int) ((totalElements + categorySlice.getSize() - 1) / categorySlice.getSize()));
+        }
+        categoryResponse.setLastPage(categorySlice.isLast());
+        return categoryResponse;
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public CategoryResponse scrollCategories(String after, Integer pageSize, String sortBy, String sortOrder) {
+        Sort sort = CursorCodec.keysetSort(sortBy, sortOrder, "categoryId");
+        Window<Category> window = categoryRepository.findAllBy(
+                cursorCodec.decode(after, Category.class, sort), sort, Limit.of(pageSize));
+
+        if (window.isEmpty() && after.isBlank())
+            throw new APIException("No category created till now.");
+
+        CategoryResponse categoryResponse = new CategoryResponse();
+        categoryResponse.setContent(categoryMapper.toDtos(window.getContent()));
+        categoryResponse.setPageSize(pageSize);
+        categoryResponse.setLastPage(!window.hasNext());
+        categoryResponse.setNextCursor(cursorCodec.encode(window));
         return categoryResponse;
     }
 
     @Override
     public CategoryDTO createCategory(CategoryDTO categoryDTO) {
-        Category category = modelMapper.map(categoryDTO, Category.class);
-        Category categoryFromDb = categoryRepository.findByCategoryName(category.getCategoryName());
-        if (categoryFromDb != null)
+        Category category = categoryMapper.toEntity(categoryDTO);
+        // the unique index still rejects a create that races past this check
+        if (categoryRepository.existsByNormalizedName(NameNormalizer.normalize(category.getCategoryName())))
             throw new APIException("Category with the name " + category.getCategoryName() + " already exists !!!");
         Category savedCategory = categoryRepository.save(category);
-        return modelMapper.map(savedCategory, CategoryDTO.class);
+        catalogCache.evictCategoryListing();
+        catalogCounts.categoryAdded();
+        productSuggester.categoryChanged(savedCategory.getCategoryId(), savedCategory.getCategoryName());
+        return categoryMapper.toDto(savedCategory);
     }
 
     @Override
@@ -68,7 +132,12 @@ public class CategoryServiceImpl implements CategoryService{
                 .orElseThrow(() -> new ResourceNotFoundException("Category","categoryId",categoryId));
 
         categoryRepository.delete(category);
-        return modelMapper.map(category, CategoryDTO.class);
+        catalogCache.evictCategory(categoryId);
+        catalogCounts.categoryRemoved(categoryId);
+        productSearchIndex.removeCategory(categoryId);
+        productFacetIndex.removeCategory(categoryId);
+        productSuggester.categoryRemoved(categoryId);
+        return categoryMapper.toDto(category);
     }
 
     @Override
@@ -76,9 +145,11 @@ public class CategoryServiceImpl implements CategoryService{
         Category savedCategory = categoryRepository.findById(categoryId)
                 .orElseThrow(() -> new ResourceNotFoundException("Category","categoryId",categoryId));
 
-        Category category = modelMapper.map(categoryDTO, Category.class);
+        Category category = categoryMapper.toEntity(categoryDTO);
         category.setCategoryId(categoryId);
         savedCategory = categoryRepository.save(category);
-        return modelMapper.map(savedCategory, CategoryDTO.class);
+        catalogCache.evictCategoryListing();
+        productSuggester.categoryChanged(categoryId, savedCategory.getCategoryName());
+        return categoryMapper.toDto(savedCategory);
     }
 }
@@ -0,0 +1,15 @@
+package com.ecommarce.project.service;
+
+import com.ecommarce.project.model.Product;
+
+import java.util.Map;
+
+public interface InventoryService {
+    void reserveStock(Map<Long, Integer> quantitiesByProductId);
+
+    long availableQuantity(Product product);
+
+    void syncStock(Product product);
+
+    void removeProduct(Long productId);
+}
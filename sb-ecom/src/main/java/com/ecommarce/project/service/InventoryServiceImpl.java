@@ -0,0 +1,105 @@
+package com.ecommarce.project.service;
+
+import com.ecommarce.project.exceptions.APIException;
+import com.ecommarce.project.facet.ProductFacetIndex;
+import com.ecommarce.project.inventory.InMemoryInventory;
+import com.ecommarce.project.model.Product;
+import com.ecommarce.project.repositories.ProductRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+@Service
+public class InventoryServiceImpl implements InventoryService {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    // only present when spring.app.inventory.inMemory=true
+    @Autowired(required = false)
+    private InMemoryInventory inMemoryInventory;
+
+    @Autowired
+    private ProductFacetIndex productFacetIndex;
+
+    @Transactional
+    @Override
+    public void reserveStock(Map<Long, Integer> quantitiesByProductId) {
+        SortedMap<Long, Integer> lines = new TreeMap<>(quantitiesByProductId);
+        if (inMemoryInventory != null) {
+            reserveInMemory(lines);
+            return;
+        }
+        List<Long> rejected = productRepository.reserveStock(lines);
+        if (!rejected.isEmpty()) {
+            // throwing rolls back the lines that were already decremented
+            throw new APIException("Not enough stock for product(s) " + rejected);
+        }
+        afterCommit(() -> productFacetIndex.stockReserved(lines));
+    }
+
+    @Override
+    public long availableQuantity(Product product) {
+        return inMemoryInventory != null
+                ? inMemoryInventory.available(product.getProductId())
+                : product.getQuantity();
+    }
+
+    @Override
+    public void syncStock(Product product) {
+        if (inMemoryInventory != null) {
+            inMemoryInventory.reset(product.getProductId(), product.getQuantity());
+        }
+    }
+
+    @Override
+    public void removeProduct(Long productId) {
+        if (inMemoryInventory != null) {
+            inMemoryInventory.remove(productId);
+        }
+    }
+
+    private void reserveInMemory(SortedMap<Long, Integer> lines) {
+        InMemoryInventory.Reservation reservation = inMemoryInventory.tryReserve(lines);
+        if (reservation == null) {
+            throw new APIException("Not enough stock for product(s) " + lines.keySet());
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            inMemoryInventory.commit(reservation);
+            productFacetIndex.stockReserved(lines);
+            return;
+        }
+        // the reservation only becomes a database delta once the order commits
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    inMemoryInventory.commit(reservation);
+                    productFacetIndex.stockReserved(lines);
+                } else {
+                    inMemoryInventory.release(reservation);
+                }
+            }
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
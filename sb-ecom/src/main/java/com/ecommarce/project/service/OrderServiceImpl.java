@@ -1,19 +1,22 @@
 package com.ecommarce.project.service;
 
+import com.ecommarce.project.cart.CartStore;
 import com.ecommarce.project.exceptions.APIException;
 import com.ecommarce.project.exceptions.ResourceNotFoundException;
+import com.ecommarce.project.mapper.OrderMapper;
 import com.ecommarce.project.model.*;
+import com.ecommarce.project.money.CartTotals;
 import com.ecommarce.project.payload.OrderDTO;
-import com.ecommarce.project.payload.OrderItemDTO;
 import com.ecommarce.project.repositories.*;
 import jakarta.transaction.Transactional;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class OrderServiceImpl implements OrderService{
@@ -34,23 +37,41 @@ public class OrderServiceImpl implements OrderService{
     private OrderItemRepository orderItemRepository;
 
     @Autowired
-    private ProductRepository productRepository;
+    private InventoryService inventoryService;
 
     @Autowired
-    private CartService cartService;
+    private CartItemRepository cartItemRepository;
 
     @Autowired
-    private ModelMapper modelMapper;
+    private OrderMapper orderMapper;
+
+    // only present when spring.app.cartStore.inMemory=true
+    @Autowired(required = false)
+    private CartStore cartStore;
 
     @Transactional
     @Override
     public OrderDTO placeOrder(String emailId, Long addressId, String paymentMethod, String pgName, String pgPaymentId, String pgStatus, String pgResponseMessage) {
+        //lines still waiting in the cart store go to the database first
+        if (cartStore != null) {
+            cartStore.flushForCheckout(emailId);
+        }
          //Getting user cart
-        Cart cart = cartRepository.findCartByEmail(emailId);
+        Cart cart = cartRepository.findCartWithItemsByEmail(emailId);
         if(cart == null){
             throw new ResourceNotFoundException("Cart","email",emailId);
         }
 
+        List<CartItem> cartItems = cart.getCartItems();
+        if(cartItems.isEmpty()){
+            throw new APIException("Cart is Empty");
+        }
+
+        //reserve stock first so an oversold line rejects the whole order
+        Map<Long, Integer> quantities = new HashMap<>();
+        cartItems.forEach(item -> quantities.merge(item.getProduct().getProductId(), item.getQuantity(), Integer::sum));
+        inventoryService.reserveStock(quantities);
+
         Address address = addressRepository.findById(addressId)
                 .orElseThrow(()-> new ResourceNotFoundException("Address","addressId",addressId));
 
@@ -71,11 +92,6 @@ public class OrderServiceImpl implements OrderService{
         Order savedOrder = orderRepository.save(order);
         // get items from the cart into the order items
 
-        List<CartItem> cartItems = cart.getCartItems();
-        if(cartItems.isEmpty()){
-            throw new APIException("Cart is Empty");
-        }
-
         List<OrderItem> orderItems = new ArrayList<>();
         for (CartItem cartItem : cartItems){
             OrderItem orderItem = new OrderItem();
@@ -87,25 +103,16 @@ public class OrderServiceImpl implements OrderService{
             orderItems.add(orderItem);
         }
 
+        //sequence ids let hibernate send these as one jdbc batch
        orderItems = orderItemRepository.saveAll(orderItems);
 
-        //update product stock
-        cart.getCartItems().forEach(item -> {
-            int quantity = item.getQuantity();
-            Product product = item.getProduct();
-            product.setQuantity(product.getQuantity() - quantity);
-            productRepository.save(product);
-
-            //clear the cart
-
-            cartService.deleteProductFromCart(cart.getCartId(),item.getProduct().getProductId());
-        });
+        //clear the cart
+        cartItemRepository.deleteAllByCartId(cart.getCartId());
+        CartTotals.clear(cart);
 
         //send back the order summery
-        OrderDTO orderDTO = modelMapper.map(savedOrder,OrderDTO.class);
-        orderItems.forEach(item -> orderDTO.getOrderItems()
-                .add(modelMapper.map(item, OrderItemDTO.class)));
-        orderDTO.setAddressId(addressId);
+        OrderDTO orderDTO = orderMapper.toDto(savedOrder);
+        orderDTO.setOrderItems(orderMapper.toItemDtos(orderItems));
         return orderDTO;
     }
 }
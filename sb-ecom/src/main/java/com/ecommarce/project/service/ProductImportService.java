@@ -0,0 +1,13 @@
+package com.ecommarce.project.service;
+
+import com.ecommarce.project.export.ProductExportFormat;
+import com.ecommarce.project.payload.ProductImportJobDTO;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+
+public interface ProductImportService {
+    ProductImportJobDTO startImport(MultipartFile file, ProductExportFormat format) throws IOException;
+
+    ProductImportJobDTO getImportJob(String jobId);
+}
@@ -0,0 +1,292 @@
+package com.ecommarce.project.service;
+
+import com.ecommarce.project.cache.CatalogCache;
+import com.ecommarce.project.cache.CatalogCounts;
+import com.ecommarce.project.exceptions.ResourceNotFoundException;
+import com.ecommarce.project.export.ProductExportFormat;
+import com.ecommarce.project.facet.FacetDocument;
+import com.ecommarce.project.facet.ProductFacetIndex;
+import com.ecommarce.project.importing.ProductImportJob;
+import com.ecommarce.project.importing.ProductImportReader;
+import com.ecommarce.project.importing.ProductImportRow;
+import com.ecommarce.project.model.Category;
+import com.ecommarce.project.model.Product;
+import com.ecommarce.project.payload.ProductImportJobDTO;
+import com.ecommarce.project.repositories.CategoryRepository;
+import com.ecommarce.project.repositories.ProductRepository;
+import com.ecommarce.project.search.ProductSearchIndex;
+import com.ecommarce.project.search.ProductSuggester;
+import com.ecommarce.project.search.SearchDocument;
+import com.ecommarce.project.util.NameNormalizer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+@Service
+public class ProductImportServiceImpl implements ProductImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductImportServiceImpl.class);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    @Autowired
+    private CatalogCounts catalogCounts;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private ProductFacetIndex productFacetIndex;
+
+    @Autowired
+    private ProductSuggester productSuggester;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${spring.app.import.chunkSize:500}")
+    private int chunkSize;
+
+    // imports run one at a time, off the request threads
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "product-import");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // finished jobs stay queryable for a day
+    private final Cache<String, ProductImportJob> jobs = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofDays(1))
+            .build();
+
+    @Override
+    public ProductImportJobDTO startImport(MultipartFile file, ProductExportFormat format) throws IOException {
+        // the multipart upload is gone once the request ends, so the job reads its own copy
+        Path upload = Files.createTempFile("product-import-", "." + format.extension());
+        file.transferTo(upload);
+
+        ProductImportJob job = new ProductImportJob(UUID.randomUUID().toString());
+        jobs.put(job.getJobId(), job);
+        executor.execute(() -> run(job, upload, format));
+        return job.toDto();
+    }
+
+    @Override
+    public ProductImportJobDTO getImportJob(String jobId) {
+        ProductImportJob job = jobs.getIfPresent(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException("Import job", "jobId", jobId);
+        }
+        return job.toDto();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void run(ProductImportJob job, Path upload, ProductExportFormat format) {
+        job.started();
+        try (ProductImportReader reader = new ProductImportReader(
+                Files.newBufferedReader(upload, StandardCharsets.UTF_8), format, objectMapper)) {
+            List<ProductImportRow> chunk = new ArrayList<>(chunkSize);
+            while (reader.hasNext()) {
+                chunk.add(reader.next());
+                if (chunk.size() == chunkSize) {
+                    importChunk(job, chunk);
+                    chunk.clear();
+                    // a job running longer than the expiry must not vanish from the status endpoint
+                    jobs.put(job.getJobId(), job);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(job, chunk);
+            }
+            job.completed();
+        } catch (Exception e) {
+            logger.error("Product import {} failed", job.getJobId(), e);
+            job.failed(e.getMessage());
+        } finally {
+            // the day a finished job stays queryable counts from when it finished, not when it was queued
+            jobs.put(job.getJobId(), job);
+            try {
+                Files.deleteIfExists(upload);
+            } catch (IOException e) {
+                logger.warn("Could not delete import upload {}", upload, e);
+            }
+        }
+    }
+
+    // one transaction per chunk: a set-based duplicate check per category, then batched inserts. Rejections
+    // only reach the job once their chunk has committed, so a chunk that is retried isn't counted twice.
+    private void importChunk(ProductImportJob job, List<ProductImportRow> rows) {
+        List<Rejection> rejections = new ArrayList<>();
+        List<Product> saved;
+        try {
+            saved = transactionTemplate.execute(status -> insertChunk(rows, rejections));
+        } catch (DataIntegrityViolationException e) {
+            // a product added while the chunk was saving took one of its names; find which row by row
+            rejections.clear();
+            saved = importRowByRow(rows, rejections);
+        }
+
+        rejections.forEach(rejection -> job.rejected(rejection.line(), rejection.reason()));
+        job.inserted(saved.size());
+        afterInsert(saved);
+    }
+
+    private List<Product> importRowByRow(List<ProductImportRow> rows, List<Rejection> rejections) {
+        List<Product> saved = new ArrayList<>();
+        for (ProductImportRow row : rows) {
+            try {
+                saved.addAll(transactionTemplate.execute(status -> insertChunk(List.of(row), rejections)));
+            } catch (DataIntegrityViolationException e) {
+                rejections.add(new Rejection(row.line(), "Product already exist!!"));
+            }
+        }
+        return saved;
+    }
+
+    private List<Product> insertChunk(List<ProductImportRow> rows, List<Rejection> rejections) {
+        Set<Long> categoryIds = rows.stream()
+                .map(ProductImportRow::categoryId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<Long> knownCategories = categoryIds.isEmpty()
+                ? Set.of()
+                : new HashSet<>(categoryRepository.findExistingIds(categoryIds));
+
+        Map<Long, List<ProductImportRow>> byCategory = new LinkedHashMap<>();
+        for (ProductImportRow row : rows) {
+            String error = row.error() != null ? row.error() : validate(row, knownCategories);
+            if (error != null) {
+                rejections.add(new Rejection(row.line(), error));
+            } else {
+                byCategory.computeIfAbsent(row.categoryId(), k -> new ArrayList<>()).add(row);
+            }
+        }
+
+        List<Product> products = new ArrayList<>();
+        byCategory.forEach((categoryId, categoryRows) -> {
+            Set<String> taken = new HashSet<>(productRepository.findNormalizedNamesIn(categoryId,
+                    categoryRows.stream()
+                            .map(row -> NameNormalizer.normalize(row.productName()))
+                            .collect(Collectors.toSet())));
+            Category category = entityManager.getReference(Category.class, categoryId);
+            for (ProductImportRow row : categoryRows) {
+                // add() also catches a name repeated further down the same chunk
+                if (!taken.add(NameNormalizer.normalize(row.productName()))) {
+                    rejections.add(new Rejection(row.line(), "Product already exist!!"));
+                    continue;
+                }
+                products.add(toProduct(row, category));
+            }
+        });
+
+        productRepository.saveAll(products);
+        productRepository.flush();
+        entityManager.clear();
+        return products;
+    }
+
+    private String validate(ProductImportRow row, Set<Long> knownCategories) {
+        if (row.categoryId() == null) {
+            return "categoryId is required";
+        }
+        if (!knownCategories.contains(row.categoryId())) {
+            return "Category not found with categoryId: " + row.categoryId();
+        }
+        if (row.price() == null) {
+            return "price is required";
+        }
+        Product product = toProduct(row, null);
+        Set<ConstraintViolation<Product>> violations = validator.validate(product);
+        if (!violations.isEmpty()) {
+            return violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining(", "));
+        }
+        return null;
+    }
+
+    private static Product toProduct(ProductImportRow row, Category category) {
+        Product product = new Product();
+        product.setProductName(row.productName());
+        product.setDescription(row.description());
+        product.setImage("default.png");
+        product.setQuantity(row.quantity() != null ? row.quantity() : 0);
+        product.setPrice(row.price() != null ? row.price() : 0);
+        product.setDiscount(row.discount() != null ? row.discount() : 0);
+        product.setSpecialPrice(product.getPrice() - ((product.getDiscount() * 0.01) * product.getPrice()));
+        product.setCategory(category);
+        return product;
+    }
+
+    // same bookkeeping addProduct does per product, with one cache eviction for the whole chunk
+    private void afterInsert(List<Product> products) {
+        if (products.isEmpty()) {
+            return;
+        }
+        catalogCache.evictProducts();
+        Map<Long, Integer> addedPerCategory = new HashMap<>();
+        for (Product product : products) {
+            Long categoryId = product.getCategory().getCategoryId();
+            inventoryService.syncStock(product);
+            productSearchIndex.index(SearchDocument.from(product));
+            productFacetIndex.index(FacetDocument.from(product));
+            productSuggester.productChanged(product.getProductId(), product.getProductName(), categoryId);
+            addedPerCategory.merge(categoryId, 1, Integer::sum);
+        }
+        addedPerCategory.forEach(catalogCounts::productsAdded);
+    }
+
+    private record Rejection(long line, String reason) {
+    }
+}
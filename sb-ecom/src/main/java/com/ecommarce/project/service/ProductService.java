@@ -1,19 +1,38 @@
 package com.ecommarce.project.service;
 
+import com.ecommarce.project.export.ProductExportFormat;
+import com.ecommarce.project.payload.FacetedProductResponse;
 import com.ecommarce.project.payload.ProductDTO;
 import com.ecommarce.project.payload.ProductResponse;
+import com.ecommarce.project.payload.SuggestionDTO;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.Set;
 
 public interface ProductService {
     ProductDTO addProduct(Long categoryId, ProductDTO product);
 
-    ProductResponse getAllProducts(Integer pageNumber, Integer pageSize, String sortBy, String sortOrder);
+    ProductResponse getAllProducts(Integer pageNumber, Integer pageSize, String sortBy, String sortOrder, boolean includeTotals);
 
-    ProductResponse searchByCategory(Long categoryId, Integer pageNumber, Integer pageSize, String sortBy, String sortOrder);
+    ProductResponse searchByCategory(Long categoryId, Integer pageNumber, Integer pageSize, String sortBy, String sortOrder, boolean includeTotals);
 
-    ProductResponse searchProductByKeyword(String keyword, Integer pageNumber, Integer pageSize, String sortBy, String sortOrder);
+    ProductResponse searchProductByKeyword(String keyword, Long categoryId, Double minPrice, Double maxPrice, Integer pageNumber, Integer pageSize, String sortBy, String sortOrder, boolean includeTotals);
+
+    FacetedProductResponse filterProducts(Set<Long> categoryIds, Double minPrice, Double maxPrice, Set<String> discounts, Boolean inStock, Integer pageNumber, Integer pageSize, String sortBy, String sortOrder);
+
+    ProductResponse scrollProducts(String after, Integer pageSize, String sortBy, String sortOrder);
+
+    ProductResponse scrollByCategory(Long categoryId, String after, Integer pageSize, String sortBy, String sortOrder);
+
+    ProductResponse scrollProductsByKeyword(String keyword, Long categoryId, Double minPrice, Double maxPrice,
+                                            String after, Integer pageSize, String sortBy, String sortOrder);
+
+    List<SuggestionDTO> suggest(String query, Integer limit);
+
+    StreamingResponseBody exportProducts(Long categoryId, Long afterProductId, ProductExportFormat format, boolean gzip);
 
     ProductDTO updateProduct(Long productId, ProductDTO product);
 
@@ -1,110 +1,186 @@
 package com.ecommarce.project.service;
 
+import com.ecommarce.project.cache.CatalogCache;
+import com.ecommarce.project.cache.CatalogCounts;
+import com.ecommarce.project.cache.ProductPageKey;
+import com.ecommarce.project.cart.CartProductRemover;
+import com.ecommarce.project.cart.CartStore;
+import com.ecommarce.project.cart.ProductRepricedEvent;
+import com.ecommarce.project.config.AppConstants;
 import com.ecommarce.project.exceptions.APIException;
 import com.ecommarce.project.exceptions.ResourceNotFoundException;
-import com.ecommarce.project.model.Cart;
+import com.ecommarce.project.export.ProductExportFormat;
+import com.ecommarce.project.export.ProductExporter;
+import com.ecommarce.project.facet.FacetDocument;
+import com.ecommarce.project.facet.FacetQuery;
+import com.ecommarce.project.facet.FacetResult;
+import com.ecommarce.project.facet.ProductFacetIndex;
+import com.ecommarce.project.mapper.ProductMapper;
 import com.ecommarce.project.model.Category;
 import com.ecommarce.project.model.Product;
-import com.ecommarce.project.payload.CartDTO;
+import com.ecommarce.project.money.Money;
+import com.ecommarce.project.payload.FacetedProductResponse;
 import com.ecommarce.project.payload.ProductDTO;
 import com.ecommarce.project.payload.ProductResponse;
-import com.ecommarce.project.repositories.CartRepository;
+import com.ecommarce.project.payload.SuggestionDTO;
 import com.ecommarce.project.repositories.CategoryRepository;
 import com.ecommarce.project.repositories.ProductRepository;
-import org.modelmapper.ModelMapper;
+import com.ecommarce.project.search.ProductSearchIndex;
+import com.ecommarce.project.search.ProductSuggester;
+import com.ecommarce.project.search.SearchCursor;
+import com.ecommarce.project.search.SearchDocument;
+import com.ecommarce.project.search.SearchQuery;
+import com.ecommarce.project.search.SearchResult;
+import com.ecommarce.project.util.CursorCodec;
+import com.ecommarce.project.util.NameNormalizer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.Page;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
 
 @Service
 public class ProductServiceImpl implements ProductService {
 
     @Autowired
-    private CartRepository cartRepository;
+    private ProductRepository productRepository;
 
     @Autowired
-    private CartService cartService;
+    private CategoryRepository categoryRepository;
 
     @Autowired
-    private ProductRepository productRepository;
+    private ProductMapper productMapper;
 
     @Autowired
-    private CategoryRepository categoryRepository;
+    private ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    private ModelMapper modelMapper;
+    private CartProductRemover cartProductRemover;
 
     @Autowired
     private FileService fileService;
 
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    @Autowired
+    private CatalogCounts catalogCounts;
+
+    @Autowired
+    private CursorCodec cursorCodec;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private ProductSuggester productSuggester;
+
+    @Autowired
+    private ProductFacetIndex productFacetIndex;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // cached listings only open their read-only transaction on a miss, inside the loader
+    @Autowired
+    @Qualifier("readOnlyTransactionTemplate")
+    private TransactionTemplate readOnlyTransaction;
+
+    @Autowired
+    private ProductExporter productExporter;
+
+    // only present when spring.app.cartStore.inMemory=true
+    @Autowired(required = false)
+    private CartStore cartStore;
+
     @Value("${project.image}")
     private String path;
 
+    @Value("${spring.app.keywordCountCap:1000}")
+    private int keywordCountCap;
+
     @Override
     public ProductDTO addProduct(Long categoryId, ProductDTO productDTO) {
         Category category = categoryRepository.findById(categoryId)
                 .orElseThrow(() ->
                         new ResourceNotFoundException("Category", "categoryId", categoryId));
 
-        boolean isProductNotPresent = true;
-
-        List<Product> products = category.getProducts();
-        for (Product value : products) {
-            if (value.getProductName().equals(productDTO.getProductName())) {
-                isProductNotPresent = false;
-                break;
-            }
-        }
+        // the unique index still rejects an add that races past this check
+        boolean isProductNotPresent = !productRepository.existsByCategoryCategoryIdAndNormalizedName(categoryId,
+                NameNormalizer.normalize(productDTO.getProductName()));
 
         if (isProductNotPresent) {
-            Product product = modelMapper.map(productDTO, Product.class);
+            Product product = productMapper.toEntity(productDTO);
             product.setImage("default.png");
             product.setCategory(category);
             double specialPrice = product.getPrice() -
                     ((product.getDiscount() * 0.01) * product.getPrice());
             product.setSpecialPrice(specialPrice);
             Product savedProduct = productRepository.save(product);
-            return modelMapper.map(savedProduct, ProductDTO.class);
+            inventoryService.syncStock(savedProduct);
+            catalogCache.evictProduct(categoryId, savedProduct.getProductName(), savedProduct.getDescription());
+            productSearchIndex.index(SearchDocument.from(savedProduct));
+            productFacetIndex.index(FacetDocument.from(savedProduct));
+            productSuggester.productChanged(savedProduct.getProductId(), savedProduct.getProductName(), categoryId);
+            catalogCounts.productAdded(categoryId);
+            return productMapper.toDto(savedProduct);
         } else {
             throw new APIException("Product already exist!!");
         }
     }
 
     @Override
-    public ProductResponse getAllProducts(Integer pageNumber, Integer pageSize, String sortBy, String sortOrder) {
+    public ProductResponse getAllProducts(Integer pageNumber, Integer pageSize, String sortBy, String sortOrder,
+                                          boolean includeTotals) {
+        return catalogCache.products(ProductPageKey.all(pageNumber, pageSize, sortBy, sortOrder, includeTotals),
+                () -> readOnlyTransaction.execute(status ->
+                        loadAllProducts(pageNumber, pageSize, sortBy, sortOrder, includeTotals)));
+    }
+
+    private ProductResponse loadAllProducts(Integer pageNumber, Integer pageSize, String sortBy, String sortOrder,
+                                            boolean includeTotals) {
         Sort sortByAndOrder = sortOrder.equalsIgnoreCase("asc")
                 ? Sort.by(sortBy).ascending()
                 : Sort.by(sortBy).descending();
 
         Pageable pageDetails = PageRequest.of(pageNumber, pageSize, sortByAndOrder);
-        Page<Product> pageProducts = productRepository.findAll(pageDetails);
-
-        List<Product> products = pageProducts.getContent();
+        Slice<ProductDTO> sliceProducts = productRepository.findDtoSliceBy(pageDetails);
 
-        List<ProductDTO> productDTOS = products.stream()
-                .map(product -> modelMapper.map(product, ProductDTO.class))
-                .toList();
-
-        ProductResponse productResponse = new ProductResponse();
-        productResponse.setContent(productDTOS);
-        productResponse.setPageNumber(pageProducts.getNumber());
-        productResponse.setPageSize(pageProducts.getSize());
-        productResponse.setTotalElements(pageProducts.getTotalElements());
-        productResponse.setTotalPages(pageProducts.getTotalPages());
-        productResponse.setLastPage(pageProducts.isLast());
-        return productResponse;
+        Long totalElements = includeTotals ? catalogCounts.productCount() : null;
+        return toPageResponse(sliceProducts, totalElements);
     }
 
     @Override
-    public ProductResponse searchByCategory(Long categoryId, Integer pageNumber, Integer pageSize, String sortBy, String sortOrder) {
+    public ProductResponse searchByCategory(Long categoryId, Integer pageNumber, Integer pageSize, String sortBy, String sortOrder,
+                                            boolean includeTotals) {
+        return catalogCache.products(ProductPageKey.category(categoryId, pageNumber, pageSize, sortBy, sortOrder, includeTotals),
+                () -> readOnlyTransaction.execute(status ->
+                        loadByCategory(categoryId, pageNumber, pageSize, sortBy, sortOrder, includeTotals)));
+    }
+
+    private ProductResponse loadByCategory(Long categoryId, Integer pageNumber, Integer pageSize, String sortBy, String sortOrder,
+                                           boolean includeTotals) {
         Category category = categoryRepository.findById(categoryId)
                 .orElseThrow(() ->
                         new ResourceNotFoundException("Category", "categoryId", categoryId));
@@ -114,62 +190,231 @@ public class ProductServiceImpl implements ProductService {
                 : Sort.by(sortBy).descending();
 
         Pageable pageDetails = PageRequest.of(pageNumber, pageSize, sortByAndOrder);
-        Page<Product> pageProducts = productRepository.findByCategoryOrderByPriceAsc(category, pageDetails);
-
-        List<Product> products = pageProducts.getContent();
+        Slice<ProductDTO> sliceProducts = productRepository.findDtoSliceByCategoryId(categoryId, pageDetails);
 
-        if(products.isEmpty()){
+        if(sliceProducts.getContent().isEmpty()){
             throw new APIException(category.getCategoryName() + " category does not have any products");
         }
 
-        List<ProductDTO> productDTOS = products.stream()
-                .map(product -> modelMapper.map(product, ProductDTO.class))
+        Long totalElements = includeTotals ? catalogCounts.productCount(category) : null;
+        return toPageResponse(sliceProducts, totalElements);
+    }
+
+    @Override
+    public ProductResponse searchProductByKeyword(String keyword, Long categoryId, Double minPrice, Double maxPrice,
+                                                  Integer pageNumber, Integer pageSize, String sortBy, String sortOrder,
+                                                  boolean includeTotals) {
+        ProductPageKey key = ProductPageKey.keyword(keyword, categoryId, minPrice, maxPrice,
+                pageNumber, pageSize, sortBy, sortOrder, includeTotals);
+        return catalogCache.products(key, () -> readOnlyTransaction.execute(status ->
+                ProductSearchIndex.supportsSort(sortBy)
+                        ? searchIndex(keyword, categoryId, minPrice, maxPrice, pageNumber, pageSize, sortBy, sortOrder, includeTotals)
+                        : loadByKeyword(keyword, categoryId, minPrice, maxPrice, pageNumber, pageSize, sortBy, sortOrder, includeTotals)));
+    }
+
+    private ProductResponse searchIndex(String keyword, Long categoryId, Double minPrice, Double maxPrice,
+                                        Integer pageNumber, Integer pageSize, String sortBy, String sortOrder,
+                                        boolean includeTotals) {
+        SearchResult result = productSearchIndex.search(new SearchQuery(keyword, categoryId, minPrice, maxPrice, sortBy,
+                sortOrder.equalsIgnoreCase("asc"), pageNumber * pageSize, pageSize));
+
+        if(result.totalHits() == 0){
+            throw new APIException("Products not found with keyword: " + keyword);
+        }
+
+        return toPageResponse(result.productIds(), result.totalHits(), pageNumber, pageSize, includeTotals);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public FacetedProductResponse filterProducts(Set<Long> categoryIds, Double minPrice, Double maxPrice,
+                                                 Set<String> discounts, Boolean inStock, Integer pageNumber,
+                                                 Integer pageSize, String sortBy, String sortOrder) {
+        if (!ProductFacetIndex.supportsSort(sortBy)) {
+            throw new APIException("Products can't be filtered and sorted by " + sortBy);
+        }
+        if (discounts != null && !ProductFacetIndex.DISCOUNT_BUCKETS.containsAll(discounts)) {
+            throw new APIException("Discount must be one of " + ProductFacetIndex.DISCOUNT_BUCKETS);
+        }
+        FacetResult result = productFacetIndex.search(new FacetQuery(categoryIds, minPrice, maxPrice, discounts, inStock,
+                sortBy, sortOrder.equalsIgnoreCase("asc"), pageNumber * pageSize, pageSize));
+        ProductResponse productResponse = toPageResponse(result.productIds(), result.totalHits(), pageNumber, pageSize, true);
+        return new FacetedProductResponse(productResponse, result.facets());
+    }
+
+    // the indexes only select and order ids; the page itself is read from the database in that order
+    private ProductResponse toPageResponse(List<Long> productIds, int totalHits, Integer pageNumber, Integer pageSize,
+                                           boolean includeTotals) {
+        Map<Long, ProductDTO> productsById = new HashMap<>();
+        productRepository.findDtosByProductIdIn(productIds)
+                .forEach(product -> productsById.put(product.getProductId(), product));
+        List<ProductDTO> products = productIds.stream()
+                .map(productsById::get)
+                .filter(Objects::nonNull)
                 .toList();
 
         ProductResponse productResponse = new ProductResponse();
-        productResponse.setContent(productDTOS);
-        productResponse.setPageNumber(pageProducts.getNumber());
-        productResponse.setPageSize(pageProducts.getSize());
-        productResponse.setTotalElements(pageProducts.getTotalElements());
-        productResponse.setTotalPages(pageProducts.getTotalPages());
-        productResponse.setLastPage(pageProducts.isLast());
+        productResponse.setContent(products);
+        productResponse.setPageNumber(pageNumber);
+        productResponse.setPageSize(pageSize);
+        if (includeTotals) {
+            productResponse.setTotalElements((long) totalHits);
+            productResponse.setTotalPages((totalHits + pageSize - 1) / pageSize);
+        }
+        productResponse.setLastPage((long) (pageNumber + 1) * pageSize >= totalHits);
         return productResponse;
     }
 
-    @Override
-    public ProductResponse searchProductByKeyword(String keyword, Integer pageNumber, Integer pageSize, String sortBy, String sortOrder) {
+    // sorts the index can't serve fall back to the name LIKE query
+    private ProductResponse loadByKeyword(String keyword, Long categoryId, Double minPrice, Double maxPrice,
+                                          Integer pageNumber, Integer pageSize, String sortBy, String sortOrder,
+                                          boolean includeTotals) {
+        if (categoryId != null || minPrice != null || maxPrice != null) {
+            throw new APIException("Search filters can't be combined with sortBy " + sortBy);
+        }
+
         Sort sortByAndOrder = sortOrder.equalsIgnoreCase("asc")
                 ? Sort.by(sortBy).ascending()
                 : Sort.by(sortBy).descending();
 
         Pageable pageDetails = PageRequest.of(pageNumber, pageSize, sortByAndOrder);
-        Page<Product> pageProducts = productRepository.findByProductNameLikeIgnoreCase('%' + keyword + '%', pageDetails);
+        String pattern = '%' + keyword + '%';
+        Slice<ProductDTO> sliceProducts = productRepository.findDtoSliceByProductNameLikeIgnoreCase(pattern, pageDetails);
 
-        List<Product> products = pageProducts.getContent();
-        List<ProductDTO> productDTOS = products.stream()
-                .map(product -> modelMapper.map(product, ProductDTO.class))
-                .toList();
+        if(sliceProducts.getContent().isEmpty()){
+            throw new APIException("Products not found with keyword: " + keyword);
+        }
+
+        if (!includeTotals) {
+            return toPageResponse(sliceProducts, null);
+        }
+        if (sliceProducts.isLast()) {
+            // the last page already tells us the exact total
+            return toPageResponse(sliceProducts, pageDetails.getOffset() + sliceProducts.getNumberOfElements());
+        }
+        long matches = productRepository.countByNameLikeCapped(pattern, keywordCountCap);
+        boolean capped = matches >= keywordCountCap;
+        if (capped) {
+            // a page past the cap still proves everything up to it exists, plus at least one more match
+            matches = Math.max(matches, pageDetails.getOffset() + sliceProducts.getNumberOfElements() + 1);
+        }
+        ProductResponse productResponse = toPageResponse(sliceProducts, matches);
+        productResponse.setTotalsCapped(capped);
+        return productResponse;
+    }
+
+    private ProductResponse toPageResponse(Slice<ProductDTO> sliceProducts, Long totalElements) {
+        ProductResponse productResponse = new ProductResponse();
+        productResponse.setContent(sliceProducts.getContent());
+        productResponse.setPageNumber(sliceProducts.getNumber());
+        productResponse.setPageSize(sliceProducts.getSize());
+        if (totalElements != null) {
+            productResponse.setTotalElements(totalElements);
+            productResponse.setTotalPages((int) ((totalElements + sliceProducts.getSize() - 1) / sliceProducts.getSize()));
+        }
+        productResponse.setLastPage(sliceProducts.isLast());
+        return productResponse;
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public ProductResponse scrollProducts(String after, Integer pageSize, String sortBy, String sortOrder) {
+        Sort sort = CursorCodec.keysetSort(sortBy, sortOrder, "productId");
+        Window<Product> window = productRepository.findAllBy(
+                cursorCodec.decode(after, Product.class, sort), sort, Limit.of(pageSize));
+        return toScrollResponse(window, pageSize);
+    }
 
-        if(products.isEmpty()){
+    @Transactional(readOnly = true)
+    @Override
+    public ProductResponse scrollByCategory(Long categoryId, String after, Integer pageSize, String sortBy, String sortOrder) {
+        Category category = categoryRepository.findById(categoryId)
+                .orElseThrow(() ->
+                        new ResourceNotFoundException("Category", "categoryId", categoryId));
+
+        // the offset pages list a category cheapest first and only then by sortBy; cursors keep that order
+        Sort sort = "price".equals(sortBy)
+                ? CursorCodec.keysetSort("price", "asc", "productId")
+                : Sort.by("price").ascending().and(CursorCodec.keysetSort(sortBy, sortOrder, "productId"));
+        Window<Product> window = productRepository.findByCategory(category,
+                cursorCodec.decode(after, Product.class, sort), sort, Limit.of(pageSize));
+
+        if(window.isEmpty() && after.isBlank()){
+            throw new APIException(category.getCategoryName() + " category does not have any products");
+        }
+        return toScrollResponse(window, pageSize);
+    }
+
+    // served from the search index like the offset pages, with the same matching and filters; a cursor
+    // holds the last hit's sort keys. Relevance moves as products are indexed, so it is walked by id here.
+    @Transactional(readOnly = true)
+    @Override
+    public ProductResponse scrollProductsByKeyword(String keyword, Long categoryId, Double minPrice, Double maxPrice,
+                                                   String after, Integer pageSize, String sortBy, String sortOrder) {
+        String keysetSortBy = AppConstants.SORT_SEARCH_BY.equals(sortBy) ? AppConstants.SORT_PRODUCTS_BY : sortBy;
+        if (!ProductSearchIndex.supportsSort(keysetSortBy)) {
+            throw new APIException("Search results can't be scrolled by " + sortBy);
+        }
+        SearchCursor cursor = cursorCodec.decodeSearch(after, keysetSortBy);
+        SearchResult result = productSearchIndex.search(new SearchQuery(keyword, categoryId, minPrice, maxPrice,
+                keysetSortBy, sortOrder.equalsIgnoreCase("asc"), 0, pageSize, cursor));
+
+        if(result.totalHits() == 0 && cursor == null){
             throw new APIException("Products not found with keyword: " + keyword);
         }
+        boolean lastPage = result.totalHits() <= pageSize;
+        ProductResponse productResponse = toPageResponse(result.productIds(), result.totalHits(), 0, pageSize, false);
+        productResponse.setPageNumber(null);
+        productResponse.setLastPage(lastPage);
+        productResponse.setNextCursor(lastPage ? null : cursorCodec.encodeSearch(result.last()));
+        return productResponse;
+    }
 
+    // keyset pages carry no totals, so there is no count query behind them
+    private ProductResponse toScrollResponse(Window<Product> window, Integer pageSize) {
         ProductResponse productResponse = new ProductResponse();
-        productResponse.setContent(productDTOS);
-        productResponse.setPageNumber(pageProducts.getNumber());
-        productResponse.setPageSize(pageProducts.getSize());
-        productResponse.setTotalElements(pageProducts.getTotalElements());
-        productResponse.setTotalPages(pageProducts.getTotalPages());
-        productResponse.setLastPage(pageProducts.isLast());
+        productResponse.setContent(productMapper.toDtos(window.getContent()));
+        productResponse.setPageSize(pageSize);
+        productResponse.setLastPage(!window.hasNext());
+        productResponse.setNextCursor(cursorCodec.encode(window));
         return productResponse;
     }
 
+    @Override
+    public List<SuggestionDTO> suggest(String query, Integer limit) {
+        return productSuggester.suggest(query, limit).stream()
+                .map(s -> new SuggestionDTO(s.text(), s.type(), s.id(), s.categoryId()))
+                .toList();
+    }
+
+    @Override
+    public StreamingResponseBody exportProducts(Long categoryId, Long afterProductId, ProductExportFormat format,
+                                                boolean gzip) {
+        // checked up front, once the body starts streaming the status is already sent
+        if (categoryId != null && !categoryRepository.existsById(categoryId)) {
+            throw new ResourceNotFoundException("Category", "categoryId", categoryId);
+        }
+        long after = afterProductId != null ? afterProductId : 0L;
+        return out -> {
+            if (!gzip) {
+                productExporter.export(categoryId, after, format, out);
+                return;
+            }
+            GZIPOutputStream gzipOut = new GZIPOutputStream(out, 8192, true);
+            productExporter.export(categoryId, after, format, gzipOut);
+            gzipOut.finish();
+        };
+    }
+
     @Override
     public ProductDTO updateProduct(Long productId, ProductDTO productDTO) {
         Product productFromDb = productRepository.findById(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "productId", productId));
 
-        Product product = modelMapper.map(productDTO, Product.class);
+        Product product = productMapper.toEntity(productDTO);
+        String previousName = productFromDb.getProductName();
+        String previousDescription = productFromDb.getDescription();
+        long previousPriceMinor = Money.fromMajor(productFromDb.getSpecialPrice());
 
         productFromDb.setProductName(product.getProductName());
         productFromDb.setDescription(product.getDescription());
@@ -179,21 +424,25 @@ public class ProductServiceImpl implements ProductService {
         productFromDb.setSpecialPrice(product.getSpecialPrice());
 
         Product savedProduct = productRepository.save(productFromDb);
+        inventoryService.syncStock(savedProduct);
+        catalogCache.evictProduct(categoryIdOf(savedProduct), previousName, previousDescription,
+                savedProduct.getProductName(), savedProduct.getDescription());
+        productSearchIndex.index(SearchDocument.from(savedProduct));
+        productFacetIndex.index(FacetDocument.from(savedProduct));
+        if (!Objects.equals(previousName, savedProduct.getProductName())) {
+            productSuggester.productChanged(productId, savedProduct.getProductName(), categoryIdOf(savedProduct));
+        }
 
-        List<Cart> carts = cartRepository.findCartsByProductId(productId);
-
-        List<CartDTO> cartDTOs = carts.stream().map(cart ->{
-            CartDTO cartDTO = modelMapper.map(cart,CartDTO.class);
-            List<ProductDTO> products = cart.getCartItems().stream()
-                    .map(p->modelMapper.map(p.getProduct(),ProductDTO.class))
-                    .toList();
-            cartDTO.setProducts(products);
-            return cartDTO;
-        }).toList();
-
-        cartDTOs.forEach(cart -> cartService.updateProductInCart(cart.getCartId(),productId));
+        if (cartStore != null) {
+            cartStore.productRepriced(productMapper.toDto(savedProduct));
+        }
+        // carts in the database are repriced in the background by CartRepricer
+        long priceMinor = Money.fromMajor(savedProduct.getSpecialPrice());
+        if (priceMinor != previousPriceMinor) {
+            eventPublisher.publishEvent(new ProductRepricedEvent(productId, priceMinor));
+        }
 
-        return modelMapper.map(savedProduct, ProductDTO.class);
+        return productMapper.toDto(savedProduct);
     }
 
     @Override
@@ -202,11 +451,27 @@ public class ProductServiceImpl implements ProductService {
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "productId", productId));
 
         //Delete
-        List<Cart> carts = cartRepository.findCartsByProductId(productId);
-        carts.forEach(cart -> cartService.deleteProductFromCart(cart.getCartId(),productId));
-
-        productRepository.delete(product);
-        return modelMapper.map(product, ProductDTO.class);
+        if (cartStore != null) {
+            cartStore.productRemoved(productId);
+        }
+        cartProductRemover.removeProduct(productId);
+        // a line added since the chunked pass would fail the delete on its foreign key, so the last cleanup
+        // runs with the product row locked, in the delete's own transaction
+        transactionTemplate.executeWithoutResult(status -> {
+            Product locked = productRepository.findAndLockById(productId);
+            if (locked == null) {
+                throw new ResourceNotFoundException("Product", "productId", productId);
+            }
+            cartProductRemover.removeRemainingLines(productId);
+            productRepository.delete(locked);
+        });
+        inventoryService.removeProduct(productId);
+        catalogCache.evictProduct(categoryIdOf(product), product.getProductName(), product.getDescription());
+        productSearchIndex.remove(productId);
+        productFacetIndex.remove(productId);
+        productSuggester.productRemoved(productId);
+        catalogCounts.productRemoved(categoryIdOf(product));
+        return productMapper.toDto(product);
     }
 
     @Override
@@ -215,10 +480,16 @@ public class ProductServiceImpl implements ProductService {
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "productId", productId));
 
         String fileName = fileService.uploadImage(path, image);
+        productRepository.updateImage(productId, fileName);
         productFromDb.setImage(fileName);
 
-        Product updatedProduct = productRepository.save(productFromDb);
-        return modelMapper.map(updatedProduct, ProductDTO.class);
+        catalogCache.evictProduct(categoryIdOf(productFromDb), productFromDb.getProductName(),
+                productFromDb.getDescription());
+        return productMapper.toDto(productFromDb);
+    }
+
+    private Long categoryIdOf(Product product) {
+        return product.getCategory() != null ? product.getCategory().getCategoryId() : null;
     }
 
 
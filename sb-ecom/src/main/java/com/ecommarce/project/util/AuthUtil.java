@@ -2,6 +2,7 @@ package com.ecommarce.project.util;
 
 import com.ecommarce.project.model.User;
 import com.ecommarce.project.repositories.UserRepository;
+import com.ecommarce.project.security.services.UserDetailsImpl;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -14,25 +15,38 @@ public class AuthUtil {
     @Autowired
     UserRepository userRepository;
 
+    @Autowired
+    CurrentUserContext currentUserContext;
+
     public String loggedInEmail(){
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        User user = userRepository.findByUserName(authentication.getName())
-                .orElseThrow(()->new UsernameNotFoundException("User Not Found With Username: "+authentication.getName()));
-        return user.getEmail();
+        UserDetailsImpl principal = principal();
+        return principal != null ? principal.getEmail() : loggedInUser().getEmail();
     }
 
     public Long loggedInUserId(){
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        User user = userRepository.findByUserName(authentication.getName())
-                .orElseThrow(()->new UsernameNotFoundException("User Not Found With Username: "+authentication.getName()));
-        return user.getUserId();
+        UserDetailsImpl principal = principal();
+        return principal != null ? principal.getId() : loggedInUser().getUserId();
     }
 
     public User loggedInUser(){
+        if (currentUserContext.getUser() != null) {
+            return currentUserContext.getUser();
+        }
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         User user = userRepository.findByUserName(authentication.getName())
                 .orElseThrow(()->new UsernameNotFoundException("User Not Found With Username: "+authentication.getName()));
+        currentUserContext.setUser(user);
         return user;
     }
 
+    private UserDetailsImpl principal(){
+        if (currentUserContext.getPrincipal() == null) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null && authentication.getPrincipal() instanceof UserDetailsImpl userDetails) {
+                currentUserContext.setPrincipal(userDetails);
+            }
+        }
+        return currentUserContext.getPrincipal();
+    }
+
 }
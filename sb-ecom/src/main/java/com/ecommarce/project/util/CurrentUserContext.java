@@ -0,0 +1,17 @@
+package com.ecommarce.project.util;
+
+import com.ecommarce.project.model.User;
+import com.ecommarce.project.security.services.UserDetailsImpl;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+@Component
+@RequestScope
+@Getter
+@Setter
+public class CurrentUserContext {
+    private UserDetailsImpl principal;
+    private User user;
+}
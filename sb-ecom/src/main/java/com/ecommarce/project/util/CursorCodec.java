@@ -0,0 +1,116 @@
+package com.ecommarce.project.util;
+
+import com.ecommarce.project.exceptions.APIException;
+import com.ecommarce.project.search.SearchCursor;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.metamodel.ManagedType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// opaque "after" cursors for keyset paging: base64url json of the sort keys of the last row
+@Component
+public class CursorCodec {
+
+    private static final TypeReference<LinkedHashMap<String, Object>> KEYS = new TypeReference<>() {};
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    public KeysetScrollPosition decode(String after, Class<?> entityType, Sort sort) {
+        if (after == null || after.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        Map<String, Object> keys;
+        try {
+            byte[] json = Base64.getUrlDecoder().decode(after);
+            keys = objectMapper.readValue(json, KEYS);
+        } catch (Exception e) {
+            throw new APIException("Invalid cursor");
+        }
+
+        // a cursor is only valid for the sort it was issued for
+        Set<String> expected = sort.stream().map(Sort.Order::getProperty).collect(Collectors.toSet());
+        if (!keys.keySet().equals(expected)) {
+            throw new APIException("Cursor does not match the requested sort");
+        }
+
+        // json loses the exact number types, bring them back from the entity attributes
+        ManagedType<?> type = entityManager.getMetamodel().managedType(entityType);
+        Map<String, Object> typedKeys = new LinkedHashMap<>();
+        keys.forEach((property, value) -> {
+            try {
+                Class<?> javaType = ClassUtils.resolvePrimitiveIfNecessary(type.getAttribute(property).getJavaType());
+                typedKeys.put(property, objectMapper.convertValue(value, javaType));
+            } catch (IllegalArgumentException e) {
+                throw new APIException("Invalid cursor");
+            }
+        });
+        return ScrollPosition.forward(typedKeys);
+    }
+
+    public String encode(Window<?> window) {
+        if (window.isEmpty() || !window.hasNext()) {
+            return null;
+        }
+        KeysetScrollPosition position = (KeysetScrollPosition) window.positionAt(window.size() - 1);
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(position.getKeys());
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(json);
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not encode cursor", e);
+        }
+    }
+
+    // cursors over the search index carry the last hit's sort keys the same way
+    public SearchCursor decodeSearch(String after, String sortBy) {
+        if (after == null || after.isBlank()) {
+            return null;
+        }
+        SearchCursor cursor;
+        try {
+            cursor = objectMapper.readValue(Base64.getUrlDecoder().decode(after), SearchCursor.class);
+        } catch (Exception e) {
+            throw new APIException("Invalid cursor");
+        }
+        if (!sortBy.equals(cursor.sortBy())) {
+            throw new APIException("Cursor does not match the requested sort");
+        }
+        return cursor;
+    }
+
+    public String encodeSearch(SearchCursor cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(objectMapper.writeValueAsBytes(cursor));
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not encode cursor", e);
+        }
+    }
+
+    public static Sort keysetSort(String sortBy, String sortOrder, String idProperty) {
+        Sort sort = sortOrder.equalsIgnoreCase("asc")
+                ? Sort.by(sortBy).ascending()
+                : Sort.by(sortBy).descending();
+        // the id breaks ties so every row has a unique position
+        return sortBy.equals(idProperty) ? sort : sort.and(Sort.by(idProperty).ascending());
+    }
+}
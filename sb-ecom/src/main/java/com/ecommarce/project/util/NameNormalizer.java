@@ -0,0 +1,14 @@
+package com.ecommarce.project.util;
+
+import java.util.Locale;
+
+// the form product and category names are compared in: "Phone ", "phone" and "PHONE" are the same name
+public final class NameNormalizer {
+
+    private NameNormalizer() {
+    }
+
+    public static String normalize(String name) {
+        return name != null ? name.trim().toLowerCase(Locale.ROOT) : null;
+    }
+}
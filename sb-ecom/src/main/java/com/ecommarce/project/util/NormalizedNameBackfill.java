@@ -0,0 +1,53 @@
+package com.ecommarce.project.util;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Products and categories stored before normalized_name existed have it NULL (or '' where the database filled
+// the new NOT NULL column), which neither the duplicate checks nor the unique constraints see. They are filled
+// in once the schema is updated. A legacy row that normalizes to a name already taken keeps the gap and is
+// logged on every start until someone renames it; picking which of the two to rename isn't ours to guess.
+@Component
+@DependsOn("entityManagerFactory")
+public class NormalizedNameBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(NormalizedNameBackfill.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void backfill() {
+        backfill("products", "product_id", "product_name");
+        backfill("categories", "category_id", "category_name");
+    }
+
+    private void backfill(String table, String idColumn, String nameColumn) {
+        List<Object[]> rows = new ArrayList<>();
+        jdbcTemplate.query("SELECT " + idColumn + ", " + nameColumn + " FROM " + table
+                + " WHERE normalized_name IS NULL OR normalized_name = ''", rs -> {
+            rows.add(new Object[]{NameNormalizer.normalize(rs.getString(2)), rs.getLong(1)});
+        });
+        int filled = 0;
+        for (Object[] row : rows) {
+            try {
+                filled += jdbcTemplate.update("UPDATE " + table + " SET normalized_name = ? WHERE " + idColumn + " = ?",
+                        row);
+            } catch (DataIntegrityViolationException e) {
+                logger.warn("{} {} is named like another row and needs renaming: {}", table, row[1], row[0]);
+            }
+        }
+        if (filled > 0) {
+            logger.info("Filled normalized_name for {} rows of {}", filled, table);
+        }
+    }
+}
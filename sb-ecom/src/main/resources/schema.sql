@@ -0,0 +1,4 @@
+-- tables the JPA model doesn't map; runs on every start (spring.sql.init.mode=always), so only idempotent DDL here
+
+-- one row: the id the cart store's journal is bound to (see CartStore.databaseId)
+CREATE TABLE IF NOT EXISTS cart_journal_database (database_id VARCHAR(36) NOT NULL);
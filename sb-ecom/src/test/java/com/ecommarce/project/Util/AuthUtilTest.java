@@ -1,8 +1,79 @@
 package com.ecommarce.project.Util;
 
+import com.ecommarce.project.metrics.QueryBudget;
+import com.ecommarce.project.metrics.QueryStats;
+import com.ecommarce.project.model.User;
+import com.ecommarce.project.repositories.UserRepository;
+import com.ecommarce.project.security.services.UserDetailsImpl;
+import com.ecommarce.project.util.AuthUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
 public class AuthUtilTest {
 
+    @Autowired
+    private AuthUtil authUtil;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        String name = "auth" + UUID.randomUUID().toString().substring(0, 8);
+        user = userRepository.save(new User(name, name + "@example.com", "password"));
+        // the context is request scoped; each test stands in for one request
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void emailAndIdComeFromThePrincipalWithoutQueries() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new UserDetailsImpl(user.getUserId(), user.getUserName(), user.getEmail(), "password", List.of()),
+                null, List.of()));
+
+        QueryBudget.assertStatementsAtMost(0, () -> {
+            assertEquals(user.getEmail(), authUtil.loggedInEmail());
+            assertEquals(user.getUserId(), authUtil.loggedInUserId());
+            authUtil.loggedInEmail();
+        });
+    }
 
+    @Test
+    void userEntityIsLoadedOncePerRequest() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user.getUserName(), null, List.of()));
+        // the user's eager associations make the cost of one load mapping-dependent, so measure it first
+        int oneLoad = QueryBudget.assertStatementsAtMost(Integer.MAX_VALUE, authUtil::loggedInUser).getStatements();
 
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        QueryStats stats = QueryBudget.assertStatementsAtMost(oneLoad, () -> {
+            authUtil.loggedInUser();
+            authUtil.loggedInEmail();
+            authUtil.loggedInUserId();
+            authUtil.loggedInUser();
+        });
+        assertEquals(oneLoad, stats.getStatements());
+    }
 }
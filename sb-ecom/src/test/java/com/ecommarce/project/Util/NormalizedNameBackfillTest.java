@@ -0,0 +1,37 @@
+package com.ecommarce.project.Util;
+
+import com.ecommarce.project.util.NormalizedNameBackfill;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class NormalizedNameBackfillTest {
+
+    @Test
+    void fillsLegacyRowsAndLeavesClashingOnesForRenaming() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(
+                new DriverManagerDataSource("jdbc:h2:mem:name-backfill;DB_CLOSE_DELAY=-1"));
+        jdbcTemplate.execute("CREATE TABLE products (product_id BIGINT, category_id BIGINT, product_name VARCHAR(255), "
+                + "normalized_name VARCHAR(255), UNIQUE (category_id, normalized_name))");
+        jdbcTemplate.execute("CREATE TABLE categories (category_id BIGINT, category_name VARCHAR(255), "
+                + "normalized_name VARCHAR(255) UNIQUE)");
+        jdbcTemplate.update("INSERT INTO products VALUES (1, 10, 'Desk Lamp', 'desk lamp'), (2, 10, 'DESK LAMP ', NULL), "
+                + "(3, 10, 'Floor Lamp', NULL)");
+        jdbcTemplate.update("INSERT INTO categories VALUES (10, ' Lighting', '')");
+        NormalizedNameBackfill backfill = new NormalizedNameBackfill();
+        ReflectionTestUtils.setField(backfill, "jdbcTemplate", jdbcTemplate);
+
+        backfill.backfill();
+
+        assertEquals(List.of("desk lamp", "floor lamp"), jdbcTemplate.queryForList(
+                "SELECT normalized_name FROM products WHERE normalized_name IS NOT NULL ORDER BY product_id", String.class));
+        assertEquals("lighting", jdbcTemplate.queryForObject("SELECT normalized_name FROM categories", String.class));
+        jdbcTemplate.execute("DROP TABLE products");
+        jdbcTemplate.execute("DROP TABLE categories");
+    }
+}
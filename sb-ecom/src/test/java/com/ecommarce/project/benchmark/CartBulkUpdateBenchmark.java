@@ -0,0 +1,147 @@
+package com.ecommarce.project.benchmark;
+
+import com.ecommarce.project.SbEcomApplication;
+import com.ecommarce.project.model.Cart;
+import com.ecommarce.project.model.CartItem;
+import com.ecommarce.project.model.Category;
+import com.ecommarce.project.model.Product;
+import com.ecommarce.project.model.User;
+import com.ecommarce.project.money.CartTotals;
+import com.ecommarce.project.money.Money;
+import com.ecommarce.project.payload.CartDTO;
+import com.ecommarce.project.payload.CartLineQuantityDTO;
+import com.ecommarce.project.repositories.CartRepository;
+import com.ecommarce.project.repositories.CategoryRepository;
+import com.ecommarce.project.repositories.ProductRepository;
+import com.ecommarce.project.repositories.UserRepository;
+import com.ecommarce.project.service.CartService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Changing the quantity of every line of a cart: one PUT /cart/products/quantities (one product select, one
+// transaction, batched line updates) against the frontend's one-unit steps, each a full
+// updateProductQuantityInCart round trip returning the whole cart.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CartBulkUpdateBenchmark {
+
+    private static final String USER_NAME = "benchmark";
+
+    @Param({"5", "20"})
+    private int lines;
+
+    private ConfigurableApplicationContext context;
+
+    private CartService cartService;
+
+    private List<Long> productIds;
+
+    private UsernamePasswordAuthenticationToken authentication;
+
+    private boolean up;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(SbEcomApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:cart-bulk-" + lines,
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework=WARN",
+                "--logging.level.org.hibernate.SQL=WARN");
+        cartService = context.getBean(CartService.class);
+        authentication = new UsernamePasswordAuthenticationToken(USER_NAME, null, List.of());
+        productIds = context.getBean(TransactionTemplate.class).execute(status -> seed());
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    // every line one unit up, then one unit down on the next call, so the cart doesn't grow
+    @Benchmark
+    public CartDTO singleSteps() {
+        up = !up;
+        CartDTO cart = null;
+        for (Long productId : productIds) {
+            asUser();
+            cart = cartService.updateProductQuantityInCart(productId, up ? 1 : -1);
+        }
+        return cart;
+    }
+
+    @Benchmark
+    public CartDTO bulk() {
+        up = !up;
+        List<CartLineQuantityDTO> quantities = new ArrayList<>(productIds.size());
+        for (Long productId : productIds) {
+            quantities.add(new CartLineQuantityDTO(productId, up ? 2 : 1));
+        }
+        asUser();
+        return cartService.setProductQuantitiesInCart(quantities);
+    }
+
+    // auth lookups are request scoped; each call stands in for its own request
+    private void asUser() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
+
+    private List<Long> seed() {
+        User user = context.getBean(UserRepository.class)
+                .save(new User(USER_NAME, USER_NAME + "@example.com", "password"));
+        Category category = new Category();
+        category.setCategoryName("Benchmark Category");
+        category = context.getBean(CategoryRepository.class).save(category);
+
+        List<Product> products = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            Product product = new Product();
+            product.setProductName("Benchmark Product " + i);
+            product.setDescription("Benchmark product description");
+            product.setQuantity(1_000_000);
+            product.setPrice(10 + i);
+            product.setSpecialPrice(10 + i);
+            product.setCategory(category);
+            products.add(product);
+        }
+        products = context.getBean(ProductRepository.class).saveAll(products);
+
+        Cart cart = new Cart();
+        cart.setUser(user);
+        for (Product product : products) {
+            CartItem cartItem = new CartItem();
+            cartItem.setCart(cart);
+            cartItem.setProduct(product);
+            CartTotals.addLine(cart, cartItem, Money.fromMajor(product.getSpecialPrice()), 1);
+            cart.getCartItems().add(cartItem);
+        }
+        context.getBean(CartRepository.class).save(cart);
+        return products.stream().map(Product::getProductId).toList();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CartBulkUpdateBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
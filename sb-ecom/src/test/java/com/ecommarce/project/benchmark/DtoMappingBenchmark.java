@@ -0,0 +1,149 @@
+package com.ecommarce.project.benchmark;
+
+import com.ecommarce.project.mapper.CartMapper;
+import com.ecommarce.project.mapper.CartMapperImpl;
+import com.ecommarce.project.mapper.OrderMapper;
+import com.ecommarce.project.mapper.OrderMapperImpl;
+import com.ecommarce.project.mapper.ProductMapper;
+import com.ecommarce.project.mapper.ProductMapperImpl;
+import com.ecommarce.project.model.*;
+import com.ecommarce.project.payload.CartDTO;
+import com.ecommarce.project.payload.OrderDTO;
+import com.ecommarce.project.payload.OrderItemDTO;
+import com.ecommarce.project.payload.ProductDTO;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.ecommarce.project.benchmark.DtoMappingBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoMappingBenchmark {
+
+    private static final int LINES = 10;
+
+    private ModelMapper modelMapper;
+
+    private ProductMapper productMapper;
+
+    private CartMapper cartMapper;
+
+    private OrderMapper orderMapper;
+
+    private Product product;
+
+    private Cart cart;
+
+    private Order order;
+
+    @Setup
+    public void setUp() {
+        modelMapper = new ModelMapper();
+        productMapper = new ProductMapperImpl();
+        cartMapper = new CartMapperImpl();
+        orderMapper = new OrderMapperImpl();
+        ReflectionTestUtils.setField(orderMapper, "productMapper", productMapper);
+
+        product = product(1L);
+
+        cart = new Cart();
+        cart.setCartId(1L);
+        order = new Order();
+        order.setOrderId(1L);
+        order.setEmail("user1@example.com");
+        order.setOrderDate(LocalDate.now());
+        order.setOrderStatus("Order Accepted !");
+        order.setPayment(new Payment("card", "pg_1", "succeeded", "ok", "stripe"));
+        Address address = new Address("street", "building", "city", "state", "country", "123456");
+        address.setAddressId(1L);
+        order.setAddress(address);
+
+        for (long i = 1; i <= LINES; i++) {
+            Product lineProduct = product(i);
+            CartItem cartItem = new CartItem(i, cart, lineProduct, 2, lineProduct.getDiscount(), lineProduct.getSpecialPrice());
+            cart.getCartItems().add(cartItem);
+            order.getOrderItems().add(new OrderItem(i, lineProduct, order, 2, lineProduct.getDiscount(), lineProduct.getSpecialPrice()));
+        }
+
+        // first call builds ModelMapper's type maps, keep that out of the measurement
+        modelMapper.map(product, ProductDTO.class);
+        modelMapper.map(cart, CartDTO.class);
+        modelMapper.map(order, OrderDTO.class);
+    }
+
+    @Benchmark
+    public ProductDTO productModelMapper() {
+        return modelMapper.map(product, ProductDTO.class);
+    }
+
+    @Benchmark
+    public ProductDTO productMapStruct() {
+        return productMapper.toDto(product);
+    }
+
+    // the old cart flow: map the cart, then every line's product, then patch in the quantity
+    @Benchmark
+    public CartDTO cartModelMapper() {
+        CartDTO cartDTO = modelMapper.map(cart, CartDTO.class);
+        List<ProductDTO> products = new ArrayList<>();
+        for (CartItem item : cart.getCartItems()) {
+            ProductDTO productDTO = modelMapper.map(item.getProduct(), ProductDTO.class);
+            productDTO.setQuantity(item.getQuantity());
+            products.add(productDTO);
+        }
+        cartDTO.setProducts(products);
+        return cartDTO;
+    }
+
+    @Benchmark
+    public CartDTO cartMapStruct() {
+        return cartMapper.toDto(cart);
+    }
+
+    @Benchmark
+    public OrderDTO orderModelMapper() {
+        OrderDTO orderDTO = modelMapper.map(order, OrderDTO.class);
+        List<OrderItemDTO> items = new ArrayList<>();
+        for (OrderItem item : order.getOrderItems()) {
+            items.add(modelMapper.map(item, OrderItemDTO.class));
+        }
+        orderDTO.setOrderItems(items);
+        return orderDTO;
+    }
+
+    @Benchmark
+    public OrderDTO orderMapStruct() {
+        return orderMapper.toDto(order);
+    }
+
+    private static Product product(long id) {
+        Product product = new Product();
+        product.setProductId(id);
+        product.setProductName("Product " + id);
+        product.setDescription("Description of product " + id);
+        product.setImage("default.png");
+        product.setQuantity(100);
+        product.setPrice(1000);
+        product.setDiscount(10);
+        product.setSpecialPrice(900);
+        return product;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(DtoMappingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,98 @@
+package com.ecommarce.project.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+// Duplicate-name check before adding a product to a category of 50k: loading the category's products and
+// comparing names in Java against an existence query on the unique (category_id, normalized_name) index.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DuplicateCheckBenchmark {
+
+    private static final int PRODUCTS = 50_000;
+    private static final long CATEGORY_ID = 1;
+    private static final String CANDIDATE = "Benchmark Product New";
+
+    private Connection connection;
+
+    private PreparedStatement categoryProducts;
+    private PreparedStatement exists;
+
+    @Setup
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:duplicate-bench;DB_CLOSE_DELAY=-1");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE products (product_id BIGINT PRIMARY KEY, category_id BIGINT, "
+                    + "product_name VARCHAR(255), normalized_name VARCHAR(255), description VARCHAR(255), price DOUBLE)");
+            statement.execute("CREATE INDEX ix_products_category ON products (category_id)");
+            statement.execute("ALTER TABLE products ADD CONSTRAINT uk_products_category_name "
+                    + "UNIQUE (category_id, normalized_name)");
+        }
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO products VALUES (?, ?, ?, ?, ?, ?)")) {
+            for (int i = 1; i <= PRODUCTS; i++) {
+                String name = "Benchmark Product " + i;
+                insert.setLong(1, i);
+                insert.setLong(2, CATEGORY_ID);
+                insert.setString(3, name);
+                insert.setString(4, name.toLowerCase(Locale.ROOT));
+                insert.setString(5, "Benchmark product description " + i);
+                insert.setDouble(6, i % 1000);
+                insert.addBatch();
+                if (i % 1000 == 0) {
+                    insert.executeBatch();
+                }
+            }
+        }
+        categoryProducts = connection.prepareStatement("SELECT * FROM products WHERE category_id = ?");
+        exists = connection.prepareStatement(
+                "SELECT 1 FROM products WHERE category_id = ? AND normalized_name = ? LIMIT 1");
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public boolean loadCategoryAndScan() throws SQLException {
+        categoryProducts.setLong(1, CATEGORY_ID);
+        try (ResultSet resultSet = categoryProducts.executeQuery()) {
+            while (resultSet.next()) {
+                if (resultSet.getString("product_name").equals(CANDIDATE)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Benchmark
+    public boolean indexedExists() throws SQLException {
+        exists.setLong(1, CATEGORY_ID);
+        exists.setString(2, CANDIDATE.trim().toLowerCase(Locale.ROOT));
+        try (ResultSet resultSet = exists.executeQuery()) {
+            return resultSet.next();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(DuplicateCheckBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
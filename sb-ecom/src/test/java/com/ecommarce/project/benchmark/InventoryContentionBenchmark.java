@@ -0,0 +1,80 @@
+package com.ecommarce.project.benchmark;
+
+import com.ecommarce.project.inventory.StripedStockCounter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+// Every thread checks out the same hot product, one unit at a time.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class InventoryContentionBenchmark {
+
+    private static final String URL = "jdbc:h2:mem:inventory-bench;DB_CLOSE_DELAY=-1";
+
+    @State(Scope.Benchmark)
+    public static class Stock {
+        StripedStockCounter counter;
+
+        @Setup
+        public void setUp() throws SQLException {
+            counter = new StripedStockCounter(8, Long.MAX_VALUE / 2);
+            try (Connection connection = DriverManager.getConnection(URL);
+                 Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE IF NOT EXISTS products (product_id BIGINT PRIMARY KEY, quantity BIGINT)");
+                statement.execute("MERGE INTO products KEY (product_id) VALUES (1, " + Long.MAX_VALUE / 2 + ")");
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Session {
+        Connection connection;
+        PreparedStatement reserve;
+
+        // taking Stock makes JMH create the table before the thread's connection prepares against it
+        @Setup
+        public void setUp(Stock stock) throws SQLException {
+            connection = DriverManager.getConnection(URL);
+            reserve = connection.prepareStatement(
+                    "UPDATE products SET quantity = quantity - ? WHERE product_id = ? AND quantity >= ?");
+        }
+
+        @TearDown
+        public void tearDown() throws SQLException {
+            connection.close();
+        }
+    }
+
+    @Benchmark
+    public boolean stripedCounter(Stock stock) {
+        return stock.counter.tryReserve(1);
+    }
+
+    // the checkout path without the in-memory engine: a conditional update holding the product row lock
+    @Benchmark
+    public int rowLockConditionalUpdate(Session session) throws SQLException {
+        session.reserve.setInt(1, 1);
+        session.reserve.setLong(2, 1L);
+        session.reserve.setInt(3, 1);
+        return session.reserve.executeUpdate();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(InventoryContentionBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
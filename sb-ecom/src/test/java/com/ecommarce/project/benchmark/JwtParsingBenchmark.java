@@ -0,0 +1,60 @@
+package com.ecommarce.project.benchmark;
+
+import com.ecommarce.project.security.jwt.JwtClaims;
+import com.ecommarce.project.security.jwt.JwtUtils;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+// Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.ecommarce.project.benchmark.JwtParsingBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtParsingBenchmark {
+
+    private static final String SECRET = "mySecretKey123912738aopsgjnspkmndfsopkvajoirjg94gf2opfng2moknm";
+
+    private JwtUtils jwtUtils;
+
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 3_000_000);
+        jwtUtils.init();
+        token = jwtUtils.generateTokenFromUsername("user1");
+    }
+
+    // what the filter used to do: rebuild key and parser, verify once to validate and again for the subject
+    @Benchmark
+    public String validateThenGetSubject() {
+        Jwts.parser().verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .build().parseSignedClaims(token);
+        return Jwts.parser().verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .build().parseSignedClaims(token)
+                .getPayload().getSubject();
+    }
+
+    @Benchmark
+    public JwtClaims parseOnce() {
+        return jwtUtils.parseJwtToken(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtParsingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,133 @@
+package com.ecommarce.project.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+// First page of a listing over 50k products: Page (select + COUNT(*)) against Slice (select limit n+1)
+// with the total from the cached counter or, for keyword search, a capped count.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListingCountBenchmark {
+
+    private static final int PRODUCTS = 50_000;
+    private static final int PAGE_SIZE = 50;
+    private static final int COUNT_CAP = 1000;
+    private static final String KEYWORD = "%phone%";
+
+    private Connection connection;
+
+    private PreparedStatement page;
+    private PreparedStatement count;
+    private PreparedStatement keywordPage;
+    private PreparedStatement keywordCount;
+    private PreparedStatement keywordCappedCount;
+
+    private long cachedCount;
+
+    @Setup
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:listing-bench;DB_CLOSE_DELAY=-1");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE products (product_id BIGINT PRIMARY KEY, product_name VARCHAR(255), price DOUBLE)");
+        }
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO products VALUES (?, ?, ?)")) {
+            for (int i = 1; i <= PRODUCTS; i++) {
+                insert.setLong(1, i);
+                // a fifth of the catalog matches the keyword
+                insert.setString(2, (i % 5 == 0 ? "Phone " : "Laptop ") + i);
+                insert.setDouble(3, i % 1000);
+                insert.addBatch();
+                if (i % 1000 == 0) {
+                    insert.executeBatch();
+                }
+            }
+        }
+        page = connection.prepareStatement("SELECT * FROM products ORDER BY product_id LIMIT ?");
+        count = connection.prepareStatement("SELECT COUNT(*) FROM products");
+        keywordPage = connection.prepareStatement(
+                "SELECT * FROM products WHERE UPPER(product_name) LIKE UPPER(?) ORDER BY product_id LIMIT ?");
+        keywordCount = connection.prepareStatement(
+                "SELECT COUNT(*) FROM products WHERE UPPER(product_name) LIKE UPPER(?)");
+        keywordCappedCount = connection.prepareStatement(
+                "SELECT COUNT(*) FROM (SELECT 1 FROM products WHERE UPPER(product_name) LIKE UPPER(?) LIMIT ?) capped");
+        cachedCount = single(count);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public long pageWithCount() throws SQLException {
+        page.setInt(1, PAGE_SIZE);
+        return rows(page) + single(count);
+    }
+
+    @Benchmark
+    public long sliceWithCachedCount() throws SQLException {
+        page.setInt(1, PAGE_SIZE + 1);
+        return rows(page) + cachedCount;
+    }
+
+    @Benchmark
+    public long keywordPageWithCount() throws SQLException {
+        keywordPage.setString(1, KEYWORD);
+        keywordPage.setInt(2, PAGE_SIZE);
+        keywordCount.setString(1, KEYWORD);
+        return rows(keywordPage) + single(keywordCount);
+    }
+
+    @Benchmark
+    public long keywordSliceWithCappedCount() throws SQLException {
+        keywordPage.setString(1, KEYWORD);
+        keywordPage.setInt(2, PAGE_SIZE + 1);
+        keywordCappedCount.setString(1, KEYWORD);
+        keywordCappedCount.setInt(2, COUNT_CAP);
+        return rows(keywordPage) + single(keywordCappedCount);
+    }
+
+    @Benchmark
+    public long keywordSliceWithoutTotals() throws SQLException {
+        keywordPage.setString(1, KEYWORD);
+        keywordPage.setInt(2, PAGE_SIZE + 1);
+        return rows(keywordPage);
+    }
+
+    private static long rows(PreparedStatement statement) throws SQLException {
+        long rows = 0;
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private static long single(PreparedStatement statement) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery()) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ListingCountBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,150 @@
+package com.ecommarce.project.benchmark;
+
+import com.ecommarce.project.SbEcomApplication;
+import com.ecommarce.project.mapper.CategoryMapper;
+import com.ecommarce.project.mapper.ProductMapper;
+import com.ecommarce.project.model.Category;
+import com.ecommarce.project.model.Product;
+import com.ecommarce.project.payload.CategoryDTO;
+import com.ecommarce.project.payload.ProductDTO;
+import com.ecommarce.project.repositories.CategoryRepository;
+import com.ecommarce.project.repositories.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// A product and a category listing page as they were served (entities in a read-write transaction, then
+// mapped) against the DTO projections in a read-only one. Sample time reports the p99 per page and the
+// gc profiler's gc.alloc.rate.norm the heap allocated per page.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListingProjectionBenchmark {
+
+    private static final int PRODUCTS = 5_000;
+    private static final int CATEGORIES = 200;
+    private static final int PAGE_SIZE = 50;
+
+    private ConfigurableApplicationContext context;
+
+    private ProductRepository productRepository;
+
+    private CategoryRepository categoryRepository;
+
+    private ProductMapper productMapper;
+
+    private CategoryMapper categoryMapper;
+
+    private EntityManager entityManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    private Pageable productPage;
+
+    private Pageable categoryPage;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(SbEcomApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:listing-projection",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework=WARN",
+                "--logging.level.org.hibernate.SQL=WARN");
+        productRepository = context.getBean(ProductRepository.class);
+        categoryRepository = context.getBean(CategoryRepository.class);
+        productMapper = context.getBean(ProductMapper.class);
+        categoryMapper = context.getBean(CategoryMapper.class);
+        entityManager = context.getBean(EntityManager.class);
+        transactionTemplate = context.getBean("transactionTemplate", TransactionTemplate.class);
+        readOnlyTransaction = context.getBean("readOnlyTransactionTemplate", TransactionTemplate.class);
+
+        transactionTemplate.executeWithoutResult(status -> seed());
+        productPage = PageRequest.of(PRODUCTS / PAGE_SIZE / 2, PAGE_SIZE, Sort.by("productId"));
+        categoryPage = PageRequest.of(0, PAGE_SIZE, Sort.by("categoryId"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ProductDTO> productEntities() {
+        return transactionTemplate.execute(status -> productMapper.toDtos(entityManager
+                .createQuery("SELECT p FROM Product p ORDER BY p.productId", Product.class)
+                .setFirstResult((int) productPage.getOffset())
+                .setMaxResults(PAGE_SIZE + 1)
+                .getResultList()));
+    }
+
+    @Benchmark
+    public List<ProductDTO> productProjection() {
+        return readOnlyTransaction.execute(status -> productRepository.findDtoSliceBy(productPage).getContent());
+    }
+
+    @Benchmark
+    public List<CategoryDTO> categoryEntities() {
+        return transactionTemplate.execute(status -> categoryMapper.toDtos(entityManager
+                .createQuery("SELECT c FROM categories c ORDER BY c.categoryId", Category.class)
+                .setMaxResults(PAGE_SIZE + 1)
+                .getResultList()));
+    }
+
+    @Benchmark
+    public List<CategoryDTO> categoryProjection() {
+        return readOnlyTransaction.execute(status -> categoryRepository.findDtoSliceBy(categoryPage).getContent());
+    }
+
+    private void seed() {
+        List<Category> categories = new ArrayList<>(CATEGORIES);
+        for (int i = 0; i < CATEGORIES; i++) {
+            Category category = new Category();
+            category.setCategoryName("Benchmark Category " + i);
+            categories.add(category);
+        }
+        categories = categoryRepository.saveAll(categories);
+
+        List<Product> products = new ArrayList<>(PRODUCTS);
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = new Product();
+            product.setProductName("Benchmark Product " + i);
+            product.setDescription("Benchmark product description " + i);
+            product.setImage("default.png");
+            product.setQuantity(100);
+            product.setPrice(100 + i % 900);
+            product.setSpecialPrice(100 + i % 900);
+            product.setCategory(categories.get(i % CATEGORIES));
+            products.add(product);
+        }
+        productRepository.saveAll(products);
+        productRepository.flush();
+        entityManager.clear();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ListingProjectionBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
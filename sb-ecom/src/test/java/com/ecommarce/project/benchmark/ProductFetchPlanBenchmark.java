@@ -0,0 +1,152 @@
+package com.ecommarce.project.benchmark;
+
+import com.ecommarce.project.SbEcomApplication;
+import com.ecommarce.project.mapper.ProductMapper;
+import com.ecommarce.project.model.Cart;
+import com.ecommarce.project.model.CartItem;
+import com.ecommarce.project.model.Category;
+import com.ecommarce.project.model.Product;
+import com.ecommarce.project.payload.ProductDTO;
+import com.ecommarce.project.repositories.CartRepository;
+import com.ecommarce.project.repositories.CategoryRepository;
+import com.ecommarce.project.repositories.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// First product page (50 of 200 products) as the number of carts holding those products grows: the lazy
+// plan the listing uses now against join-fetching Product.products, which is what the EAGER mapping cost.
+// Run main() for the gc profiler's gc.alloc.rate.norm, the heap allocated per listing.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductFetchPlanBenchmark {
+
+    private static final int PRODUCTS = 200;
+    private static final int PAGE_SIZE = 50;
+    private static final int LINES_PER_CART = 3;
+
+    @Param({"0", "1000", "10000"})
+    private int carts;
+
+    private ConfigurableApplicationContext context;
+
+    private ProductRepository productRepository;
+
+    private ProductMapper productMapper;
+
+    private EntityManager entityManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    private List<Long> pageIds;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(SbEcomApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:fetch-plan-" + carts,
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework=WARN",
+                "--logging.level.org.hibernate.SQL=WARN");
+        productRepository = context.getBean(ProductRepository.class);
+        productMapper = context.getBean(ProductMapper.class);
+        entityManager = context.getBean(EntityManager.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+
+        transactionTemplate.executeWithoutResult(status -> seed(context.getBean(CategoryRepository.class),
+                context.getBean(CartRepository.class)));
+        pageIds = transactionTemplate.execute(status -> page().stream().map(Product::getProductId).toList());
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ProductDTO> lazyListing() {
+        return transactionTemplate.execute(status -> productMapper.toDtos(page()));
+    }
+
+    @Benchmark
+    public List<ProductDTO> cartLinesFetchedListing() {
+        return transactionTemplate.execute(status -> productMapper.toDtos(entityManager.createQuery(
+                        "SELECT DISTINCT p FROM Product p LEFT JOIN FETCH p.products WHERE p.productId IN :ids",
+                        Product.class)
+                .setParameter("ids", pageIds)
+                .getResultList()));
+    }
+
+    private List<Product> page() {
+        return entityManager.createQuery("SELECT p FROM Product p ORDER BY p.productId", Product.class)
+                .setMaxResults(PAGE_SIZE)
+                .getResultList();
+    }
+
+    private void seed(CategoryRepository categoryRepository, CartRepository cartRepository) {
+        Category category = new Category();
+        category.setCategoryName("Benchmark Category");
+        category = categoryRepository.save(category);
+
+        List<Product> products = new ArrayList<>(PRODUCTS);
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = new Product();
+            product.setProductName("Benchmark Product " + i);
+            product.setDescription("Benchmark product description");
+            product.setQuantity(1_000_000);
+            product.setPrice(100 + i);
+            product.setSpecialPrice(100 + i);
+            product.setCategory(category);
+            products.add(product);
+        }
+        List<Long> productIds = productRepository.saveAll(products).stream().map(Product::getProductId).toList();
+
+        // carts fill up with the first page's products, the ones every listing shows
+        List<Cart> batch = new ArrayList<>();
+        for (int c = 0; c < carts; c++) {
+            Cart cart = new Cart();
+            for (int line = 0; line < LINES_PER_CART; line++) {
+                Product product = entityManager.getReference(Product.class,
+                        productIds.get((c * LINES_PER_CART + line) % PAGE_SIZE));
+                CartItem cartItem = new CartItem();
+                cartItem.setCart(cart);
+                cartItem.setProduct(product);
+                cartItem.setQuantity(1);
+                cartItem.setProductPrice(100);
+                cart.getCartItems().add(cartItem);
+            }
+            batch.add(cart);
+            if (batch.size() == 500) {
+                cartRepository.saveAll(batch);
+                cartRepository.flush();
+                entityManager.clear();
+                batch.clear();
+            }
+        }
+        cartRepository.saveAll(batch);
+        cartRepository.flush();
+        entityManager.clear();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ProductFetchPlanBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
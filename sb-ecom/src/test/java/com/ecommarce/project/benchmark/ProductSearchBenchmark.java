@@ -0,0 +1,139 @@
+package com.ecommarce.project.benchmark;
+
+import com.ecommarce.project.search.ProductSearchIndex;
+import com.ecommarce.project.search.SearchDocument;
+import com.ecommarce.project.search.SearchQuery;
+import com.ecommarce.project.search.SearchResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// First page of a keyword search over 1M products: the index against the old LIKE '%kw%' page + count.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+public class ProductSearchBenchmark {
+
+    private static final int PRODUCTS = 1_000_000;
+    private static final int PAGE_SIZE = 50;
+
+    private static final String[] WORDS = {
+            "wireless", "bluetooth", "headphones", "speaker", "laptop", "phone", "case", "charger", "cable", "screen",
+            "keyboard", "mouse", "monitor", "camera", "lens", "tripod", "watch", "band", "fitness", "tracker",
+            "gaming", "console", "controller", "router", "modem", "tablet", "stylus", "printer", "scanner", "drive",
+            "portable", "compact", "premium", "leather", "steel", "black", "white", "silver", "ultra", "slim"};
+
+    private ProductSearchIndex index;
+
+    private Connection connection;
+
+    private PreparedStatement likePage;
+    private PreparedStatement likeCount;
+
+    @Setup
+    public void setUp() throws SQLException {
+        Random random = new Random(42);
+        List<SearchDocument> documents = new ArrayList<>(PRODUCTS);
+        connection = DriverManager.getConnection("jdbc:h2:mem:search-bench;DB_CLOSE_DELAY=-1");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE products (product_id BIGINT PRIMARY KEY, product_name VARCHAR(255), "
+                    + "description VARCHAR(1000), category_id BIGINT, price DOUBLE)");
+        }
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO products VALUES (?, ?, ?, ?, ?)")) {
+            for (int i = 1; i <= PRODUCTS; i++) {
+                String name = words(random, 3) + " " + random.nextInt(100_000);
+                String description = words(random, 8);
+                long categoryId = 1 + random.nextInt(50);
+                double price = 1 + random.nextInt(2000);
+                documents.add(new SearchDocument((long) i, name, description, categoryId, price));
+                insert.setLong(1, i);
+                insert.setString(2, name);
+                insert.setString(3, description);
+                insert.setLong(4, categoryId);
+                insert.setDouble(5, price);
+                insert.addBatch();
+                if (i % 10_000 == 0) {
+                    insert.executeBatch();
+                }
+            }
+        }
+        index = new ProductSearchIndex(new SimpleMeterRegistry());
+        index.rebuild(documents);
+
+        likePage = connection.prepareStatement(
+                "SELECT * FROM products WHERE UPPER(product_name) LIKE UPPER(?) ORDER BY product_id LIMIT ?");
+        likeCount = connection.prepareStatement(
+                "SELECT COUNT(*) FROM products WHERE UPPER(product_name) LIKE UPPER(?)");
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    // what the endpoint did before: name-only LIKE, a page and a count
+    @Benchmark
+    public long likePageWithCount() throws SQLException {
+        likePage.setString(1, "%wireless%");
+        likePage.setInt(2, PAGE_SIZE);
+        likeCount.setString(1, "%wireless%");
+        long rows = 0;
+        try (ResultSet resultSet = likePage.executeQuery()) {
+            while (resultSet.next()) {
+                rows++;
+            }
+        }
+        try (ResultSet resultSet = likeCount.executeQuery()) {
+            resultSet.next();
+            return rows + resultSet.getLong(1);
+        }
+    }
+
+    @Benchmark
+    public SearchResult indexSingleWord() {
+        return index.search(new SearchQuery("wireless", null, null, null, "relevance", false, 0, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public SearchResult indexTwoPrefixes() {
+        return index.search(new SearchQuery("wire head", null, null, null, "relevance", false, 0, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public SearchResult indexFiltered() {
+        return index.search(new SearchQuery("wireless", 7L, 100.0, 500.0, "price", true, 0, PAGE_SIZE));
+    }
+
+    private static String words(Random random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ProductSearchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
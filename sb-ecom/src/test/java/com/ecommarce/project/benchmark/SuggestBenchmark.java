@@ -0,0 +1,74 @@
+package com.ecommarce.project.benchmark;
+
+import com.ecommarce.project.search.Suggestion;
+import com.ecommarce.project.search.SuggestionTrie;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Top-10 autocomplete over 1M product names, exact prefix and with typos. Setup prints the trie footprint.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SuggestBenchmark {
+
+    private static final int PRODUCTS = 1_000_000;
+    private static final int LIMIT = 10;
+
+    private static final String[] WORDS = {
+            "wireless", "bluetooth", "headphones", "speaker", "laptop", "phone", "case", "charger", "cable", "screen",
+            "keyboard", "mouse", "monitor", "camera", "lens", "tripod", "watch", "band", "fitness", "tracker",
+            "gaming", "console", "controller", "router", "modem", "tablet", "stylus", "printer", "scanner", "drive"};
+
+    private SuggestionTrie trie;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<Suggestion> names = new ArrayList<>(PRODUCTS);
+        for (int i = 1; i <= PRODUCTS; i++) {
+            String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " "
+                    + random.nextInt(100_000);
+            names.add(new Suggestion(name, Suggestion.PRODUCT, (long) i, 1L, random.nextInt(10_000)));
+        }
+        long start = System.nanoTime();
+        trie = SuggestionTrie.build(names);
+        System.out.printf("built %d names in %d ms, ~%d MB%n", trie.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), trie.footprintBytes() / (1024 * 1024));
+    }
+
+    @Benchmark
+    public List<Suggestion> shortPrefix() {
+        return trie.complete("w", LIMIT);
+    }
+
+    @Benchmark
+    public List<Suggestion> longPrefix() {
+        return trie.complete("wireless ca", LIMIT);
+    }
+
+    @Benchmark
+    public List<Suggestion> oneTypo() {
+        return trie.completeFuzzy("wirless", 1, LIMIT, List.of());
+    }
+
+    @Benchmark
+    public List<Suggestion> twoTypos() {
+        return trie.completeFuzzy("wirelss cabel", 2, LIMIT, List.of());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SuggestBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,93 @@
+package com.ecommarce.project.cache;
+
+import com.ecommarce.project.payload.ProductDTO;
+import com.ecommarce.project.payload.ProductResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CatalogCacheTest {
+
+    private CatalogCache cache;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        cache = new CatalogCache(100, 60, new SimpleMeterRegistry());
+        loads.set(0);
+    }
+
+    @Test
+    void servesRepeatedPagesFromCache() {
+        load(ProductPageKey.all(0, 50, "productId", "ASC", true));
+        load(ProductPageKey.all(0, 50, "productId", "asc", true));
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void productWriteOnlyEvictsPagesItCanAppearOn() {
+        ProductPageKey unfiltered = ProductPageKey.all(0, 50, "productId", "asc", true);
+        ProductPageKey sameCategory = ProductPageKey.category(1L, 0, 50, "productId", "asc", true);
+        ProductPageKey otherCategory = ProductPageKey.category(2L, 0, 50, "productId", "asc", true);
+        ProductPageKey matchingSearch = ProductPageKey.keyword("phone", null, null, null, 0, 50, "productId", "asc", true);
+        ProductPageKey otherSearch = ProductPageKey.keyword("laptop", null, null, null, 0, 50, "productId", "asc", true);
+        for (ProductPageKey key : new ProductPageKey[]{unfiltered, sameCategory, otherCategory, matchingSearch, otherSearch}) {
+            load(key);
+        }
+        loads.set(0);
+
+        cache.evictProduct(1L, "iPhone 15");
+        for (ProductPageKey key : new ProductPageKey[]{unfiltered, sameCategory, otherCategory, matchingSearch, otherSearch}) {
+            load(key);
+        }
+
+        // unfiltered, category 1 and the "phone" search reload
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void loadOverlappingAnEvictionIsNotKept() {
+        ProductPageKey key = ProductPageKey.category(1L, 0, 50, "productId", "asc", true);
+
+        // the write lands and evicts while this load is still reading the old page
+        cache.products(key, () -> {
+            loads.incrementAndGet();
+            cache.evictProduct(1L, "Old name");
+            return new ProductResponse();
+        });
+        load(key);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void callersCantChangeTheCachedPage() {
+        ProductPageKey key = ProductPageKey.all(0, 50, "productId", "asc", true);
+        ProductResponse page = new ProductResponse();
+        page.setContent(List.of(new ProductDTO(1L, "Lamp", null, "Desk lamp", 5, 20, 0, 20)));
+        page.setPageNumber(0);
+        cache.products(key, () -> page);
+
+        ProductResponse first = cache.products(key, ProductResponse::new);
+        first.getContent().get(0).setProductName("Changed");
+        first.setPageNumber(7);
+
+        ProductResponse second = cache.products(key, ProductResponse::new);
+        assertEquals("Lamp", second.getContent().get(0).getProductName());
+        assertEquals(Integer.valueOf(0), second.getPageNumber());
+    }
+
+    private void load(ProductPageKey key) {
+        cache.products(key, () -> {
+            loads.incrementAndGet();
+            return new ProductResponse();
+        });
+    }
+}
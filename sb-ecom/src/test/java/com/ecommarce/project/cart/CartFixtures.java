@@ -0,0 +1,85 @@
+package com.ecommarce.project.cart;
+
+import com.ecommarce.project.model.Cart;
+import com.ecommarce.project.model.CartItem;
+import com.ecommarce.project.model.Category;
+import com.ecommarce.project.model.Product;
+import com.ecommarce.project.model.User;
+import com.ecommarce.project.money.CartTotals;
+import com.ecommarce.project.money.Money;
+import com.ecommarce.project.repositories.CartRepository;
+import com.ecommarce.project.repositories.CategoryRepository;
+import com.ecommarce.project.repositories.ProductRepository;
+import com.ecommarce.project.repositories.UserRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.UUID;
+
+// users, products and stored carts for the cart tests; names are unique so tests sharing a context don't collide
+final class CartFixtures {
+
+    private final UserRepository userRepository;
+
+    private final CategoryRepository categoryRepository;
+
+    private final ProductRepository productRepository;
+
+    private final CartRepository cartRepository;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    CartFixtures(UserRepository userRepository, CategoryRepository categoryRepository,
+                 ProductRepository productRepository, CartRepository cartRepository, JdbcTemplate jdbcTemplate) {
+        this.userRepository = userRepository;
+        this.categoryRepository = categoryRepository;
+        this.productRepository = productRepository;
+        this.cartRepository = cartRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    static String uniqueName(String prefix) {
+        return prefix + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    User user(String userName) {
+        return userRepository.save(new User(userName, userName + "@example.com", "password"));
+    }
+
+    Category category(String categoryName) {
+        Category category = new Category();
+        category.setCategoryName(categoryName);
+        return categoryRepository.save(category);
+    }
+
+    Product product(Category category, String name, double specialPrice) {
+        Product product = new Product();
+        product.setProductName(name);
+        product.setDescription("Cart test product");
+        product.setQuantity(100);
+        product.setPrice(specialPrice);
+        product.setSpecialPrice(specialPrice);
+        product.setCategory(category);
+        return productRepository.save(product);
+    }
+
+    // a stored cart with two lines at the products' current prices; returns its id
+    Long cart(String userName, Product firstProduct, int firstQuantity, Product secondProduct, int secondQuantity) {
+        Cart cart = new Cart();
+        cart.setUser(user(userName));
+        line(cart, firstProduct, firstQuantity);
+        line(cart, secondProduct, secondQuantity);
+        return cartRepository.save(cart).getCartId();
+    }
+
+    static void line(Cart cart, Product product, int quantity) {
+        CartItem cartItem = new CartItem();
+        cartItem.setCart(cart);
+        cartItem.setProduct(product);
+        CartTotals.addLine(cart, cartItem, Money.fromMajor(product.getSpecialPrice()), quantity);
+        cart.getCartItems().add(cartItem);
+    }
+
+    long totalInDatabase(Long cartId) {
+        return jdbcTemplate.queryForObject("SELECT total_price_minor FROM carts WHERE cart_id = ?", Long.class, cartId);
+    }
+}
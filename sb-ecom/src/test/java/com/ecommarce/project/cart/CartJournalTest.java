@@ -0,0 +1,82 @@
+package com.ecommarce.project.cart;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CartJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recoversRecordsOfAPreviousRunInOrder() {
+        try (CartJournal journal = new CartJournal(directory, false)) {
+            journal.append(CartJournal.SET, 1, 10, 2, 1_999, 5.0);
+            journal.rotate();
+            journal.append(CartJournal.REMOVE, 1, 10, 0, 0, 0);
+            journal.append(CartJournal.CLEAR, 2, 0, 0, 0, 0);
+        }
+
+        try (CartJournal journal = new CartJournal(directory, false)) {
+            assertEquals(List.of(
+                    new CartJournal.Entry(CartJournal.SET, 1, 10, 2, 1_999, 5.0),
+                    new CartJournal.Entry(CartJournal.REMOVE, 1, 10, 0, 0, 0),
+                    new CartJournal.Entry(CartJournal.CLEAR, 2, 0, 0, 0, 0)), journal.recoveredEntries());
+        }
+    }
+
+    @Test
+    void dropsARecordCutShortByACrash() throws IOException {
+        Path segment;
+        try (CartJournal journal = new CartJournal(directory, false)) {
+            journal.append(CartJournal.SET, 1, 10, 2, 1_999, 0);
+            segment = directory.resolve("cart-" + journal.currentSegment() + ".journal");
+        }
+        Files.write(segment, new byte[CartJournal.RECORD_BYTES / 2], StandardOpenOption.APPEND);
+
+        try (CartJournal journal = new CartJournal(directory, false)) {
+            assertEquals(List.of(new CartJournal.Entry(CartJournal.SET, 1, 10, 2, 1_999, 0)),
+                    journal.recoveredEntries());
+        }
+    }
+
+    @Test
+    void trimsOnlySegmentsOlderThanTheOldestPendingChange() throws IOException {
+        try (CartJournal journal = new CartJournal(directory, false)) {
+            long first = journal.append(CartJournal.SET, 1, 10, 1, 100, 0);
+            long second = journal.rotate();
+            journal.append(CartJournal.SET, 2, 10, 1, 100, 0);
+            journal.rotate();
+
+            journal.deleteBefore(second);
+
+            try (var files = Files.list(directory)) {
+                List<String> names = files.map(file -> file.getFileName().toString()).sorted().toList();
+                assertEquals(List.of("cart-" + second + ".journal", "cart-" + (second + 1) + ".journal"), names);
+            }
+            assertEquals(first + 1, second);
+        }
+    }
+
+    @Test
+    void recordsOnlyBelongToTheDatabaseTheyWereBoundTo() {
+        try (CartJournal journal = new CartJournal(directory, false)) {
+            assertFalse(journal.bind("first"));
+            assertTrue(journal.bind("first"));
+        }
+        try (CartJournal journal = new CartJournal(directory, false)) {
+            assertFalse(journal.bind("second"));
+            assertTrue(journal.bind("second"));
+        }
+    }
+}
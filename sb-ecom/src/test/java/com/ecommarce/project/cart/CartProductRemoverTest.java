@@ -0,0 +1,77 @@
+package com.ecommarce.project.cart;
+
+import com.ecommarce.project.model.Category;
+import com.ecommarce.project.model.Product;
+import com.ecommarce.project.repositories.CartRepository;
+import com.ecommarce.project.repositories.CategoryRepository;
+import com.ecommarce.project.repositories.ProductRepository;
+import com.ecommarce.project.repositories.UserRepository;
+import com.ecommarce.project.service.ProductService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@SpringBootTest(properties = "spring.app.cartRemoval.chunkSize=2")
+class CartProductRemoverTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private CartFixtures fixtures;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new CartFixtures(userRepository, categoryRepository, productRepository, cartRepository,
+                jdbcTemplate);
+    }
+
+    @Test
+    void deletingAProductTakesItOutOfEveryCartInChunks() {
+        String name = CartFixtures.uniqueName("remove");
+        Category category = fixtures.category("Remove " + name);
+        Product discontinued = fixtures.product(category, name + " kettle", 30.00);
+        Product kept = fixtures.product(category, name + " mug", 4.50);
+
+        List<Long> cartIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            cartIds.add(fixtures.cart(name + i, discontinued, i + 1, kept, 2));
+        }
+
+        productService.deleteProduct(discontinued.getProductId());
+
+        for (Long cartId : cartIds) {
+            assertEquals(900, fixtures.totalInDatabase(cartId));
+            assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cart_items WHERE cart_id = ?",
+                    Long.class, cartId).longValue());
+        }
+        assertFalse(productRepository.existsById(discontinued.getProductId()));
+        assertEquals(0.0, meterRegistry.get("cart.product.removal.remaining").gauge().value());
+    }
+}
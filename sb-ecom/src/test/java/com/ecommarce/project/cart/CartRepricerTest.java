@@ -0,0 +1,109 @@
+package com.ecommarce.project.cart;
+
+import com.ecommarce.project.model.Cart;
+import com.ecommarce.project.model.Category;
+import com.ecommarce.project.model.Product;
+import com.ecommarce.project.payload.ProductDTO;
+import com.ecommarce.project.repositories.CartItemRepository;
+import com.ecommarce.project.repositories.CartRepository;
+import com.ecommarce.project.repositories.CategoryRepository;
+import com.ecommarce.project.repositories.ProductRepository;
+import com.ecommarce.project.repositories.UserRepository;
+import com.ecommarce.project.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class CartRepricerTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CartRepricer cartRepricer;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private CartFixtures fixtures;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new CartFixtures(userRepository, categoryRepository, productRepository, cartRepository,
+                jdbcTemplate);
+    }
+
+    @Test
+    void priceChangeReachesEveryCartHoldingTheProduct() throws InterruptedException {
+        String name = CartFixtures.uniqueName("reprice");
+        Category category = fixtures.category("Reprice " + name);
+        Product lamp = fixtures.product(category, name + " lamp", 20.00);
+        Product bulb = fixtures.product(category, name + " bulb", 2.50);
+
+        Long first = fixtures.cart(name + "a", lamp, 2, bulb, 4);
+        Long second = fixtures.cart(name + "b", lamp, 1, bulb, 1);
+
+        productService.updateProduct(lamp.getProductId(), new ProductDTO(null, lamp.getProductName(), null,
+                lamp.getDescription(), 100, 25.00, 0, 25.00));
+
+        awaitRepriced(first, 6_000);
+        assertEquals(6_000, fixtures.totalInDatabase(first));
+        assertEquals(2_750, fixtures.totalInDatabase(second));
+        assertEquals(2_500, jdbcTemplate.queryForObject("SELECT product_price_minor FROM cart_items "
+                + "WHERE cart_id = ? AND product_id = ?", Long.class, second, lamp.getProductId()).longValue());
+        assertEquals(0, cartRepricer.backlog());
+    }
+
+    @Test
+    void cartEditThatReadTheCartBeforeARepriceFails() {
+        String name = CartFixtures.uniqueName("stale");
+        Category category = fixtures.category("Reprice " + name);
+        Product lamp = fixtures.product(category, name + " lamp", 20.00);
+        Product bulb = fixtures.product(category, name + " bulb", 2.50);
+        Long cartId = fixtures.cart(name, lamp, 1, bulb, 1);
+
+        Cart stale = cartRepository.findById(cartId).orElseThrow();
+        transactionTemplate.executeWithoutResult(status -> {
+            cartItemRepository.repriceLines(lamp.getProductId(), 2_500);
+            cartRepository.recomputeTotalsOfCartsWithProduct(lamp.getProductId());
+        });
+        // one more bulb, added to the total the edit read before the reprice
+        stale.setTotalPriceMinor(stale.getTotalPriceMinor() + 250);
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> cartRepository.save(stale));
+        assertEquals(2_750, fixtures.totalInDatabase(cartId));
+    }
+
+    private void awaitRepriced(Long cartId, long expectedTotalMinor) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (fixtures.totalInDatabase(cartId) != expectedTotalMinor && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.ecommarce.project.cart;
+
+import com.ecommarce.project.exceptions.APIException;
+import com.ecommarce.project.model.Category;
+import com.ecommarce.project.model.Product;
+import com.ecommarce.project.model.User;
+import com.ecommarce.project.payload.CartDTO;
+import com.ecommarce.project.payload.ProductDTO;
+import com.ecommarce.project.repositories.CartRepository;
+import com.ecommarce.project.repositories.CategoryRepository;
+import com.ecommarce.project.repositories.ProductRepository;
+import com.ecommarce.project.repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.app.cartStore.inMemory=true",
+        "spring.app.cartStore.flushIntervalMs=3600000",
+        "spring.app.cartStore.journalDir=target/cart-journal-test"
+})
+class CartStoreTest {
+
+    @Autowired
+    private CartStore cartStore;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private CartFixtures fixtures;
+
+    private User user;
+
+    private ProductDTO phone;
+
+    private ProductDTO charger;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new CartFixtures(userRepository, categoryRepository, productRepository, cartRepository,
+                jdbcTemplate);
+        String name = CartFixtures.uniqueName("cart");
+        user = fixtures.user(name);
+        Category category = fixtures.category("Cart store " + name);
+        phone = product(category, name + " phone", 199.99);
+        charger = product(category, name + " charger", 19.99);
+    }
+
+    @Test
+    void servesChangesFromMemoryAndWritesThemBackTogether() {
+        cartStore.addLine(user.getUserId(), user.getEmail(), phone, 1);
+        cartStore.addLine(user.getUserId(), user.getEmail(), charger, 2);
+        CartDTO cart = cartStore.changeQuantity(user.getUserId(), user.getEmail(), phone, 1);
+
+        assertEquals(439.96, cart.getTotalPrice());
+        assertEquals(0, linesInDatabase(cart.getCartId()));
+
+        cartStore.flushAll();
+
+        assertEquals(2, linesInDatabase(cart.getCartId()));
+        assertEquals(43_996, fixtures.totalInDatabase(cart.getCartId()));
+        assertEquals(2, quantityInDatabase(cart.getCartId(), phone.getProductId()));
+    }
+
+    @Test
+    void rejectsDuplicateLinesAndNegativeQuantities() {
+        cartStore.addLine(user.getUserId(), user.getEmail(), phone, 1);
+
+        assertThrows(APIException.class, () -> cartStore.addLine(user.getUserId(), user.getEmail(), phone, 1));
+        assertThrows(APIException.class, () -> cartStore.changeQuantity(user.getUserId(), user.getEmail(), phone, -2));
+        assertThrows(APIException.class, () -> cartStore.changeQuantity(user.getUserId(), user.getEmail(), charger, 1));
+    }
+
+    @Test
+    void productChangesReachResidentCarts() {
+        cartStore.addLine(user.getUserId(), user.getEmail(), phone, 1);
+        CartDTO cart = cartStore.addLine(user.getUserId(), user.getEmail(), charger, 1);
+
+        phone.setSpecialPrice(150);
+        cartStore.productRepriced(phone);
+        cartStore.productRemoved(charger.getProductId());
+
+        CartDTO repriced = cartStore.view(user.getUserId(), user.getEmail());
+        assertEquals(150.0, repriced.getTotalPrice());
+        assertEquals(1, repriced.getProducts().size());
+        assertEquals(phone.getProductName(), repriced.getProducts().get(0).getProductName());
+        assertNull(cartStore.removeLine(cart.getCartId(), charger.getProductId()));
+    }
+
+    @Test
+    void checkoutWritesTheCartAndEmptiesIt() {
+        CartDTO cart = cartStore.addLine(user.getUserId(), user.getEmail(), phone, 3);
+
+        cartStore.flushForCheckout(user.getEmail());
+
+        assertEquals(1, linesInDatabase(cart.getCartId()));
+        assertEquals(0.0, cartStore.view(user.getUserId(), user.getEmail()).getTotalPrice());
+    }
+
+    @Test
+    void linesAddedDuringCheckoutStayInTheCart() {
+        cartStore.addLine(user.getUserId(), user.getEmail(), phone, 1);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            cartStore.flushForCheckout(user.getEmail());
+            cartStore.addLine(user.getUserId(), user.getEmail(), charger, 2);
+        });
+
+        CartDTO cart = cartStore.view(user.getUserId(), user.getEmail());
+        assertEquals(1, cart.getProducts().size());
+        assertEquals(charger.getProductName(), cart.getProducts().get(0).getProductName());
+        assertEquals(39.98, cart.getTotalPrice());
+    }
+
+    private long linesInDatabase(Long cartId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cart_items WHERE cart_id = ?", Long.class, cartId);
+    }
+
+    private int quantityInDatabase(Long cartId, Long productId) {
+        return jdbcTemplate.queryForObject("SELECT quantity FROM cart_items WHERE cart_id = ? AND product_id = ?",
+                Integer.class, cartId, productId);
+    }
+
+    private ProductDTO product(Category category, String name, double specialPrice) {
+        Product product = fixtures.product(category, name, specialPrice);
+        return new ProductDTO(product.getProductId(), name, null, product.getDescription(), null,
+                specialPrice, 0, specialPrice);
+    }
+}
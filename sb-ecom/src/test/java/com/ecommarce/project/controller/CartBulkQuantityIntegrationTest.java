@@ -0,0 +1,126 @@
+package com.ecommarce.project.controller;
+
+import com.ecommarce.project.model.Category;
+import com.ecommarce.project.model.Product;
+import com.ecommarce.project.model.User;
+import com.ecommarce.project.repositories.CategoryRepository;
+import com.ecommarce.project.repositories.ProductRepository;
+import com.ecommarce.project.repositories.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+@WithMockUser(username = "bulkbuyer")
+class CartBulkQuantityIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Product shirt;
+
+    private Product socks;
+
+    private Product hat;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        userRepository.save(new User("bulkbuyer", "bulkbuyer@example.com", "password"));
+        Category category = new Category();
+        category.setCategoryName("Bulk cart category");
+        category = categoryRepository.save(category);
+        shirt = product(category, "Bulk shirt", 10.50, 10);
+        socks = product(category, "Bulk socks", 4.25, 10);
+        hat = product(category, "Bulk hat", 15, 1);
+
+        mockMvc.perform(post("/api/carts/products/" + shirt.getProductId() + "/quantity/1"))
+                .andExpect(status().isCreated());
+        // the single-line add saves the item on its own; reload the cart with it
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void setsEveryLineToItsAbsoluteQuantityInOneRequest() throws Exception {
+        mockMvc.perform(put("/api/cart/products/quantities")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(lines(shirt.getProductId(), 3, socks.getProductId(), 2)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalPrice").value(40.0))
+                .andExpect(jsonPath("$.products.length()").value(2));
+
+        mockMvc.perform(put("/api/cart/products/quantities")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(lines(shirt.getProductId(), 0, socks.getProductId(), 1)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalPrice").value(4.25))
+                .andExpect(jsonPath("$.products[0].productName").value("Bulk socks"));
+    }
+
+    @Test
+    void rejectsTheWholeRequestWhenOneLineIsShortOfStock() throws Exception {
+        mockMvc.perform(put("/api/cart/products/quantities")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(lines(shirt.getProductId(), 2, hat.getProductId(), 2)))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/carts/users/cart"))
+                .andExpect(jsonPath("$.totalPrice").value(10.5))
+                .andExpect(jsonPath("$.products.length()").value(1));
+    }
+
+    @Test
+    void rejectsNegativeQuantitiesAndRepeatedProducts() throws Exception {
+        mockMvc.perform(put("/api/cart/products/quantities")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(lines(shirt.getProductId(), -1, socks.getProductId(), 1)))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(put("/api/cart/products/quantities")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(lines(shirt.getProductId(), 1, shirt.getProductId(), 2)))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static String lines(Long firstId, int firstQuantity, Long secondId, int secondQuantity) {
+        return "{\"lines\":[{\"productId\":" + firstId + ",\"quantity\":" + firstQuantity + "},"
+                + "{\"productId\":" + secondId + ",\"quantity\":" + secondQuantity + "}]}";
+    }
+
+    private Product product(Category category, String name, double specialPrice, int quantity) {
+        Product product = new Product();
+        product.setProductName(name);
+        product.setDescription("Bulk cart product");
+        product.setQuantity(quantity);
+        product.setPrice(specialPrice);
+        product.setSpecialPrice(specialPrice);
+        product.setCategory(category);
+        return productRepository.save(product);
+    }
+}
@@ -0,0 +1,73 @@
+package com.ecommarce.project.controller;
+
+import com.ecommarce.project.model.Category;
+import com.ecommarce.project.model.Product;
+import com.ecommarce.project.repositories.CategoryRepository;
+import com.ecommarce.project.repositories.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+@WithMockUser
+class DuplicateNameIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        category = new Category();
+        category.setCategoryName("Duplicate Category");
+        category = categoryRepository.save(category);
+        productRepository.saveAndFlush(product("Duplicate Product"));
+    }
+
+    @Test
+    void rejectsACategoryNameDifferingOnlyInCaseAndSpacing() throws Exception {
+        mockMvc.perform(post("/api/public/categories")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"categoryName\":\"  duplicate CATEGORY \"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(false));
+    }
+
+    @Test
+    void uniqueIndexCatchesAProductThatSkippedTheCheck() {
+        assertThrows(DataIntegrityViolationException.class,
+                () -> productRepository.saveAndFlush(product("DUPLICATE product")));
+    }
+
+    private Product product(String name) {
+        Product product = new Product();
+        product.setProductName(name);
+        product.setDescription("Duplicate product description");
+        product.setQuantity(1);
+        product.setPrice(100);
+        product.setSpecialPrice(100);
+        product.setCategory(category);
+        return product;
+    }
+}
@@ -0,0 +1,109 @@
+package com.ecommarce.project.controller;
+
+import com.ecommarce.project.model.Category;
+import com.ecommarce.project.model.Product;
+import com.ecommarce.project.repositories.CategoryRepository;
+import com.ecommarce.project.repositories.ProductRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+@WithMockUser
+class KeysetPagingIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        category = new Category();
+        category.setCategoryName("Keyset Category");
+        category = categoryRepository.save(category);
+        for (int i = 0; i < 20; i++) {
+            Product product = new Product();
+            product.setProductName("Keyset Product " + i);
+            product.setDescription("Keyset product description");
+            product.setQuantity(10);
+            // only five distinct prices so the id has to break the ties
+            product.setPrice(100 + (i % 5));
+            product.setSpecialPrice(100 + (i % 5));
+            product.setCategory(category);
+            productRepository.save(product);
+        }
+        productRepository.flush();
+    }
+
+    @Test
+    void walksEveryProductOnceInSortOrder() throws Exception {
+        List<JsonNode> seen = new ArrayList<>();
+        String after = "";
+        int pages = 0;
+        while (after != null) {
+            String body = mockMvc.perform(get("/api/public/categories/{id}/products", category.getCategoryId())
+                            .param("after", after)
+                            .param("pageSize", "7")
+                            .param("sortBy", "price")
+                            .param("sortOrder", "desc"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode page = objectMapper.readTree(body);
+            assertTrue(page.get("totalElements").isNull());
+            page.get("content").forEach(seen::add);
+            after = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+            pages++;
+        }
+
+        assertEquals(3, pages);
+        assertEquals(20, seen.size());
+        assertEquals(20, new HashSet<>(seen.stream().map(p -> p.get("productId").asLong()).toList()).size());
+        for (int i = 1; i < seen.size(); i++) {
+            assertTrue(seen.get(i - 1).get("price").asDouble() >= seen.get(i).get("price").asDouble());
+        }
+    }
+
+    @Test
+    void rejectsCursorsFromAnotherSort() throws Exception {
+        String body = mockMvc.perform(get("/api/public/products")
+                        .param("after", "")
+                        .param("pageSize", "5"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String cursor = objectMapper.readTree(body).get("nextCursor").asText();
+
+        mockMvc.perform(get("/api/public/products")
+                        .param("after", cursor)
+                        .param("sortBy", "price"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/public/products").param("after", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+}
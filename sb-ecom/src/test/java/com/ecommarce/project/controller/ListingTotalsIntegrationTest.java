@@ -0,0 +1,120 @@
+package com.ecommarce.project.controller;
+
+import com.ecommarce.project.model.Category;
+import com.ecommarce.project.model.Product;
+import com.ecommarce.project.payload.ProductDTO;
+import com.ecommarce.project.repositories.CategoryRepository;
+import com.ecommarce.project.repositories.ProductRepository;
+import com.ecommarce.project.service.ProductService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+@WithMockUser
+@TestPropertySource(properties = "spring.app.keywordCountCap=10")
+class ListingTotalsIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        category = new Category();
+        category.setCategoryName("Totals Category");
+        category = categoryRepository.save(category);
+        for (int i = 0; i < 12; i++) {
+            Product product = new Product();
+            product.setProductName("Totals Product " + i);
+            product.setDescription("Totals product description");
+            product.setQuantity(10);
+            product.setPrice(100);
+            product.setSpecialPrice(100);
+            product.setCategory(category);
+            productRepository.save(product);
+        }
+        productRepository.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void categoryTotalsFollowProductWrites() throws Exception {
+        mockMvc.perform(get("/api/public/categories/{id}/products", category.getCategoryId()).param("pageSize", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(12))
+                .andExpect(jsonPath("$.totalPages").value(3))
+                .andExpect(jsonPath("$.lastPage").value(false));
+
+        productService.addProduct(category.getCategoryId(),
+                new ProductDTO(null, "Totals Product 12", null, "Totals product description", 10, 100, 0, 100));
+
+        mockMvc.perform(get("/api/public/categories/{id}/products", category.getCategoryId()).param("pageSize", "5"))
+                .andExpect(jsonPath("$.totalElements").value(13));
+    }
+
+    @Test
+    void totalsCanBeSkipped() throws Exception {
+        mockMvc.perform(get("/api/public/categories/{id}/products", category.getCategoryId())
+                        .param("pageSize", "5")
+                        .param("includeTotals", "false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").doesNotExist())
+                .andExpect(jsonPath("$.lastPage").value(false));
+    }
+
+    // sorts the search index can't serve still go through the capped LIKE count
+    @Test
+    void keywordTotalsAreCapped() throws Exception {
+        mockMvc.perform(get("/api/public/products/keyword/{keyword}", "totals product")
+                        .param("pageSize", "5")
+                        .param("sortBy", "quantity"))
+                .andExpect(jsonPath("$.totalElements").value(10))
+                .andExpect(jsonPath("$.totalsCapped").value(true));
+
+        // past the cap the total is a lower bound that still covers the page being served
+        mockMvc.perform(get("/api/public/products/keyword/{keyword}", "totals product")
+                        .param("pageSize", "5")
+                        .param("sortBy", "quantity")
+                        .param("pageNumber", "1"))
+                .andExpect(jsonPath("$.totalElements").value(11))
+                .andExpect(jsonPath("$.totalPages").value(3))
+                .andExpect(jsonPath("$.totalsCapped").value(true))
+                .andExpect(jsonPath("$.lastPage").value(false));
+
+        // the last page knows its exact total without counting
+        mockMvc.perform(get("/api/public/products/keyword/{keyword}", "totals product")
+                        .param("pageSize", "5")
+                        .param("sortBy", "quantity")
+                        .param("pageNumber", "2"))
+                .andExpect(jsonPath("$.totalElements").value(12))
+                .andExpect(jsonPath("$.totalsCapped").value(false))
+                .andExpect(jsonPath("$.lastPage").value(true));
+    }
+}
@@ -0,0 +1,98 @@
+package com.ecommarce.project.export;
+
+import com.ecommarce.project.model.Category;
+import com.ecommarce.project.model.Product;
+import com.ecommarce.project.repositories.CategoryRepository;
+import com.ecommarce.project.repositories.ProductRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "spring.app.export.chunkSize=3")
+@Transactional
+class ProductExporterTest {
+
+    @Autowired
+    private ProductExporter productExporter;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Category category;
+
+    private List<Long> productIds;
+
+    @BeforeEach
+    void setUp() {
+        category = new Category();
+        category.setCategoryName("Export Category");
+        category = categoryRepository.save(category);
+        productIds = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Product product = new Product();
+            product.setProductName("Export Product " + i);
+            product.setDescription("Export, \"quoted\" description");
+            product.setQuantity(i);
+            product.setPrice(100 + i);
+            product.setSpecialPrice(90 + i);
+            product.setCategory(category);
+            productIds.add(productRepository.save(product).getProductId());
+        }
+        productRepository.flush();
+    }
+
+    @Test
+    void streamsEveryProductOfTheCategoryAsNdjsonAcrossChunks() throws Exception {
+        List<JsonNode> lines = ndjson(category.getCategoryId(), 0);
+
+        assertEquals(productIds, lines.stream().map(line -> line.get("productId").asLong()).toList());
+        assertEquals("Export Product 4", lines.get(4).get("productName").asText());
+        assertEquals(category.getCategoryId(), lines.get(4).get("categoryId").asLong());
+    }
+
+    @Test
+    void resumesAfterTheLastExportedProduct() throws Exception {
+        List<JsonNode> lines = ndjson(category.getCategoryId(), productIds.get(6));
+
+        assertEquals(productIds.subList(7, 10), lines.stream().map(line -> line.get("productId").asLong()).toList());
+    }
+
+    @Test
+    void quotesCsvFieldsThatNeedIt() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = productExporter.export(category.getCategoryId(), 0, ProductExportFormat.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(10, rows);
+        assertEquals(11, lines.length);
+        assertEquals(productIds.get(0) + ",Export Product 0,\"Export, \"\"quoted\"\" description\",,0,100.0,0.0,90.0,"
+                + category.getCategoryId(), lines[1]);
+    }
+
+    private List<JsonNode> ndjson(Long categoryId, long afterProductId) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        productExporter.export(categoryId, afterProductId, ProductExportFormat.NDJSON, out);
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,77 @@
+package com.ecommarce.project.facet;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ProductFacetIndexTest {
+
+    private ProductFacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductFacetIndex(new SimpleMeterRegistry());
+        index.rebuild(List.of(
+                new FacetDocument(1L, 10L, 800, 700, 12.5, 5),
+                new FacetDocument(2L, 20L, 40, 30, 25, 0),
+                new FacetDocument(3L, 10L, 1500, 1200, 20, 2),
+                new FacetDocument(4L, 20L, 300, 250, 0, 9)));
+    }
+
+    @Test
+    void intersectsFiltersAcrossFacets() {
+        FacetResult result = index.search(query(Set.of(10L, 20L), null, 1000.0, null, true));
+        assertEquals(List.of(1L, 4L), result.productIds());
+        assertEquals(2, result.totalHits());
+    }
+
+    @Test
+    void checksBucketsStraddlingThePriceBounds() {
+        assertEquals(List.of(2L, 4L), index.search(query(null, 30.0, 250.0, null, null)).productIds());
+        assertEquals(List.of(4L), index.search(query(null, 30.5, 250.0, null, null)).productIds());
+    }
+
+    @Test
+    void countsEachFacetAgainstTheOtherFilters() {
+        FacetResult result = index.search(query(Set.of(10L), null, null, Set.of("10-25", "25-50"), null));
+        Map<String, Map<String, Integer>> facets = result.facets();
+
+        assertEquals(List.of(1L, 3L), result.productIds());
+        // the category facet ignores the category filter, so category 20 still shows its 25-50 product
+        assertEquals(Map.of("10", 2, "20", 1), facets.get(ProductFacetIndex.FACET_CATEGORY));
+        assertEquals(0, facets.get(ProductFacetIndex.FACET_DISCOUNT).get("0-10"));
+        assertEquals(2, facets.get(ProductFacetIndex.FACET_DISCOUNT).get("10-25"));
+        assertEquals(1, facets.get(ProductFacetIndex.FACET_PRICE).get("500-1000"));
+        assertEquals(2, facets.get(ProductFacetIndex.FACET_AVAILABILITY).get(ProductFacetIndex.IN_STOCK));
+    }
+
+    @Test
+    void pagesAndSortsBySpecialPrice() {
+        FacetResult result = index.search(new FacetQuery(null, null, null, null, null, "specialPrice", false, 1, 2));
+        assertEquals(List.of(1L, 4L), result.productIds());
+        assertEquals(4, result.totalHits());
+    }
+
+    @Test
+    void reflectsUpdatesDeletesAndReservations() {
+        index.index(new FacetDocument(2L, 20L, 40, 30, 25, 3));
+        index.remove(4L);
+        index.removeCategory(10L);
+        index.stockReserved(Map.of(2L, 3));
+
+        assertEquals(List.of(2L), index.search(query(null, null, null, null, null)).productIds());
+        assertEquals(List.of(), index.search(query(null, null, null, null, true)).productIds());
+        assertEquals(1, index.size());
+    }
+
+    private FacetQuery query(Set<Long> categoryIds, Double minPrice, Double maxPrice, Set<String> discounts,
+                             Boolean inStock) {
+        return new FacetQuery(categoryIds, minPrice, maxPrice, discounts, inStock, "productId", true, 0, 10);
+    }
+}
@@ -0,0 +1,73 @@
+package com.ecommarce.project.importing;
+
+import com.ecommarce.project.export.ProductExportFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductImportReaderTest {
+
+    @Test
+    void readsQuotedCsvFieldsByHeaderName() {
+        List<ProductImportRow> rows = read(ProductExportFormat.CSV, """
+                categoryId,productName,description,price,discount,quantity,specialPrice
+                7,Phone,"Big screen, ""fast"" chip",500,10,3,450
+                7,Case,"Two
+                lines",20,,,
+                """);
+
+        assertEquals(2, rows.size());
+        assertEquals(new ProductImportRow(2, "Phone", "Big screen, \"fast\" chip", 3, 500.0, 10.0, 7L, null), rows.get(0));
+        assertEquals(new ProductImportRow(3, "Case", "Two\nlines", null, 20.0, null, 7L, null), rows.get(1));
+    }
+
+    @Test
+    void rejectsMalformedRecordsWithoutStopping() {
+        List<ProductImportRow> csv = read(ProductExportFormat.CSV, """
+                categoryId,productName,description,price
+                x,Phone,Smartphone,500
+                7,Laptop,Thin laptop,900
+                """);
+        List<ProductImportRow> ndjson = read(ProductExportFormat.NDJSON, """
+                {"productName": "Phone", "categoryId": 7, "price": 500}
+                {not json
+
+                {"productName": "Laptop", "description": "Thin laptop", "categoryId": 7, "price": 900}
+                """);
+
+        assertNotNull(csv.get(0).error());
+        assertEquals("Laptop", csv.get(1).productName());
+        assertEquals(List.of(1L, 2L, 4L), ndjson.stream().map(ProductImportRow::line).toList());
+        assertNull(ndjson.get(0).error());
+        assertNotNull(ndjson.get(1).error());
+        assertEquals(900.0, ndjson.get(2).price());
+    }
+
+    @Test
+    void rejectsNdjsonValuesThatAreNotNumbers() {
+        List<ProductImportRow> rows = read(ProductExportFormat.NDJSON, """
+                {"productName": "Phone", "categoryId": 7, "price": "abc"}
+                {"productName": "Phone", "categoryId": 7, "price": 500, "quantity": 2.5}
+                {"productName": "Phone", "categoryId": true, "price": 500}
+                {"productName": "Phone", "categoryId": "7", "price": 500, "quantity": 3}
+                """);
+
+        assertNotNull(rows.get(0).error());
+        assertNotNull(rows.get(1).error());
+        assertNotNull(rows.get(2).error());
+        assertEquals(new ProductImportRow(4, "Phone", null, 3, 500.0, null, 7L, null), rows.get(3));
+    }
+
+    private static List<ProductImportRow> read(ProductExportFormat format, String text) {
+        List<ProductImportRow> rows = new ArrayList<>();
+        new ProductImportReader(new BufferedReader(new StringReader(text)), format, new ObjectMapper())
+                .forEachRemaining(rows::add);
+        return rows;
+    }
+}
@@ -0,0 +1,116 @@
+package com.ecommarce.project.inventory;
+
+import com.ecommarce.project.exceptions.APIException;
+import com.ecommarce.project.model.Product;
+import com.ecommarce.project.repositories.ProductRepository;
+import com.ecommarce.project.service.InventoryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.app.inventory.inMemory=true",
+        "spring.app.inventory.flushIntervalMs=3600000"
+})
+class InMemoryInventoryTest {
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private InMemoryInventory inMemoryInventory;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void reservationsAreServedFromMemoryAndFlushedAsDeltas() {
+        Product product = seedProduct("In-memory SKU", 10);
+
+        inventoryService.reserveStock(Map.of(product.getProductId(), 4));
+
+        assertEquals(6, inventoryService.availableQuantity(product));
+        assertEquals(10, stockOf(product.getProductId()));
+        assertThrows(APIException.class, () -> inventoryService.reserveStock(Map.of(product.getProductId(), 7)));
+
+        inMemoryInventory.flush();
+        assertEquals(6, stockOf(product.getProductId()));
+    }
+
+    @Test
+    void rolledBackOrderReleasesItsReservation() {
+        Product product = seedProduct("Rollback SKU", 5);
+
+        assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            inventoryService.reserveStock(Map.of(product.getProductId(), 5));
+            throw new IllegalStateException("payment failed");
+        }));
+
+        assertEquals(5, inventoryService.availableQuantity(product));
+        inMemoryInventory.flush();
+        assertEquals(5, stockOf(product.getProductId()));
+    }
+
+    @Test
+    void stockEditDuringAnOrderReplacesItsReservation() {
+        Product committed = seedProduct("Reset commit SKU", 10);
+        Product rolledBack = seedProduct("Reset rollback SKU", 10);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            inventoryService.reserveStock(Map.of(committed.getProductId(), 4));
+            inMemoryInventory.reset(committed.getProductId(), 20);
+        });
+        assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            inventoryService.reserveStock(Map.of(rolledBack.getProductId(), 4));
+            inMemoryInventory.reset(rolledBack.getProductId(), 20);
+            throw new IllegalStateException("payment failed");
+        }));
+        inMemoryInventory.reset(rolledBack.getProductId(), 20);
+
+        inMemoryInventory.flush();
+        assertEquals(20, inventoryService.availableQuantity(committed));
+        assertEquals(20, stockOf(committed.getProductId()));
+        assertEquals(20, inventoryService.availableQuantity(rolledBack));
+        assertEquals(20, stockOf(rolledBack.getProductId()));
+    }
+
+    @Test
+    void stockEditRewritesTheRowOverDeltasTakenBeforeIt() {
+        Product product = seedProduct("Reset flush SKU", 10);
+        inventoryService.reserveStock(Map.of(product.getProductId(), 3));
+
+        // the admin's row write lands first, then the deltas taken before the edit
+        jdbcTemplate.update("UPDATE products SET quantity = 50 WHERE product_id = ?", product.getProductId());
+        inMemoryInventory.flush();
+        inMemoryInventory.reset(product.getProductId(), 50);
+
+        assertEquals(50, stockOf(product.getProductId()));
+        assertEquals(50, inventoryService.availableQuantity(product));
+    }
+
+    private Product seedProduct(String name, int quantity) {
+        Product product = new Product();
+        product.setProductName(name);
+        product.setDescription("In-memory inventory product");
+        product.setQuantity(quantity);
+        product.setPrice(10);
+        product.setSpecialPrice(10);
+        return productRepository.save(product);
+    }
+
+    private int stockOf(Long productId) {
+        return jdbcTemplate.queryForObject("SELECT quantity FROM products WHERE product_id = ?", Integer.class, productId);
+    }
+}
@@ -0,0 +1,57 @@
+package com.ecommarce.project.inventory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StripedStockCounterTest {
+
+    @Test
+    void reservesAcrossStripesWhenOneStripeIsShort() {
+        StripedStockCounter counter = new StripedStockCounter(4, 10);
+
+        assertTrue(counter.tryReserve(7));
+        assertEquals(3, counter.available());
+        assertFalse(counter.tryReserve(4));
+        assertEquals(3, counter.available());
+
+        counter.release(2);
+        assertTrue(counter.tryReserve(5));
+        assertEquals(0, counter.available());
+    }
+
+    @Test
+    void concurrentReservationsNeverOversell() throws Exception {
+        StripedStockCounter counter = new StripedStockCounter(8, 1_000);
+        AtomicLong reserved = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 16; t++) {
+            int quantity = t % 3 + 1;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 200; i++) {
+                    if (counter.tryReserve(quantity)) {
+                        reserved.addAndGet(quantity);
+                    }
+                    assertTrue(counter.available() >= 0);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(1_000, reserved.get() + counter.available());
+        assertTrue(counter.available() < 3);
+    }
+}
@@ -0,0 +1,32 @@
+package com.ecommarce.project.metrics;
+
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class QueryBudget {
+
+    private QueryBudget() {
+    }
+
+    public static ResultMatcher statementsAtMost(int maxStatements) {
+        return result -> {
+            QueryStats stats = (QueryStats) result.getRequest().getAttribute(QueryStats.REQUEST_ATTRIBUTE);
+            assertNotNull(stats, "QueryCountFilter did not run for " + result.getRequest().getRequestURI());
+            assertWithinBudget(stats, maxStatements, result.getRequest().getRequestURI());
+        };
+    }
+
+    public static QueryStats assertStatementsAtMost(int maxStatements, Runnable action) {
+        QueryStats stats = QueryCounter.reset();
+        action.run();
+        assertWithinBudget(stats, maxStatements, "action");
+        return stats;
+    }
+
+    private static void assertWithinBudget(QueryStats stats, int maxStatements, String target) {
+        assertTrue(stats.getStatements() <= maxStatements,
+                target + " issued " + stats.getStatements() + " SQL statements, budget is " + maxStatements);
+    }
+}
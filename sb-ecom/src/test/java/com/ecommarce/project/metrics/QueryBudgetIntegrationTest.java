@@ -0,0 +1,96 @@
+package com.ecommarce.project.metrics;
+
+import com.ecommarce.project.model.Cart;
+import com.ecommarce.project.model.CartItem;
+import com.ecommarce.project.model.Category;
+import com.ecommarce.project.model.Product;
+import com.ecommarce.project.repositories.CartRepository;
+import com.ecommarce.project.repositories.CategoryRepository;
+import com.ecommarce.project.repositories.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import static com.ecommarce.project.metrics.QueryBudget.statementsAtMost;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+@WithMockUser
+class QueryBudgetIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        category = new Category();
+        category.setCategoryName("Budget Category");
+        category = categoryRepository.save(category);
+        // every product sits in a cart, which the listing must not load
+        Cart cart = new Cart();
+        for (int i = 0; i < 20; i++) {
+            Product product = new Product();
+            product.setProductName("Budget Product " + i);
+            product.setDescription("Budget product description");
+            product.setQuantity(10);
+            product.setPrice(100);
+            product.setSpecialPrice(100);
+            product.setCategory(category);
+            productRepository.save(product);
+            CartItem cartItem = new CartItem();
+            cartItem.setCart(cart);
+            cartItem.setProduct(product);
+            cartItem.setQuantity(1);
+            cartItem.setProductPrice(product.getSpecialPrice());
+            cart.getCartItems().add(cartItem);
+        }
+        cartRepository.save(cart);
+        productRepository.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void productListingStaysWithinBudget() throws Exception {
+        // page + count; category and cart lines are lazy and never touched by the mapping
+        mockMvc.perform(get("/api/public/products").param("pageSize", "20"))
+                .andExpect(status().isOk())
+                .andExpect(statementsAtMost(2));
+    }
+
+    @Test
+    void categoryListingStaysWithinBudget() throws Exception {
+        mockMvc.perform(get("/api/public/categories"))
+                .andExpect(status().isOk())
+                .andExpect(statementsAtMost(2));
+    }
+
+    @Test
+    void rowsAndStatementsAreCountedPerAction() {
+        QueryStats stats = QueryBudget.assertStatementsAtMost(1, () -> categoryRepository.findAll());
+        assertTrue(stats.getRows() >= 1);
+    }
+}
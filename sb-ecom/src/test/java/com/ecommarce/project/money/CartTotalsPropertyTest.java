@@ -0,0 +1,121 @@
+package com.ecommarce.project.money;
+
+import com.ecommarce.project.model.Cart;
+import com.ecommarce.project.model.CartItem;
+import com.ecommarce.project.model.Product;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CartTotalsPropertyTest {
+
+    private static final int MUTATIONS = 2_000_000;
+    private static final int CARTS = 64;
+    private static final int PRODUCTS = 40;
+
+    // random adds, quantity changes, reprices, removals and checkouts against a BigDecimal model of each cart;
+    // the incrementally kept total has to match the model after every step and a full recount at the end
+    @Test
+    void incrementalTotalsStayExactOverRandomMutations() {
+        SplittableRandom random = new SplittableRandom(2021);
+        List<Cart> carts = new ArrayList<>();
+        List<Map<Long, CartItem>> lines = new ArrayList<>();
+        BigDecimal[] model = new BigDecimal[CARTS];
+        for (int c = 0; c < CARTS; c++) {
+            Cart cart = new Cart();
+            cart.setCartId((long) c);
+            carts.add(cart);
+            lines.add(new HashMap<>());
+            model[c] = BigDecimal.ZERO;
+        }
+
+        for (int step = 0; step < MUTATIONS; step++) {
+            int c = random.nextInt(CARTS);
+            Cart cart = carts.get(c);
+            Map<Long, CartItem> cartLines = lines.get(c);
+            long productId = random.nextInt(PRODUCTS);
+            CartItem cartItem = cartLines.get(productId);
+            // prices like 0.07 or 1234.99 are the ones double sums drift on
+            double price = random.nextInt(1_000_000) / 100.0;
+            int quantity = 1 + random.nextInt(20);
+            int operation = random.nextInt(10);
+
+            if (operation == 0) {
+                cartLines.clear();
+                cart.getCartItems().clear();
+                CartTotals.clear(cart);
+                model[c] = BigDecimal.ZERO;
+            } else if (cartItem == null) {
+                cartItem = line(cart, productId);
+                CartTotals.addLine(cart, cartItem, Money.fromMajor(price), quantity);
+                cartLines.put(productId, cartItem);
+                cart.getCartItems().add(cartItem);
+                model[c] = model[c].add(amount(price, quantity));
+            } else if (operation < 4) {
+                model[c] = model[c].subtract(amount(cartItem));
+                CartTotals.removeLine(cart, cartItem);
+                cartLines.remove(productId);
+                CartItem removed = cartItem;
+                cart.getCartItems().removeIf(item -> item == removed);
+            } else if (operation < 7) {
+                model[c] = model[c].subtract(amount(cartItem)).add(amount(cartItem.getProductPrice(), quantity));
+                CartTotals.changeLine(cart, cartItem, cartItem.getProductPriceMinor(), quantity);
+            } else {
+                model[c] = model[c].subtract(amount(cartItem)).add(amount(price, cartItem.getQuantity()));
+                CartTotals.changeLine(cart, cartItem, Money.fromMajor(price), cartItem.getQuantity());
+            }
+
+            int at = step;
+            assertEquals(model[c].movePointRight(2).longValueExact(), cart.getTotalPriceMinor(), () -> "step " + at);
+        }
+
+        for (Cart cart : carts) {
+            assertEquals(CartTotals.expectedTotalMinor(cart), cart.getTotalPriceMinor());
+        }
+    }
+
+    @Test
+    void convertsToTheNearestMinorUnit() {
+        assertEquals(30, Money.fromMajor(0.1 + 0.2));
+        assertEquals(1_999, Money.fromMajor(19.99));
+        assertEquals(-5, Money.fromMajor(-0.05));
+        assertEquals(19.99, Money.toMajor(1_999));
+        assertThrows(IllegalArgumentException.class, () -> Money.fromMajor(Double.NaN));
+    }
+
+    @Test
+    void rejectsOverflowAndTotalsThatFallOutOfStepWithTheirLines() {
+        assertThrows(ArithmeticException.class, () -> Money.line(Long.MAX_VALUE / 2, 3));
+
+        Cart cart = new Cart();
+        CartItem cartItem = line(cart, 1L);
+        CartTotals.addLine(cart, cartItem, 500, 2);
+        cart.setTotalPriceMinor(400);
+        assertThrows(IllegalStateException.class, () -> CartTotals.removeLine(cart, cartItem));
+    }
+
+    private static CartItem line(Cart cart, Long productId) {
+        Product product = new Product();
+        product.setProductId(productId);
+        CartItem cartItem = new CartItem();
+        cartItem.setCart(cart);
+        cartItem.setProduct(product);
+        return cartItem;
+    }
+
+    private static BigDecimal amount(CartItem cartItem) {
+        return amount(cartItem.getProductPrice(), cartItem.getQuantity());
+    }
+
+    private static BigDecimal amount(double price, int quantity) {
+        return BigDecimal.valueOf(price).multiply(BigDecimal.valueOf(quantity));
+    }
+}
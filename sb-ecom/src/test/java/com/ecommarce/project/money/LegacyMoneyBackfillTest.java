@@ -0,0 +1,38 @@
+package com.ecommarce.project.money;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LegacyMoneyBackfillTest {
+
+    @Test
+    void movesOldAmountsToMinorUnitsOnce() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(
+                new DriverManagerDataSource("jdbc:h2:mem:money-backfill;DB_CLOSE_DELAY=-1"));
+        // the old double columns next to the ones ddl-auto added with 0
+        jdbcTemplate.execute("CREATE TABLE carts (cart_id BIGINT, total_price DOUBLE, "
+                + "total_price_minor BIGINT DEFAULT 0 NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE cart_items (cart_item_id BIGINT, product_price DOUBLE NOT NULL, "
+                + "product_price_minor BIGINT DEFAULT 0 NOT NULL)");
+        jdbcTemplate.update("INSERT INTO carts (cart_id, total_price) VALUES (1, 59.97), (2, NULL)");
+        jdbcTemplate.update("INSERT INTO cart_items (cart_item_id, product_price) VALUES (1, 19.99)");
+        LegacyMoneyBackfill backfill = new LegacyMoneyBackfill();
+        ReflectionTestUtils.setField(backfill, "jdbcTemplate", jdbcTemplate);
+
+        backfill.backfill();
+        assertEquals(5_997L, jdbcTemplate.queryForObject("SELECT total_price_minor FROM carts WHERE cart_id = 1", Long.class));
+        // the cart emptied since must stay empty on the next start
+        jdbcTemplate.update("UPDATE carts SET total_price_minor = 0 WHERE cart_id = 1");
+        backfill.backfill();
+
+        assertEquals(0L, jdbcTemplate.queryForObject("SELECT total_price_minor FROM carts WHERE cart_id = 1", Long.class));
+        assertEquals(0L, jdbcTemplate.queryForObject("SELECT total_price_minor FROM carts WHERE cart_id = 2", Long.class));
+        assertEquals(1_999L, jdbcTemplate.queryForObject("SELECT product_price_minor FROM cart_items", Long.class));
+        jdbcTemplate.execute("DROP TABLE carts");
+        jdbcTemplate.execute("DROP TABLE cart_items");
+    }
+}
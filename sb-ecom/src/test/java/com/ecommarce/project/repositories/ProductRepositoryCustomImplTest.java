@@ -0,0 +1,57 @@
+package com.ecommarce.project.repositories;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ProductRepositoryCustomImplTest {
+
+    private static final String URL = "jdbc:h2:mem:reserve-stock;DB_CLOSE_DELAY=-1";
+
+    private final JdbcTemplate setup = new JdbcTemplate(new DriverManagerDataSource(URL));
+
+    @BeforeEach
+    void setUp() {
+        setup.execute("CREATE TABLE products (product_id BIGINT PRIMARY KEY, quantity INT)");
+        setup.update("INSERT INTO products VALUES (1, 5), (2, 1)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        setup.execute("DROP TABLE products");
+    }
+
+    @Test
+    void rejectsShortLinesWhenTheDriverReportsNoCounts() {
+        // what a driver rewriting the batch answers: every statement "succeeded", none says how many rows
+        JdbcTemplate noInfo = new JdbcTemplate(new DriverManagerDataSource(URL)) {
+            @Override
+            public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+                int[] counts = super.batchUpdate(sql, batchArgs);
+                Arrays.fill(counts, Statement.SUCCESS_NO_INFO);
+                return counts;
+            }
+        };
+        ProductRepositoryCustomImpl repository = new ProductRepositoryCustomImpl();
+        ReflectionTestUtils.setField(repository, "jdbcTemplate", noInfo);
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            TreeMap<Long, Integer> lines = new TreeMap<>();
+            lines.put(1L, 2);
+            lines.put(2L, 2);
+            assertEquals(List.of(2L), repository.reserveStock(lines));
+        }
+        assertEquals(1, setup.queryForObject("SELECT quantity FROM products WHERE product_id = 1", Integer.class));
+        assertEquals(1, setup.queryForObject("SELECT quantity FROM products WHERE product_id = 2", Integer.class));
+    }
+}
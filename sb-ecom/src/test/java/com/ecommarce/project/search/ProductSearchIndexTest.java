@@ -0,0 +1,103 @@
+package com.ecommarce.project.search;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ProductSearchIndexTest {
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex(new SimpleMeterRegistry());
+        index.rebuild(List.of(
+                new SearchDocument(1L, "Galaxy Phone", "Android smartphone with a big screen", 10L, 700),
+                new SearchDocument(2L, "Phone Case", "Leather case for the galaxy", 20L, 30),
+                new SearchDocument(3L, "Laptop", "Thin laptop, pairs with your phone", 10L, 1200),
+                new SearchDocument(4L, "Headphones", "Noise cancelling", 20L, 250)));
+    }
+
+    @Test
+    void ranksNameMatchesAboveDescriptionMatches() {
+        // 1 and 2 tie on the name and fall back to id order, 3 only mentions it in the description
+        assertEquals(List.of(1L, 2L, 3L), ids(query("phone")));
+    }
+
+    @Test
+    void matchesWordPrefixesInEveryQueryWord() {
+        assertEquals(List.of(1L, 2L), ids(query("gal pho")));
+        assertEquals(List.of(1L), ids(query("smart")));
+        assertEquals(List.of(), ids(query("hone")));
+    }
+
+    @Test
+    void filtersByCategoryAndPrice() {
+        SearchResult result = index.search(new SearchQuery("phone", 10L, null, 1000.0, "relevance", false, 0, 10));
+        assertEquals(List.of(1L), result.productIds());
+        assertEquals(1, result.totalHits());
+    }
+
+    @Test
+    void pagesAndSortsByPrice() {
+        SearchResult result = index.search(new SearchQuery("phone", null, null, null, "price", true, 1, 1));
+        assertEquals(List.of(1L), result.productIds());
+        assertEquals(3, result.totalHits());
+    }
+
+    @Test
+    void cursorPagesKeepTheFiltersAndContinueAfterTheLastHit() {
+        SearchResult first = index.search(new SearchQuery("phone", null, null, 1000.0, "price", true, 0, 1, null));
+        assertEquals(List.of(2L), first.productIds());
+        assertEquals(2, first.totalHits());
+
+        SearchResult second = index.search(new SearchQuery("phone", null, null, 1000.0, "price", true, 0, 1,
+                first.last()));
+        assertEquals(List.of(1L), second.productIds());
+        assertEquals(1, second.totalHits());
+    }
+
+    @Test
+    void reflectsUpdatesAndDeletes() {
+        index.index(new SearchDocument(4L, "Headphones", "Bluetooth phone headset", 20L, 250));
+        index.remove(2L);
+        index.removeCategory(10L);
+
+        assertEquals(List.of(4L), ids(query("phone")));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void loadKeepsEachProductsOwnCategoryWhateverIsNull() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(
+                new DriverManagerDataSource("jdbc:h2:mem:search-load;DB_CLOSE_DELAY=-1"));
+        jdbcTemplate.execute("CREATE TABLE products (product_id BIGINT, product_name VARCHAR(255), "
+                + "description VARCHAR(255), category_id BIGINT, price DOUBLE)");
+        jdbcTemplate.update("INSERT INTO products VALUES (1, 'Desk Lamp', 'Warm light', NULL, 20)");
+        jdbcTemplate.update("INSERT INTO products VALUES (2, 'Floor Lamp', NULL, 10, 80)");
+        ReflectionTestUtils.setField(index, "jdbcTemplate", jdbcTemplate);
+
+        index.load();
+
+        assertEquals(List.of(2L), index.search(new SearchQuery("lamp", 10L, null, null, "relevance", false, 0, 10))
+                .productIds());
+        assertEquals(List.of(), index.search(new SearchQuery("lamp", 0L, null, null, "relevance", false, 0, 10))
+                .productIds());
+        jdbcTemplate.execute("DROP TABLE products");
+    }
+
+    private SearchQuery query(String text) {
+        return new SearchQuery(text, null, null, null, "relevance", false, 0, 10);
+    }
+
+    private List<Long> ids(SearchQuery query) {
+        return index.search(query).productIds();
+    }
+}
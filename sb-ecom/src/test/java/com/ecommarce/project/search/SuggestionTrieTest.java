@@ -0,0 +1,65 @@
+package com.ecommarce.project.search;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SuggestionTrieTest {
+
+    private final SuggestionTrie trie = SuggestionTrie.build(List.of(
+            product(1L, "iPhone 15", 40),
+            product(2L, "iPhone Case", 90),
+            product(3L, "iPad Air", 60),
+            product(4L, "Headphones", 10),
+            new Suggestion("Phones", Suggestion.CATEGORY, 7L, null, 25),
+            product(5L, "iphone 15", 5)));
+
+    @Test
+    void completesByWeight() {
+        assertEquals(List.of("iPhone Case", "iPad Air", "iPhone 15"), texts(trie.complete("IP", 10)));
+        assertEquals(List.of("iPhone Case"), texts(trie.complete("ip", 1)));
+        assertEquals(List.of(), trie.complete("x", 10));
+    }
+
+    @Test
+    void keepsTheHeaviestOfDuplicateNames() {
+        assertEquals(5, trie.size());
+        assertEquals(1L, trie.complete("iphone 1", 10).get(0).id());
+    }
+
+    @Test
+    void toleratesTypos() {
+        assertEquals(List.of("iPhone Case", "iPhone 15"), texts(trie.completeFuzzy("iphnoe", 2, 10, List.of())));
+        assertEquals(List.of("Phones"), texts(trie.completeFuzzy("phobe", 1, 10, List.of())));
+        assertTrue(trie.completeFuzzy("zzzzzz", 2, 10, List.of()).isEmpty());
+    }
+
+    @Test
+    void suggesterMergesPendingEditsBeforeRebuild() {
+        ProductSuggester suggester = new ProductSuggester(new SimpleMeterRegistry());
+        suggester.productChanged(1L, "iPhone 15", 10L);
+        suggester.productChanged(2L, "iPad Air", 10L);
+        suggester.rebuild();
+
+        suggester.productChanged(1L, "Pixel 9", 10L);
+        suggester.productChanged(3L, "iPod Nano", 20L);
+        assertEquals(List.of("iPod Nano", "iPad Air"), texts(suggester.suggest("ip", 10)));
+
+        suggester.categoryRemoved(20L);
+        suggester.rebuild();
+        assertEquals(List.of("iPad Air"), texts(suggester.suggest("ip", 10)));
+        assertEquals(List.of("Pixel 9"), texts(suggester.suggest("pixle", 10)));
+    }
+
+    private static Suggestion product(Long id, String name, int weight) {
+        return new Suggestion(name, Suggestion.PRODUCT, id, 1L, weight);
+    }
+
+    private static List<String> texts(List<Suggestion> suggestions) {
+        return suggestions.stream().map(Suggestion::text).toList();
+    }
+}
@@ -0,0 +1,54 @@
+package com.ecommarce.project.security.jwt;
+
+import com.ecommarce.project.security.services.UserDetailsImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtTokenCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private UserDetailsImpl user(long id) {
+        return new UserDetailsImpl(id, "user" + id, "user" + id + "@example.com", null, List.of());
+    }
+
+    @Test
+    void returnsCachedUserUntilExpiry() {
+        JwtTokenCache cache = new JwtTokenCache(10, meterRegistry);
+        cache.put("token", user(1), System.currentTimeMillis() + 60_000);
+
+        assertEquals(1L, cache.get("token").getId());
+        assertNull(cache.get("other"));
+        assertEquals(1.0, meterRegistry.get("jwt.cache.requests").tag("result", "hit").counter().count());
+        assertEquals(1.0, meterRegistry.get("jwt.cache.requests").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void dropsExpiredTokens() {
+        JwtTokenCache cache = new JwtTokenCache(10, meterRegistry);
+        cache.put("expired", user(1), System.currentTimeMillis() - 1);
+        assertEquals(0, cache.size());
+
+        cache.put("token", user(2), System.currentTimeMillis() + 50);
+        cache.put("token", user(2), System.currentTimeMillis() - 1);
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void staysBoundedAndEvictsClosestToExpiry() {
+        JwtTokenCache cache = new JwtTokenCache(10, meterRegistry);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < 25; i++) {
+            cache.put("token" + i, user(i), now + 60_000 + i * 1_000L);
+        }
+
+        assertTrue(cache.size() <= 10);
+        assertNotNull(cache.get("token24"));
+        assertNull(cache.get("token0"));
+        assertTrue(meterRegistry.get("jwt.cache.evictions").counter().count() >= 15);
+    }
+}
@@ -0,0 +1,51 @@
+package com.ecommarce.project.security.jwt;
+
+import com.ecommarce.project.security.services.UserDetailsImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilsTest {
+
+    private JwtUtils jwtUtils;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret",
+                "mySecretKey123912738aopsgjnspkmndfsopkvajoirjg94gf2opfng2moknm");
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 60_000);
+        jwtUtils.init();
+    }
+
+    @Test
+    void parseJwtTokenReturnsUserClaims() {
+        UserDetailsImpl user = new UserDetailsImpl(7L, "user1", "user1@example.com", "secret",
+                List.of(new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("ROLE_SELLER")));
+
+        JwtClaims claims = jwtUtils.parseJwtToken(jwtUtils.generateTokenFromUserDetails(user));
+
+        assertTrue(claims.isValid());
+        assertEquals("user1", claims.getSubject());
+        assertEquals(7L, claims.getUserId());
+        assertEquals("user1@example.com", claims.getEmail());
+        assertEquals(List.of("ROLE_USER", "ROLE_SELLER"), claims.getRoles());
+        assertTrue(claims.getExpiration().getTime() > System.currentTimeMillis());
+    }
+
+    @Test
+    void parseJwtTokenReportsWhyTokenIsRejected() {
+        String token = jwtUtils.generateTokenFromUsername("user1");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertEquals(JwtStatus.INVALID_SIGNATURE, jwtUtils.parseJwtToken(tampered).getStatus());
+        assertEquals(JwtStatus.MALFORMED, jwtUtils.parseJwtToken("not.a.jwt").getStatus());
+        assertEquals(JwtStatus.EMPTY, jwtUtils.parseJwtToken("").getStatus());
+        assertFalse(jwtUtils.validateJwtToken(tampered));
+    }
+}
@@ -0,0 +1,121 @@
+package com.ecommarce.project.service;
+
+import com.ecommarce.project.exceptions.APIException;
+import com.ecommarce.project.model.Product;
+import com.ecommarce.project.repositories.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class InventoryServiceImplTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentReservationsNeverOversell() throws Exception {
+        Long productId = seedProduct("Hot SKU", 50);
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicBoolean wentNegative = new AtomicBoolean();
+
+        runConcurrently(200, attempt -> {
+            try {
+                inventoryService.reserveStock(Map.of(productId, 1));
+                reserved.incrementAndGet();
+            } catch (APIException e) {
+                rejected.incrementAndGet();
+            }
+            if (stockOf(productId) < 0) {
+                wentNegative.set(true);
+            }
+        });
+
+        assertFalse(wentNegative.get());
+        assertEquals(50, reserved.get());
+        assertEquals(150, rejected.get());
+        assertEquals(0, stockOf(productId));
+    }
+
+    @Test
+    void multiLineReservationsInOppositeOrderDoNotDeadlockAndRejectAtomically() throws Exception {
+        Long first = seedProduct("Paired SKU A", 40);
+        Long second = seedProduct("Paired SKU B", 20);
+        AtomicInteger reserved = new AtomicInteger();
+
+        runConcurrently(100, attempt -> {
+            Map<Long, Integer> lines = new LinkedHashMap<>();
+            if (attempt % 2 == 0) {
+                lines.put(first, 1);
+                lines.put(second, 1);
+            } else {
+                lines.put(second, 1);
+                lines.put(first, 1);
+            }
+            try {
+                inventoryService.reserveStock(lines);
+                reserved.incrementAndGet();
+            } catch (APIException ignored) {
+            }
+        });
+
+        // B runs out after 20 orders; a rejected order must not keep its decrement of A
+        assertEquals(20, reserved.get());
+        assertEquals(0, stockOf(second));
+        assertEquals(20, stockOf(first));
+    }
+
+    private void runConcurrently(int attempts, IntConsumer task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < attempts; i++) {
+            int attempt = i;
+            futures.add(executor.submit(() -> {
+                start.await();
+                task.accept(attempt);
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+    }
+
+    private Long seedProduct(String name, int quantity) {
+        Product product = new Product();
+        product.setProductName(name);
+        product.setDescription("Inventory stress product");
+        product.setQuantity(quantity);
+        product.setPrice(10);
+        product.setSpecialPrice(10);
+        return productRepository.save(product).getProductId();
+    }
+
+    private int stockOf(Long productId) {
+        return jdbcTemplate.queryForObject("SELECT quantity FROM products WHERE product_id = ?", Integer.class, productId);
+    }
+}
@@ -0,0 +1,116 @@
+package com.ecommarce.project.service;
+
+import com.ecommarce.project.metrics.QueryBudget;
+import com.ecommarce.project.metrics.QueryStats;
+import com.ecommarce.project.model.*;
+import com.ecommarce.project.payload.OrderDTO;
+import com.ecommarce.project.repositories.*;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class OrderServiceImplTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void placeOrderIssuesConstantStatementCountRegardlessOfCartSize() {
+        Long smallAddress = seedCart("small", 3);
+        Long largeAddress = seedCart("large", 30);
+
+        QueryStats small = QueryBudget.assertStatementsAtMost(12, () -> placeOrder("small", smallAddress));
+        QueryStats large = QueryBudget.assertStatementsAtMost(12, () -> placeOrder("large", largeAddress));
+
+        assertEquals(small.getStatements(), large.getStatements());
+    }
+
+    @Test
+    void placeOrderDecrementsStockAndClearsCart() {
+        Long addressId = seedCart("stock", 2);
+
+        OrderDTO order = placeOrder("stock", addressId);
+
+        assertEquals(2, order.getOrderItems().size());
+        entityManager.clear();
+        Cart cart = cartRepository.findCartByEmail("stock@example.com");
+        assertTrue(cart.getCartItems().isEmpty());
+        assertEquals(0.0, cart.getTotalPrice());
+        productRepository.findAllById(order.getOrderItems().stream()
+                        .map(item -> item.getProduct().getProductId()).toList())
+                .forEach(product -> assertEquals(9, product.getQuantity()));
+    }
+
+    private OrderDTO placeOrder(String userName, Long addressId) {
+        OrderDTO order = orderService.placeOrder(userName + "@example.com", addressId, "card",
+                "stripe", "pg-1", "succeeded", "ok");
+        entityManager.flush();
+        return order;
+    }
+
+    private Long seedCart(String userName, int items) {
+        User user = userRepository.save(new User(userName, userName + "@example.com", "password"));
+        Address address = new Address("Main Street", "Building 1", "Springfield", "State", "Country", "123456");
+        address.setUser(user);
+        address = addressRepository.save(address);
+
+        Category category = new Category();
+        category.setCategoryName("Order category " + userName);
+        category = categoryRepository.save(category);
+
+        Cart cart = new Cart();
+        cart.setUser(user);
+        cart = cartRepository.save(cart);
+
+        double total = 0;
+        for (int i = 0; i < items; i++) {
+            Product product = new Product();
+            product.setProductName(userName + " product " + i);
+            product.setDescription("Order test product");
+            product.setQuantity(10);
+            product.setPrice(20);
+            product.setSpecialPrice(20);
+            product.setCategory(category);
+            product = productRepository.save(product);
+
+            CartItem cartItem = new CartItem();
+            cartItem.setCart(cart);
+            cartItem.setProduct(product);
+            cartItem.setQuantity(1);
+            cartItem.setProductPrice(product.getSpecialPrice());
+            cartItemRepository.save(cartItem);
+            total += product.getSpecialPrice();
+        }
+        cart.setTotalPrice(total);
+        entityManager.flush();
+        entityManager.clear();
+        return address.getAddressId();
+    }
+}
@@ -0,0 +1,98 @@
+package com.ecommarce.project.service;
+
+import com.ecommarce.project.export.ProductExportFormat;
+import com.ecommarce.project.model.Category;
+import com.ecommarce.project.model.Product;
+import com.ecommarce.project.payload.ProductImportJobDTO;
+import com.ecommarce.project.repositories.CategoryRepository;
+import com.ecommarce.project.repositories.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// imports commit on their own thread, so the data here is committed and removed again after each test
+@SpringBootTest(properties = "spring.app.import.chunkSize=4")
+class ProductImportServiceImplTest {
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        category = new Category();
+        category.setCategoryName("Import Category");
+        category = categoryRepository.save(category);
+
+        Product existing = new Product();
+        existing.setProductName("Existing Product");
+        existing.setDescription("Already in the catalog");
+        existing.setQuantity(1);
+        existing.setPrice(10);
+        existing.setSpecialPrice(10);
+        existing.setCategory(category);
+        productRepository.save(existing);
+    }
+
+    @AfterEach
+    void tearDown() {
+        categoryRepository.deleteById(category.getCategoryId());
+    }
+
+    @Test
+    void insertsNewRowsAndRejectsDuplicatesAndInvalidOnes() throws Exception {
+        Long categoryId = category.getCategoryId();
+        StringBuilder csv = new StringBuilder("categoryId,productName,description,price,discount,quantity\n");
+        for (int i = 0; i < 10; i++) {
+            csv.append(categoryId).append(",Imported Product ").append(i).append(",Imported description,100,10,5\n");
+        }
+        csv.append(categoryId).append(",Existing Product,Clashes with the catalog,100,0,1\n");
+        csv.append(categoryId).append(",Imported Product 3,Clashes with the file,100,0,1\n");
+        csv.append(categoryId).append(",No,Name too short,100,0,1\n");
+        csv.append("999999,Orphan Product,Unknown category,100,0,1\n");
+
+        ProductImportJobDTO job = productImportService.startImport(
+                new MockMultipartFile("file", "products.csv", "text/csv", csv.toString().getBytes(StandardCharsets.UTF_8)),
+                ProductExportFormat.CSV);
+        job = await(job.getJobId());
+
+        assertEquals("COMPLETED", job.getStatus());
+        assertEquals(14, job.getRowsProcessed());
+        assertEquals(10, job.getRowsInserted());
+        assertEquals(4, job.getRowsRejected());
+        assertEquals(4, job.getErrors().size());
+        assertEquals(11, productRepository.countByCategory(category));
+        assertEquals(List.of("imported product 0"),
+                productRepository.findNormalizedNamesIn(categoryId, List.of("imported product 0")));
+        assertEquals(90.0, productRepository.findDtoSliceByProductNameLikeIgnoreCase("Imported Product 0",
+                PageRequest.of(0, 1)).getContent().get(0).getSpecialPrice());
+    }
+
+    private ProductImportJobDTO await(String jobId) throws InterruptedException {
+        for (int i = 0; i < 200; i++) {
+            ProductImportJobDTO job = productImportService.getImportJob(jobId);
+            if (job.getStatus().equals("COMPLETED") || job.getStatus().equals("FAILED")) {
+                return job;
+            }
+            Thread.sleep(50);
+        }
+        fail("import " + jobId + " did not finish");
+        return null;
+    }
+}